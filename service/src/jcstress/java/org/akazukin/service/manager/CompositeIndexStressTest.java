@@ -0,0 +1,129 @@
+package org.akazukin.service.manager;
+
+import org.akazukin.service.data.IBlueprintedServiceHolder;
+import org.akazukin.service.manager.StressServices.Service;
+import org.akazukin.service.manager.StressServices.ServiceA;
+import org.akazukin.service.manager.StressServices.ServiceB;
+import org.openjdk.jcstress.annotations.Actor;
+import org.openjdk.jcstress.annotations.Arbiter;
+import org.openjdk.jcstress.annotations.Expect;
+import org.openjdk.jcstress.annotations.JCStressTest;
+import org.openjdk.jcstress.annotations.Outcome;
+import org.openjdk.jcstress.annotations.State;
+import org.openjdk.jcstress.infra.results.II_Result;
+import org.openjdk.jcstress.infra.results.I_Result;
+
+import java.util.Arrays;
+
+/**
+ * Races registrations and unregistrations on the members of a composite against its merged index.
+ * The member with the highest precedence must win regardless of the order of registration,
+ * and a lookup must never miss a service which stays registered in one of the members.
+ */
+public final class CompositeIndexStressTest {
+    private static final int FIRST = 0;
+    private static final int SECOND = 1;
+    private static final int MISSING = -1;
+
+    private CompositeIndexStressTest() {
+    }
+
+    private static int winner(final CompositeServiceManager<IBlueprintedServiceHolder<? extends Service>, Service> composite,
+                              final Service first, final Service second) {
+        final Service service = composite.getServiceByInterface(Service.class);
+        return service == first ? FIRST : service == second ? SECOND : MISSING;
+    }
+
+    @JCStressTest
+    @Outcome(id = "0", expect = Expect.ACCEPTABLE, desc = "The member with the highest precedence won.")
+    @Outcome(expect = Expect.FORBIDDEN, desc = "The order of registration decided the winner.")
+    @State
+    public static class Precedence {
+        final BlueprintedServiceManager<Service> high = StressServices.blueprinted();
+        final BlueprintedServiceManager<Service> low = StressServices.blueprinted();
+        final CompositeServiceManager<IBlueprintedServiceHolder<? extends Service>, Service> composite =
+                StressServices.composite(Arrays.asList(this.high, this.low));
+        final ServiceA first = new ServiceA(1);
+        final ServiceB second = new ServiceB();
+
+        @Actor
+        public void registerHigh() {
+            this.high.registerService(Service.class, this.first);
+        }
+
+        @Actor
+        public void registerLow() {
+            this.low.registerService(Service.class, this.second);
+        }
+
+        @Arbiter
+        public void arbiter(final I_Result r) {
+            r.r1 = winner(this.composite, this.first, this.second);
+        }
+    }
+
+    @JCStressTest
+    @Outcome(id = {"0, 0", "1, 0"}, expect = Expect.ACCEPTABLE, desc = "The reader saw the shadowed or the new winner.")
+    @Outcome(expect = Expect.FORBIDDEN, desc = "The reader missed the service while the winner changed.")
+    @State
+    public static class Shadowing {
+        final BlueprintedServiceManager<Service> high = StressServices.blueprinted();
+        final BlueprintedServiceManager<Service> low = StressServices.blueprinted();
+        final CompositeServiceManager<IBlueprintedServiceHolder<? extends Service>, Service> composite =
+                StressServices.composite(Arrays.asList(this.high, this.low));
+        final ServiceA first = new ServiceA(1);
+        final ServiceB second = new ServiceB();
+
+        public Shadowing() {
+            this.low.registerService(Service.class, this.second);
+        }
+
+        @Actor
+        public void register() {
+            this.high.registerService(Service.class, this.first);
+        }
+
+        @Actor
+        public void read(final II_Result r) {
+            r.r1 = winner(this.composite, this.first, this.second);
+        }
+
+        @Arbiter
+        public void arbiter(final II_Result r) {
+            r.r2 = winner(this.composite, this.first, this.second);
+        }
+    }
+
+    @JCStressTest
+    @Outcome(id = {"0, 1", "1, 1"}, expect = Expect.ACCEPTABLE, desc = "The reader saw the old or the promoted winner.")
+    @Outcome(expect = Expect.FORBIDDEN, desc = "The reader missed the service while the shadowed one was promoted.")
+    @State
+    public static class Promotion {
+        final BlueprintedServiceManager<Service> high = StressServices.blueprinted();
+        final BlueprintedServiceManager<Service> low = StressServices.blueprinted();
+        final CompositeServiceManager<IBlueprintedServiceHolder<? extends Service>, Service> composite =
+                StressServices.composite(Arrays.asList(this.high, this.low));
+        final ServiceA first = new ServiceA(1);
+        final ServiceB second = new ServiceB();
+
+        public Promotion() {
+            this.high.registerService(Service.class, this.first);
+            this.low.registerService(Service.class, this.second);
+        }
+
+        @Actor
+        public void unregister() {
+            this.high.unregisterServiceByInterface(Service.class);
+        }
+
+        @Actor
+        public void read(final II_Result r) {
+            r.r1 = winner(this.composite, this.first, this.second);
+        }
+
+        @Arbiter
+        public void arbiter(final II_Result r) {
+            r.r2 = winner(this.composite, this.first, this.second);
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package org.akazukin.service.manager;
+
+import org.akazukin.service.manager.StressServices.OtherService;
+import org.akazukin.service.manager.StressServices.Service;
+import org.akazukin.service.manager.StressServices.ServiceA;
+import org.akazukin.service.manager.StressServices.ServiceB;
+import org.openjdk.jcstress.annotations.Actor;
+import org.openjdk.jcstress.annotations.Expect;
+import org.openjdk.jcstress.annotations.JCStressTest;
+import org.openjdk.jcstress.annotations.Outcome;
+import org.openjdk.jcstress.annotations.State;
+import org.openjdk.jcstress.infra.results.II_Result;
+
+/**
+ * Updates the data of two services in order while a reader observes them in the reverse order.
+ * Seeing the second update without the first means the updates are not visible in order.
+ */
+public final class DataVisibilityStressTest {
+    private DataVisibilityStressTest() {
+    }
+
+    private static int observe(final Integer data) {
+        return data == null ? -1 : data;
+    }
+
+    @JCStressTest
+    @Outcome(id = {"0, 0", "0, 1", "1, 1"}, expect = Expect.ACCEPTABLE, desc = "The updates were observed in order.")
+    @Outcome(expect = Expect.FORBIDDEN, desc = "The second update was observed without the first.")
+    @State
+    public static class Compound {
+        final CompoundServiceManager<Service, Integer> manager = StressServices.compound();
+        final ServiceA first = new ServiceA(1);
+        final ServiceB second = new ServiceB();
+
+        public Compound() {
+            this.manager.registerService(this.first);
+            this.manager.registerService(this.second);
+        }
+
+        @Actor
+        public void update() {
+            this.manager.getServiceHolderByService(this.first).setData(1);
+            this.manager.getServiceHolderByService(this.second).setData(1);
+        }
+
+        @Actor
+        public void read(final II_Result r) {
+            r.r1 = observe(this.manager.getDataByService(this.second));
+            r.r2 = observe(this.manager.getDataByService(this.first));
+        }
+    }
+
+    @JCStressTest
+    @Outcome(id = {"0, 0", "0, 1", "1, 1"}, expect = Expect.ACCEPTABLE, desc = "The updates were observed in order.")
+    @Outcome(expect = Expect.FORBIDDEN, desc = "The second update was observed without the first.")
+    @State
+    public static class BlueprintedCompound {
+        final BlueprintedCompoundServiceManager<Service, Integer> manager = StressServices.blueprintedCompound();
+
+        public BlueprintedCompound() {
+            this.manager.registerService(Service.class, new ServiceA(1));
+            this.manager.registerService(OtherService.class, new ServiceB());
+        }
+
+        @Actor
+        public void update() {
+            this.manager.getServiceHolderByInterface(Service.class).setData(1);
+            this.manager.getServiceHolderByInterface(OtherService.class).setData(1);
+        }
+
+        @Actor
+        public void read(final II_Result r) {
+            r.r1 = observe(this.manager.getDataByInterface(OtherService.class));
+            r.r2 = observe(this.manager.getDataByInterface(Service.class));
+        }
+    }
+
+    @JCStressTest
+    @Outcome(id = {"-1, -1", "-1, 1", "1, 1"}, expect = Expect.ACCEPTABLE, desc = "The updates were observed in order.")
+    @Outcome(expect = Expect.FORBIDDEN, desc = "The second update was observed without the first.")
+    @State
+    public static class Attributed {
+        final AttributedServiceManager<Service> manager = StressServices.attributed();
+        final ServiceA first = new ServiceA(1);
+        final ServiceB second = new ServiceB();
+
+        public Attributed() {
+            this.manager.declareHashIndex(StressServices.VALUE);
+            this.manager.registerService(this.first);
+            this.manager.registerService(this.second);
+        }
+
+        @Actor
+        public void update() {
+            this.manager.setAttribute(this.first, StressServices.VALUE, 1);
+            this.manager.setAttribute(this.second, StressServices.VALUE, 1);
+        }
+
+        @Actor
+        public void read(final II_Result r) {
+            r.r1 = observe(this.manager.getAttribute(this.second, StressServices.VALUE));
+            r.r2 = observe(this.manager.getAttribute(this.first, StressServices.VALUE));
+        }
+    }
+}
@@ -0,0 +1,144 @@
+package org.akazukin.service.manager;
+
+import org.akazukin.service.manager.StressServices.Service;
+import org.akazukin.service.manager.StressServices.ServiceA;
+import org.openjdk.jcstress.annotations.Actor;
+import org.openjdk.jcstress.annotations.Arbiter;
+import org.openjdk.jcstress.annotations.Expect;
+import org.openjdk.jcstress.annotations.JCStressTest;
+import org.openjdk.jcstress.annotations.Outcome;
+import org.openjdk.jcstress.annotations.State;
+import org.openjdk.jcstress.infra.results.III_Result;
+
+/**
+ * Races two registrations of the same implementation class.
+ * Exactly one of them must succeed, and exactly one service must remain registered.
+ */
+public final class DuplicateRegistrationStressTest {
+    private DuplicateRegistrationStressTest() {
+    }
+
+    private static int attempt(final Runnable registration) {
+        try {
+            registration.run();
+            return 1;
+        } catch (final IllegalStateException e) {
+            return 0;
+        }
+    }
+
+    @JCStressTest
+    @Outcome(id = {"1, 0, 1", "0, 1, 1"}, expect = Expect.ACCEPTABLE, desc = "Exactly one registration succeeded.")
+    @Outcome(expect = Expect.FORBIDDEN, desc = "Both or neither of the registrations succeeded.")
+    @State
+    public static class Single {
+        final ServiceManager<Service> manager = StressServices.single();
+
+        @Actor
+        public void register1(final III_Result r) {
+            r.r1 = attempt(() -> this.manager.registerService(new ServiceA(1)));
+        }
+
+        @Actor
+        public void register2(final III_Result r) {
+            r.r2 = attempt(() -> this.manager.registerService(new ServiceA(2)));
+        }
+
+        @Arbiter
+        public void arbiter(final III_Result r) {
+            r.r3 = this.manager.getAllServices().length;
+        }
+    }
+
+    @JCStressTest
+    @Outcome(id = {"1, 0, 1", "0, 1, 1"}, expect = Expect.ACCEPTABLE, desc = "Exactly one registration succeeded.")
+    @Outcome(expect = Expect.FORBIDDEN, desc = "Both or neither of the registrations succeeded.")
+    @State
+    public static class Blueprinted {
+        final BlueprintedServiceManager<Service> manager = StressServices.blueprinted();
+
+        @Actor
+        public void register1(final III_Result r) {
+            r.r1 = attempt(() -> this.manager.registerService(Service.class, new ServiceA(1)));
+        }
+
+        @Actor
+        public void register2(final III_Result r) {
+            r.r2 = attempt(() -> this.manager.registerService(Service.class, new ServiceA(2)));
+        }
+
+        @Arbiter
+        public void arbiter(final III_Result r) {
+            r.r3 = this.manager.getAllServices().length;
+        }
+    }
+
+    @JCStressTest
+    @Outcome(id = {"1, 0, 1", "0, 1, 1"}, expect = Expect.ACCEPTABLE, desc = "Exactly one registration succeeded.")
+    @Outcome(expect = Expect.FORBIDDEN, desc = "Both or neither of the registrations succeeded.")
+    @State
+    public static class Compound {
+        final CompoundServiceManager<Service, Integer> manager = StressServices.compound();
+
+        @Actor
+        public void register1(final III_Result r) {
+            r.r1 = attempt(() -> this.manager.registerService(new ServiceA(1)));
+        }
+
+        @Actor
+        public void register2(final III_Result r) {
+            r.r2 = attempt(() -> this.manager.registerService(new ServiceA(2)));
+        }
+
+        @Arbiter
+        public void arbiter(final III_Result r) {
+            r.r3 = this.manager.getAllServices().length;
+        }
+    }
+
+    @JCStressTest
+    @Outcome(id = {"1, 0, 1", "0, 1, 1"}, expect = Expect.ACCEPTABLE, desc = "Exactly one registration succeeded.")
+    @Outcome(expect = Expect.FORBIDDEN, desc = "Both or neither of the registrations succeeded.")
+    @State
+    public static class BlueprintedCompound {
+        final BlueprintedCompoundServiceManager<Service, Integer> manager = StressServices.blueprintedCompound();
+
+        @Actor
+        public void register1(final III_Result r) {
+            r.r1 = attempt(() -> this.manager.registerService(Service.class, new ServiceA(1)));
+        }
+
+        @Actor
+        public void register2(final III_Result r) {
+            r.r2 = attempt(() -> this.manager.registerService(Service.class, new ServiceA(2)));
+        }
+
+        @Arbiter
+        public void arbiter(final III_Result r) {
+            r.r3 = this.manager.getAllServices().length;
+        }
+    }
+
+    @JCStressTest
+    @Outcome(id = {"1, 0, 1", "0, 1, 1"}, expect = Expect.ACCEPTABLE, desc = "Exactly one registration succeeded.")
+    @Outcome(expect = Expect.FORBIDDEN, desc = "Both or neither of the registrations succeeded.")
+    @State
+    public static class Attributed {
+        final AttributedServiceManager<Service> manager = StressServices.attributed();
+
+        @Actor
+        public void register1(final III_Result r) {
+            r.r1 = attempt(() -> this.manager.registerService(new ServiceA(1)));
+        }
+
+        @Actor
+        public void register2(final III_Result r) {
+            r.r2 = attempt(() -> this.manager.registerService(new ServiceA(2)));
+        }
+
+        @Arbiter
+        public void arbiter(final III_Result r) {
+            r.r3 = this.manager.getAllServices().length;
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package org.akazukin.service.manager;
+
+import org.akazukin.service.manager.StressServices.OtherService;
+import org.akazukin.service.manager.StressServices.Service;
+import org.akazukin.service.manager.StressServices.ServiceA;
+import org.akazukin.service.manager.StressServices.ServiceB;
+import org.openjdk.jcstress.annotations.Actor;
+import org.openjdk.jcstress.annotations.Expect;
+import org.openjdk.jcstress.annotations.JCStressTest;
+import org.openjdk.jcstress.annotations.Outcome;
+import org.openjdk.jcstress.annotations.State;
+import org.openjdk.jcstress.infra.results.II_Result;
+import org.openjdk.jcstress.infra.results.I_Result;
+
+/**
+ * Races {@code freeze()} against registrations, and reads frozen managers published without synchronization.
+ * A frozen manager must hold a consistent snapshot of its source,
+ * and its lookup tables must be complete as soon as the manager is visible.
+ */
+public final class FreezeStressTest {
+    private FreezeStressTest() {
+    }
+
+    @JCStressTest
+    @Outcome(id = {"1, 0", "2, 1"}, expect = Expect.ACCEPTABLE, desc = "The frozen manager holds a consistent snapshot.")
+    @Outcome(expect = Expect.FORBIDDEN, desc = "The lookup table disagrees with the frozen services.")
+    @State
+    public static class Single {
+        final ServiceManager<Service> manager = StressServices.single();
+
+        public Single() {
+            this.manager.registerService(new ServiceA(1));
+        }
+
+        @Actor
+        public void register() {
+            this.manager.registerService(new ServiceB());
+        }
+
+        @Actor
+        public void freeze(final II_Result r) {
+            final IServiceManager<?, Service> frozen = this.manager.freeze();
+            r.r1 = frozen.getAllServiceHolders().length;
+            r.r2 = frozen.getServiceByImplementation(ServiceB.class) == null ? 0 : 1;
+        }
+    }
+
+    @JCStressTest
+    @Outcome(id = {"1, 0", "2, 1"}, expect = Expect.ACCEPTABLE, desc = "The frozen manager holds a consistent snapshot.")
+    @Outcome(expect = Expect.FORBIDDEN, desc = "The lookup table disagrees with the frozen services.")
+    @State
+    public static class Blueprinted {
+        final BlueprintedServiceManager<Service> manager = StressServices.blueprinted();
+
+        public Blueprinted() {
+            this.manager.registerService(Service.class, new ServiceA(1));
+        }
+
+        @Actor
+        public void register() {
+            this.manager.registerService(OtherService.class, new ServiceB());
+        }
+
+        @Actor
+        public void freeze(final II_Result r) {
+            final IBlueprintedServiceManager<?, Service> frozen = this.manager.freeze();
+            r.r1 = frozen.getAllServiceHolders().length;
+            r.r2 = frozen.getServiceByInterface(OtherService.class) == null ? 0 : 1;
+        }
+    }
+
+    @JCStressTest
+    @Outcome(id = {"-1", "2"}, expect = Expect.ACCEPTABLE, desc = "The frozen manager was either not visible yet or complete.")
+    @Outcome(expect = Expect.FORBIDDEN, desc = "A frozen manager was visible with incomplete lookup tables.")
+    @State
+    public static class Publication {
+        final BlueprintedServiceManager<Service> manager = StressServices.blueprinted();
+        IBlueprintedServiceManager<?, Service> frozen;
+
+        public Publication() {
+            this.manager.registerService(Service.class, new ServiceA(1));
+            this.manager.registerService(OtherService.class, new ServiceB());
+        }
+
+        @Actor
+        public void publish() {
+            this.frozen = this.manager.freeze();
+        }
+
+        @Actor
+        public void read(final I_Result r) {
+            final IBlueprintedServiceManager<?, Service> frozen = this.frozen;
+            if (frozen == null) {
+                r.r1 = -1;
+                return;
+            }
+            r.r1 = (frozen.getServiceByImplementation(ServiceA.class) == null ? 0 : 1)
+                    + (frozen.getServiceByInterface(OtherService.class) == null ? 0 : 1);
+        }
+    }
+}
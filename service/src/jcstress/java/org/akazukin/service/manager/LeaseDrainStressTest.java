@@ -0,0 +1,100 @@
+package org.akazukin.service.manager;
+
+import org.akazukin.service.manager.StressServices.Service;
+import org.akazukin.service.manager.StressServices.ServiceA;
+import org.openjdk.jcstress.annotations.Actor;
+import org.openjdk.jcstress.annotations.Arbiter;
+import org.openjdk.jcstress.annotations.Expect;
+import org.openjdk.jcstress.annotations.JCStressTest;
+import org.openjdk.jcstress.annotations.Outcome;
+import org.openjdk.jcstress.annotations.State;
+import org.openjdk.jcstress.infra.results.IIII_Result;
+import org.openjdk.jcstress.infra.results.III_Result;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Races lease acquisitions against a drain.
+ * A drain must never complete while a lease acquired before it is still open,
+ * and a lease must never be handed out once the drain has completed.
+ */
+public final class LeaseDrainStressTest {
+    private LeaseDrainStressTest() {
+    }
+
+    @JCStressTest
+    @Outcome(id = {"1, 0, 1", "0, 1, 1"}, expect = Expect.ACCEPTABLE, desc = "The lease was either counted by the drain or refused.")
+    @Outcome(id = "0, 0, 1", expect = Expect.ACCEPTABLE, desc = "The lease backed out after the drain counted it.")
+    @Outcome(expect = Expect.FORBIDDEN, desc = "The drain completed under an open lease.")
+    @State
+    public static class Unregistration {
+        final ServiceManager<Service> manager = StressServices.single();
+        ServiceLease<ServiceA> lease;
+        CompletableFuture<Void> drained;
+
+        public Unregistration() {
+            this.manager.registerService(new ServiceA(1));
+        }
+
+        @Actor
+        public void acquire(final III_Result r) {
+            this.lease = this.manager.acquire(ServiceA.class);
+            r.r1 = this.lease == null ? 0 : 1;
+        }
+
+        @Actor
+        public void drain(final III_Result r) {
+            this.drained = this.manager.unregisterAndDrain(ServiceA.class);
+            r.r2 = this.drained.isDone() ? 1 : 0;
+        }
+
+        @Arbiter
+        public void arbiter(final III_Result r) {
+            if (this.lease != null) {
+                this.lease.close();
+            }
+            r.r3 = this.drained.isDone() ? 1 : 0;
+        }
+    }
+
+    @JCStressTest
+    @Outcome(id = {"1, 1, 0, 1", "1, 0, 0, 1", "0, 1, 0, 1", "0, 0, 0, 1", "0, 0, 1, 1"}, expect = Expect.ACCEPTABLE,
+            desc = "The drain waited for every counted lease.")
+    @Outcome(expect = Expect.FORBIDDEN, desc = "The drain completed under an open lease.")
+    @State
+    public static class Striped {
+        final LeaseCounter counter = new LeaseCounter();
+        int first = -1;
+        int second = -1;
+        CompletableFuture<Void> drained;
+
+        @Actor
+        public void acquireFirst(final IIII_Result r) {
+            this.first = this.counter.acquire();
+            r.r1 = this.first < 0 ? 0 : 1;
+        }
+
+        @Actor
+        public void acquireSecond(final IIII_Result r) {
+            this.second = this.counter.acquire();
+            r.r2 = this.second < 0 ? 0 : 1;
+        }
+
+        @Actor
+        public void drain(final IIII_Result r) {
+            this.drained = this.counter.drain();
+            r.r3 = this.drained.isDone() ? 1 : 0;
+        }
+
+        @Arbiter
+        public void arbiter(final IIII_Result r) {
+            if (this.first >= 0) {
+                this.counter.release(this.first);
+            }
+            if (this.second >= 0) {
+                this.counter.release(this.second);
+            }
+            r.r4 = this.drained.isDone() ? 1 : 0;
+        }
+    }
+}
@@ -0,0 +1,164 @@
+package org.akazukin.service.manager;
+
+import org.akazukin.service.manager.StressServices.Service;
+import org.akazukin.service.manager.StressServices.ServiceA;
+import org.openjdk.jcstress.annotations.Actor;
+import org.openjdk.jcstress.annotations.Arbiter;
+import org.openjdk.jcstress.annotations.Expect;
+import org.openjdk.jcstress.annotations.JCStressTest;
+import org.openjdk.jcstress.annotations.Outcome;
+import org.openjdk.jcstress.annotations.State;
+import org.openjdk.jcstress.infra.results.III_Result;
+import org.openjdk.jcstress.infra.results.JJJ_Result;
+import org.openjdk.jcstress.infra.results.ZZD_Result;
+
+/**
+ * Races the atomic updates of the primitive compound managers.
+ * Concurrent additions must never be lost, and exactly one of two racing compare-and-set calls must succeed.
+ */
+public final class PrimitiveCompoundStressTest {
+    private PrimitiveCompoundStressTest() {
+    }
+
+    @JCStressTest
+    @Outcome(id = {"1, 2, 2", "2, 1, 2"}, expect = Expect.ACCEPTABLE, desc = "Both additions were applied.")
+    @Outcome(expect = Expect.FORBIDDEN, desc = "An addition was lost.")
+    @State
+    public static class IntAdd {
+        final IntCompoundServiceManager<Service> manager = StressServices.intCompound();
+        final ServiceA service = new ServiceA(1);
+
+        public IntAdd() {
+            this.manager.registerService(this.service);
+        }
+
+        @Actor
+        public void first(final III_Result r) {
+            r.r1 = this.manager.addAndGet(this.service, 1);
+        }
+
+        @Actor
+        public void second(final III_Result r) {
+            r.r2 = this.manager.addAndGet(this.service, 1);
+        }
+
+        @Arbiter
+        public void arbiter(final III_Result r) {
+            r.r3 = this.manager.getDataByService(this.service);
+        }
+    }
+
+    @JCStressTest
+    @Outcome(id = {"1, 2, 2", "2, 1, 2"}, expect = Expect.ACCEPTABLE, desc = "Both additions were applied.")
+    @Outcome(expect = Expect.FORBIDDEN, desc = "An addition was lost.")
+    @State
+    public static class LongAdd {
+        final LongCompoundServiceManager<Service> manager = StressServices.longCompound();
+        final ServiceA service = new ServiceA(1);
+
+        public LongAdd() {
+            this.manager.registerService(this.service);
+        }
+
+        @Actor
+        public void first(final JJJ_Result r) {
+            r.r1 = this.manager.addAndGet(this.service, 1);
+        }
+
+        @Actor
+        public void second(final JJJ_Result r) {
+            r.r2 = this.manager.addAndGet(this.service, 1);
+        }
+
+        @Arbiter
+        public void arbiter(final JJJ_Result r) {
+            r.r3 = this.manager.getDataByService(this.service);
+        }
+    }
+
+    @JCStressTest
+    @Outcome(id = "true, true, 1.0", expect = Expect.ACCEPTABLE, desc = "Both additions were applied.")
+    @Outcome(expect = Expect.FORBIDDEN, desc = "An addition was lost.")
+    @State
+    public static class DoubleAdd {
+        final DoubleCompoundServiceManager<Service> manager = StressServices.doubleCompound();
+        final ServiceA service = new ServiceA(1);
+
+        public DoubleAdd() {
+            this.manager.registerService(this.service);
+        }
+
+        @Actor
+        public void first(final ZZD_Result r) {
+            final double value = this.manager.addAndGet(this.service, 0.25);
+            r.r1 = value == 0.25 || value == 1.0;
+        }
+
+        @Actor
+        public void second(final ZZD_Result r) {
+            final double value = this.manager.addAndGet(this.service, 0.75);
+            r.r2 = value == 0.75 || value == 1.0;
+        }
+
+        @Arbiter
+        public void arbiter(final ZZD_Result r) {
+            r.r3 = this.manager.getDataByService(this.service);
+        }
+    }
+
+    @JCStressTest
+    @Outcome(id = {"1, 0, 1", "0, 1, 2"}, expect = Expect.ACCEPTABLE, desc = "Exactly one compare-and-set succeeded.")
+    @Outcome(expect = Expect.FORBIDDEN, desc = "Both or none of the compare-and-set calls succeeded.")
+    @State
+    public static class IntCompareAndSet {
+        final IntCompoundServiceManager<Service> manager = StressServices.intCompound();
+        final ServiceA service = new ServiceA(1);
+
+        public IntCompareAndSet() {
+            this.manager.registerService(this.service);
+        }
+
+        @Actor
+        public void first(final III_Result r) {
+            r.r1 = this.manager.compareAndSet(this.service, 0, 1) ? 1 : 0;
+        }
+
+        @Actor
+        public void second(final III_Result r) {
+            r.r2 = this.manager.compareAndSet(this.service, 0, 2) ? 1 : 0;
+        }
+
+        @Arbiter
+        public void arbiter(final III_Result r) {
+            r.r3 = this.manager.getDataByService(this.service);
+        }
+    }
+
+    @JCStressTest
+    @Outcome(id = {"true, false, 1.0", "false, true, 2.0"}, expect = Expect.ACCEPTABLE, desc = "Exactly one compare-and-set succeeded.")
+    @Outcome(expect = Expect.FORBIDDEN, desc = "Both or none of the compare-and-set calls succeeded.")
+    @State
+    public static class DoubleCompareAndSet {
+        final DoubleCompoundServiceManager<Service> manager = StressServices.doubleCompound();
+        final ServiceA service = new ServiceA(1);
+
+        public DoubleCompareAndSet() {
+            this.manager.registerService(this.service);
+        }
+
+        @Actor
+        public void first(final ZZD_Result r) {
+            r.r1 = this.manager.compareAndSet(this.service, 0.0, 1.0);
+        }
+
+        @Actor
+        public void second(final ZZD_Result r) {
+            r.r2 = this.manager.compareAndSet(this.service, 0.0, 2.0);
+        }
+
+        @Arbiter
+        public void arbiter(final ZZD_Result r) {
+            r.r3 = this.manager.getDataByService(this.service);
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package org.akazukin.service.manager;
+
+import org.akazukin.service.manager.StressServices.Service;
+import org.akazukin.service.manager.StressServices.ServiceA;
+import org.openjdk.jcstress.annotations.Actor;
+import org.openjdk.jcstress.annotations.Expect;
+import org.openjdk.jcstress.annotations.JCStressTest;
+import org.openjdk.jcstress.annotations.Outcome;
+import org.openjdk.jcstress.annotations.State;
+import org.openjdk.jcstress.infra.results.I_Result;
+
+/**
+ * Races a registration against a lookup of the same service.
+ * The lookup must either miss, or observe the service fully constructed.
+ */
+public final class RegisterLookupStressTest {
+    private RegisterLookupStressTest() {
+    }
+
+    private static int observe(final Service service) {
+        return service == null ? -1 : service.getValue();
+    }
+
+    @JCStressTest
+    @Outcome(id = "-1", expect = Expect.ACCEPTABLE, desc = "The lookup ran before the registration.")
+    @Outcome(id = "42", expect = Expect.ACCEPTABLE, desc = "The lookup observed the registered service.")
+    @Outcome(expect = Expect.FORBIDDEN, desc = "The lookup observed a partially constructed service.")
+    @State
+    public static class Single {
+        final ServiceManager<Service> manager = StressServices.single();
+
+        @Actor
+        public void register() {
+            this.manager.registerService(new ServiceA(42));
+        }
+
+        @Actor
+        public void lookup(final I_Result r) {
+            r.r1 = observe(this.manager.getServiceByImplementation(ServiceA.class));
+        }
+    }
+
+    @JCStressTest
+    @Outcome(id = "-1", expect = Expect.ACCEPTABLE, desc = "The lookup ran before the registration.")
+    @Outcome(id = "42", expect = Expect.ACCEPTABLE, desc = "The lookup observed the registered service.")
+    @Outcome(expect = Expect.FORBIDDEN, desc = "The lookup observed a partially constructed service.")
+    @State
+    public static class Blueprinted {
+        final BlueprintedServiceManager<Service> manager = StressServices.blueprinted();
+
+        @Actor
+        public void register() {
+            this.manager.registerService(Service.class, new ServiceA(42));
+        }
+
+        @Actor
+        public void lookup(final I_Result r) {
+            r.r1 = observe(this.manager.getServiceByInterface(Service.class));
+        }
+    }
+
+    @JCStressTest
+    @Outcome(id = "-1", expect = Expect.ACCEPTABLE, desc = "The lookup ran before the registration.")
+    @Outcome(id = "42", expect = Expect.ACCEPTABLE, desc = "The lookup observed the registered service.")
+    @Outcome(expect = Expect.FORBIDDEN, desc = "The lookup observed a partially constructed service.")
+    @State
+    public static class Compound {
+        final CompoundServiceManager<Service, Integer> manager = StressServices.compound();
+
+        @Actor
+        public void register() {
+            this.manager.registerService(new ServiceA(42));
+        }
+
+        @Actor
+        public void lookup(final I_Result r) {
+            r.r1 = observe(this.manager.getServiceByImplementation(ServiceA.class));
+        }
+    }
+
+    @JCStressTest
+    @Outcome(id = "-1", expect = Expect.ACCEPTABLE, desc = "The lookup ran before the registration.")
+    @Outcome(id = "42", expect = Expect.ACCEPTABLE, desc = "The lookup observed the registered service.")
+    @Outcome(expect = Expect.FORBIDDEN, desc = "The lookup observed a partially constructed service.")
+    @State
+    public static class BlueprintedCompound {
+        final BlueprintedCompoundServiceManager<Service, Integer> manager = StressServices.blueprintedCompound();
+
+        @Actor
+        public void register() {
+            this.manager.registerService(Service.class, new ServiceA(42));
+        }
+
+        @Actor
+        public void lookup(final I_Result r) {
+            r.r1 = observe(this.manager.getServiceByInterface(Service.class));
+        }
+    }
+
+    @JCStressTest
+    @Outcome(id = "-1", expect = Expect.ACCEPTABLE, desc = "The lookup ran before the registration.")
+    @Outcome(id = "42", expect = Expect.ACCEPTABLE, desc = "The lookup observed the registered service.")
+    @Outcome(expect = Expect.FORBIDDEN, desc = "The lookup observed a partially constructed service.")
+    @State
+    public static class Attributed {
+        final AttributedServiceManager<Service> manager = StressServices.attributed();
+
+        @Actor
+        public void register() {
+            this.manager.registerService(new ServiceA(42));
+        }
+
+        @Actor
+        public void lookup(final I_Result r) {
+            r.r1 = observe(this.manager.getServiceByImplementation(ServiceA.class));
+        }
+    }
+}
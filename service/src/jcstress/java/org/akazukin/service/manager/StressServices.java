@@ -0,0 +1,99 @@
+package org.akazukin.service.manager;
+
+import org.akazukin.service.data.BlueprintedCompoundServiceHolder;
+import org.akazukin.service.data.CompoundServiceHolder;
+import org.akazukin.service.data.IBlueprintedCompoundServiceHolder;
+import org.akazukin.service.data.IBlueprintedServiceHolder;
+import org.akazukin.service.data.ICompoundServiceHolder;
+import org.akazukin.service.data.ServiceAttribute;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.List;
+
+/**
+ * Services and manager factories shared by the stress tests.
+ */
+final class StressServices {
+    static final ServiceAttribute<Integer> VALUE = ServiceAttribute.of("value", Integer.class);
+
+    private StressServices() {
+    }
+
+    static ServiceManager<Service> single() {
+        return new ServiceManager<>(Service.class);
+    }
+
+    static BlueprintedServiceManager<Service> blueprinted() {
+        return new BlueprintedServiceManager<>(Service.class);
+    }
+
+    static CompoundServiceManager<Service, Integer> compound() {
+        return new CompoundServiceManager<Service, Integer>(Service.class, Integer.class) {
+            @Override
+            protected @NotNull ICompoundServiceHolder<? extends Service, Integer> createServiceHolder(@NotNull final Service serviceImpl) {
+                return new CompoundServiceHolder<>(serviceImpl, 0);
+            }
+        };
+    }
+
+    static BlueprintedCompoundServiceManager<Service, Integer> blueprintedCompound() {
+        return new BlueprintedCompoundServiceManager<Service, Integer>(Service.class, Integer.class) {
+            @Override
+            protected <T2 extends Service> @NotNull IBlueprintedCompoundServiceHolder<? extends Service, Integer> createServiceHolder(
+                    @Nullable final Class<T2> service, @NotNull final T2 serviceImpl) {
+                return new BlueprintedCompoundServiceHolder<>(service, serviceImpl, 0);
+            }
+        };
+    }
+
+    static AttributedServiceManager<Service> attributed() {
+        return new AttributedServiceManager<>(Service.class);
+    }
+
+    static IntCompoundServiceManager<Service> intCompound() {
+        return new IntCompoundServiceManager<>(Service.class);
+    }
+
+    static LongCompoundServiceManager<Service> longCompound() {
+        return new LongCompoundServiceManager<>(Service.class);
+    }
+
+    static DoubleCompoundServiceManager<Service> doubleCompound() {
+        return new DoubleCompoundServiceManager<>(Service.class);
+    }
+
+    @SuppressWarnings("unchecked")
+    static CompositeServiceManager<IBlueprintedServiceHolder<? extends Service>, Service> composite(
+            @NotNull final List<BlueprintedServiceManager<Service>> members) {
+        return new CompositeServiceManager<>(
+                (Class<IBlueprintedServiceHolder<? extends Service>>) (Object) IBlueprintedServiceHolder.class, Service.class, members);
+    }
+
+    interface Service {
+        int getValue();
+    }
+
+    interface OtherService extends Service {
+    }
+
+    static final class ServiceA implements Service {
+        int value;
+
+        ServiceA(final int value) {
+            this.value = value;
+        }
+
+        @Override
+        public int getValue() {
+            return this.value;
+        }
+    }
+
+    static final class ServiceB implements OtherService {
+        @Override
+        public int getValue() {
+            return 0;
+        }
+    }
+}
@@ -0,0 +1,142 @@
+package org.akazukin.service.manager;
+
+import org.akazukin.service.manager.StressServices.OtherService;
+import org.akazukin.service.manager.StressServices.Service;
+import org.akazukin.service.manager.StressServices.ServiceA;
+import org.akazukin.service.manager.StressServices.ServiceB;
+import org.openjdk.jcstress.annotations.Actor;
+import org.openjdk.jcstress.annotations.Expect;
+import org.openjdk.jcstress.annotations.JCStressTest;
+import org.openjdk.jcstress.annotations.Outcome;
+import org.openjdk.jcstress.annotations.State;
+import org.openjdk.jcstress.infra.results.II_Result;
+
+/**
+ * Races an unregistration against readers iterating over the services.
+ * Readers must never fail, must see either one or two services,
+ * and must always find the service which is not being unregistered.
+ */
+public final class UnregisterDuringIterationStressTest {
+    private UnregisterDuringIterationStressTest() {
+    }
+
+    @JCStressTest
+    @Outcome(id = {"1, 1", "2, 1"}, expect = Expect.ACCEPTABLE, desc = "The reader observed a consistent snapshot.")
+    @Outcome(expect = Expect.FORBIDDEN, desc = "The reader lost the remaining service.")
+    @State
+    public static class Single {
+        final ServiceManager<Service> manager = StressServices.single();
+
+        public Single() {
+            this.manager.registerService(new ServiceA(1));
+            this.manager.registerService(new ServiceB());
+        }
+
+        @Actor
+        public void unregister() {
+            this.manager.unregisterServiceByImplementation(ServiceA.class);
+        }
+
+        @Actor
+        public void iterate(final II_Result r) {
+            r.r1 = this.manager.getAllServiceHolders().length;
+            r.r2 = this.manager.getServiceByImplementation(ServiceB.class) == null ? 0 : 1;
+        }
+    }
+
+    @JCStressTest
+    @Outcome(id = {"1, 1", "2, 1"}, expect = Expect.ACCEPTABLE, desc = "The reader observed a consistent snapshot.")
+    @Outcome(expect = Expect.FORBIDDEN, desc = "The reader lost the remaining service.")
+    @State
+    public static class Blueprinted {
+        final BlueprintedServiceManager<Service> manager = StressServices.blueprinted();
+
+        public Blueprinted() {
+            this.manager.registerService(Service.class, new ServiceA(1));
+            this.manager.registerService(OtherService.class, new ServiceB());
+        }
+
+        @Actor
+        public void unregister() {
+            this.manager.unregisterServiceByInterface(Service.class);
+        }
+
+        @Actor
+        public void iterate(final II_Result r) {
+            r.r1 = this.manager.getAllServiceHolders().length;
+            r.r2 = this.manager.getServiceByInterface(OtherService.class) == null ? 0 : 1;
+        }
+    }
+
+    @JCStressTest
+    @Outcome(id = {"1, 1", "2, 1"}, expect = Expect.ACCEPTABLE, desc = "The reader observed a consistent snapshot.")
+    @Outcome(expect = Expect.FORBIDDEN, desc = "The reader lost the remaining service.")
+    @State
+    public static class Compound {
+        final CompoundServiceManager<Service, Integer> manager = StressServices.compound();
+
+        public Compound() {
+            this.manager.registerService(new ServiceA(1));
+            this.manager.registerService(new ServiceB());
+        }
+
+        @Actor
+        public void unregister() {
+            this.manager.unregisterServiceByImplementation(ServiceA.class);
+        }
+
+        @Actor
+        public void iterate(final II_Result r) {
+            r.r1 = this.manager.getAllData().length;
+            r.r2 = this.manager.getDataByImplementation(ServiceB.class) == null ? 0 : 1;
+        }
+    }
+
+    @JCStressTest
+    @Outcome(id = {"1, 1", "2, 1"}, expect = Expect.ACCEPTABLE, desc = "The reader observed a consistent snapshot.")
+    @Outcome(expect = Expect.FORBIDDEN, desc = "The reader lost the remaining service.")
+    @State
+    public static class BlueprintedCompound {
+        final BlueprintedCompoundServiceManager<Service, Integer> manager = StressServices.blueprintedCompound();
+
+        public BlueprintedCompound() {
+            this.manager.registerService(Service.class, new ServiceA(1));
+            this.manager.registerService(OtherService.class, new ServiceB());
+        }
+
+        @Actor
+        public void unregister() {
+            this.manager.unregisterServiceByInterface(Service.class);
+        }
+
+        @Actor
+        public void iterate(final II_Result r) {
+            r.r1 = this.manager.getAllData().length;
+            r.r2 = this.manager.getDataByInterface(OtherService.class) == null ? 0 : 1;
+        }
+    }
+
+    @JCStressTest
+    @Outcome(id = {"1, 1", "2, 1"}, expect = Expect.ACCEPTABLE, desc = "The reader observed a consistent snapshot.")
+    @Outcome(expect = Expect.FORBIDDEN, desc = "The reader lost the remaining service.")
+    @State
+    public static class Attributed {
+        final AttributedServiceManager<Service> manager = StressServices.attributed();
+
+        public Attributed() {
+            this.manager.registerService(new ServiceA(1));
+            this.manager.registerService(new ServiceB());
+        }
+
+        @Actor
+        public void unregister() {
+            this.manager.unregisterServiceByImplementation(ServiceA.class);
+        }
+
+        @Actor
+        public void iterate(final II_Result r) {
+            r.r1 = this.manager.query().execute().length;
+            r.r2 = this.manager.getServiceByImplementation(ServiceB.class) == null ? 0 : 1;
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package org.akazukin.service.cache;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.experimental.FieldDefaults;
+import org.jetbrains.annotations.NotNull;
+
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The specification of the cache of a caching view.
+ * <p>
+ * A cache holds at most {@code maximumSize} results and optionally expires them after a fixed time.
+ * Only the methods returning a value are cached;
+ * the cached methods can be narrowed down by name, the other methods always reaching the service.
+ */
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+@Getter
+public final class CacheSpec {
+    int maximumSize;
+    long expireAfterWrite;
+    Set<String> methods;
+
+    /**
+     * Constructs a specification caching the results of all the methods without expiration.
+     *
+     * @param maximumSize the maximum number of cached results.
+     *                    Must be positive.
+     * @throws IllegalArgumentException if the maximum size is not positive.
+     */
+    public CacheSpec(final int maximumSize) {
+        this(maximumSize, 0, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Constructs a specification caching the results of the specified methods.
+     *
+     * @param maximumSize      the maximum number of cached results.
+     *                         Must be positive.
+     * @param expireAfterWrite the time after which a cached result expires,
+     *                         or a non-positive value to never expire results.
+     * @param unit             the time unit of {@code expireAfterWrite}.
+     *                         Must not be {@code null}.
+     * @param methods          the names of the cached methods, or none to cache all the methods returning a value.
+     *                         Must not be {@code null}.
+     * @throws IllegalArgumentException if the maximum size is not positive.
+     */
+    public CacheSpec(final int maximumSize, final long expireAfterWrite, @NotNull final TimeUnit unit,
+                     @NotNull final String... methods) {
+        if (maximumSize <= 0) {
+            throw new IllegalArgumentException("The maximum size of the cache must be positive");
+        }
+        this.maximumSize = maximumSize;
+        this.expireAfterWrite = expireAfterWrite > 0 ? unit.toNanos(expireAfterWrite) : 0;
+        this.methods = Collections.unmodifiableSet(new HashSet<>(Arrays.asList(methods)));
+    }
+
+    /**
+     * Checks whether the results of the specified method are cached.
+     *
+     * @param method the method of the service.
+     *               Must not be {@code null}.
+     * @return {@code true} if the method returns a value and is selected by this specification.
+     */
+    public boolean isCached(@NotNull final Method method) {
+        return method.getReturnType() != void.class
+                && (this.methods.isEmpty() || this.methods.contains(method.getName()));
+    }
+}
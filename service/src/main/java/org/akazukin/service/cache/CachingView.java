@@ -0,0 +1,140 @@
+package org.akazukin.service.cache;
+
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.experimental.FieldDefaults;
+import org.akazukin.annotation.marker.ThreadSafe;
+import org.akazukin.service.guard.ServiceUnavailableException;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+/**
+ * A proxy of a service interface memoizing the results of the service in a {@link ResultCache}.
+ * <p>
+ * The service is resolved on the first call and kept until {@link #invalidate()} is called,
+ * which also discards all the cached results.
+ * A call racing with an invalidation may still reach the previous service,
+ * but its result is only stored in the discarded cache.
+ * Exceptions thrown by the service are never cached.
+ *
+ * @param <T> the type of the service interface
+ */
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+@ThreadSafe
+public final class CachingView<T> implements InvocationHandler {
+    public static final String EXCE_NOT_INTERFACE = "A caching view can only be created for an interface; Class:";
+    public static final String EXCE_SERVICE_UNAVAILABLE = "No service is available for the caching view; Interface:";
+
+    Class<T> service;
+    CacheSpec spec;
+    Supplier<? extends T> resolver;
+    AtomicReference<Binding> binding;
+    @Getter
+    T proxy;
+
+    /**
+     * Constructs a caching view of the service returned by the resolver.
+     *
+     * @param service  the interface of the service.
+     *                 Must not be {@code null}.
+     * @param spec     the specification of the cache.
+     *                 Must not be {@code null}.
+     * @param resolver the supplier resolving the current service, returning {@code null} if none is registered.
+     *                 Must not be {@code null}.
+     * @throws IllegalArgumentException if the service class is not an interface.
+     */
+    public CachingView(@NotNull final Class<T> service, @NotNull final CacheSpec spec, @NotNull final Supplier<? extends T> resolver) {
+        if (!service.isInterface()) {
+            throw new IllegalArgumentException(EXCE_NOT_INTERFACE + service.getName());
+        }
+        this.service = service;
+        this.spec = spec;
+        this.resolver = resolver;
+        this.binding = new AtomicReference<>(new Binding(null, new ResultCache(spec)));
+        this.proxy = service.cast(Proxy.newProxyInstance(service.getClassLoader(), new Class<?>[]{service}, this));
+    }
+
+    /**
+     * Forgets the resolved service and discards all the cached results.
+     * The service is resolved again on the next call.
+     */
+    public void invalidate() {
+        this.binding.set(new Binding(null, new ResultCache(this.spec)));
+    }
+
+    @Override
+    public Object invoke(final Object proxy, final Method method, final Object[] args) throws Throwable {
+        if (method.getDeclaringClass() == Object.class) {
+            switch (method.getName()) {
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "CachingView[" + this.service.getName() + "]";
+                default:
+                    break;
+            }
+        }
+
+        final Binding current = this.resolve();
+        if (!this.spec.isCached(method)) {
+            return invokeService(current.target, method, args);
+        }
+
+        final Invocation key = new Invocation(method, args == null ? new Object[0] : args.clone());
+        final Object cached = current.cache.get(key);
+        if (cached != null) {
+            return cached == ResultCache.NULL ? null : cached;
+        }
+        final Object result = invokeService(current.target, method, args);
+        current.cache.put(key, result == null ? ResultCache.NULL : result);
+        return result;
+    }
+
+    @NotNull
+    private Binding resolve() {
+        final Binding current = this.binding.get();
+        if (current.target != null) {
+            return current;
+        }
+        final T target = this.resolver.get();
+        if (target == null) {
+            throw new ServiceUnavailableException(EXCE_SERVICE_UNAVAILABLE + this.service.getName());
+        }
+        final Binding resolved = new Binding(target, current.cache);
+        return this.binding.compareAndSet(current, resolved) ? resolved : new Binding(target, new ResultCache(this.spec));
+    }
+
+    private static Object invokeService(@NotNull final Object target, @NotNull final Method method, @Nullable final Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (final InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    @AllArgsConstructor
+    @FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+    private static final class Binding {
+        @Nullable Object target;
+        ResultCache cache;
+    }
+
+    @AllArgsConstructor
+    @EqualsAndHashCode
+    @FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+    private static final class Invocation {
+        Method method;
+        Object[] args;
+    }
+}
@@ -0,0 +1,187 @@
+package org.akazukin.service.cache;
+
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import org.akazukin.annotation.marker.ThreadSafe;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * A bounded cache of results, split into independently locked segments.
+ * <p>
+ * Each segment evicts its least recently used entry,
+ * but only admits a new entry in place of it if the new key has been requested more often,
+ * as estimated by a small count-min sketch of the recent requests (TinyLFU admission).
+ * This keeps one-off keys from flushing the frequently used results out of the cache.
+ */
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+@ThreadSafe
+final class ResultCache {
+    /**
+     * The value stored in place of a {@code null} result.
+     */
+    static final Object NULL = new Object();
+
+    private static final int MAX_SEGMENTS = 16;
+    private static final int MIN_SEGMENT_SIZE = 32;
+
+    Segment[] segments;
+    long expireAfterWrite;
+
+    /**
+     * Constructs an empty cache following the specified specification.
+     *
+     * @param spec the specification of the cache.
+     *             Must not be {@code null}.
+     */
+    ResultCache(@NotNull final CacheSpec spec) {
+        final int maximumSize = spec.getMaximumSize();
+        int count = 1;
+        while (count < MAX_SEGMENTS && count * 2 * MIN_SEGMENT_SIZE <= maximumSize) {
+            count <<= 1;
+        }
+        this.segments = new Segment[count];
+        for (int i = 0; i < count; i++) {
+            this.segments[i] = new Segment(maximumSize / count + (i < maximumSize % count ? 1 : 0));
+        }
+        this.expireAfterWrite = spec.getExpireAfterWrite();
+    }
+
+    private static int spread(final int hash) {
+        final int h = hash * 0x9E3779B9;
+        return h ^ h >>> 16;
+    }
+
+    /**
+     * Retrieves the cached result of the specified key and records the request.
+     *
+     * @param key the key of the result.
+     *            Must not be {@code null}.
+     * @return the cached result, {@link #NULL} for a cached {@code null}, or {@code null} if no result is cached.
+     */
+    @Nullable
+    Object get(@NotNull final Object key) {
+        final int hash = spread(key.hashCode());
+        return this.segments[hash & this.segments.length - 1].get(key, hash);
+    }
+
+    /**
+     * Caches the result of the specified key, unless it is rejected by the admission policy.
+     *
+     * @param key   the key of the result.
+     *              Must not be {@code null}.
+     * @param value the result, or {@link #NULL} for a {@code null} result.
+     *              Must not be {@code null}.
+     */
+    void put(@NotNull final Object key, @NotNull final Object value) {
+        final int hash = spread(key.hashCode());
+        final long expiresAt = this.expireAfterWrite > 0 ? System.nanoTime() + this.expireAfterWrite : 0;
+        this.segments[hash & this.segments.length - 1].put(key, hash, value, expiresAt);
+    }
+
+    @AllArgsConstructor
+    @FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+    private static final class Entry {
+        Object value;
+        long expiresAt;
+        int hash;
+    }
+
+    @FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+    private static final class Segment {
+        Map<Object, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+        FrequencySketch sketch;
+        int capacity;
+
+        Segment(final int capacity) {
+            this.capacity = capacity;
+            this.sketch = new FrequencySketch(capacity);
+        }
+
+        synchronized Object get(final Object key, final int hash) {
+            this.sketch.increment(hash);
+            final Entry entry = this.entries.get(key);
+            if (entry == null) {
+                return null;
+            }
+            if (entry.expiresAt != 0 && entry.expiresAt - System.nanoTime() <= 0) {
+                this.entries.remove(key);
+                return null;
+            }
+            return entry.value;
+        }
+
+        synchronized void put(final Object key, final int hash, final Object value, final long expiresAt) {
+            if (!this.entries.containsKey(key) && this.entries.size() >= this.capacity) {
+                final Iterator<Entry> eldest = this.entries.values().iterator();
+                final Entry victim = eldest.next();
+                final boolean expired = victim.expiresAt != 0 && victim.expiresAt - System.nanoTime() <= 0;
+                if (!expired && this.sketch.frequency(hash) <= this.sketch.frequency(victim.hash)) {
+                    return;
+                }
+                eldest.remove();
+            }
+            this.entries.put(key, new Entry(value, expiresAt, hash));
+        }
+    }
+
+    /**
+     * A count-min sketch of 4-bit saturating counters estimating how often keys were requested recently.
+     * All the counters are halved once the number of recorded requests reaches ten times the capacity,
+     * so that the estimates follow changes in popularity.
+     */
+    @FieldDefaults(level = AccessLevel.PRIVATE)
+    private static final class FrequencySketch {
+        private static final int[] SEEDS = {0x97CB3127, 0xB4B82E3B, 0xF5C1A48D, 0x2D1CB7E5};
+        private static final int MAX_COUNT = 15;
+
+        final byte[] table;
+        final int sampleSize;
+        int size;
+
+        FrequencySketch(final int capacity) {
+            int length = 16;
+            while (length < capacity * 4) {
+                length <<= 1;
+            }
+            this.table = new byte[length];
+            this.sampleSize = capacity * 10;
+        }
+
+        private int index(final int hash, final int i) {
+            int h = (hash + SEEDS[i]) * SEEDS[i];
+            h += h >>> 16;
+            return h & this.table.length - 1;
+        }
+
+        int frequency(final int hash) {
+            int frequency = MAX_COUNT;
+            for (int i = 0; i < SEEDS.length; i++) {
+                frequency = Math.min(frequency, this.table[this.index(hash, i)]);
+            }
+            return frequency;
+        }
+
+        void increment(final int hash) {
+            boolean added = false;
+            for (int i = 0; i < SEEDS.length; i++) {
+                final int index = this.index(hash, i);
+                if (this.table[index] < MAX_COUNT) {
+                    this.table[index]++;
+                    added = true;
+                }
+            }
+            if (added && ++this.size >= this.sampleSize) {
+                for (int i = 0; i < this.table.length; i++) {
+                    this.table[i] >>= 1;
+                }
+                this.size /= 2;
+            }
+        }
+    }
+}
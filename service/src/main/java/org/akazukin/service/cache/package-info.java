@@ -0,0 +1,9 @@
+/**
+ * Provides caching views memoizing the results of services.
+ * <p>
+ * This package contains the specification of a cache and the proxy
+ * placed in front of a service registered in a blueprinted service manager,
+ * so that repeated calls with the same arguments are answered from a bounded cache
+ * which is discarded whenever the service is unregistered or replaced.
+ */
+package org.akazukin.service.cache;
@@ -0,0 +1,53 @@
+package org.akazukin.service.data;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.experimental.FieldDefaults;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * A concrete implementation of the {@link IAttributedServiceHolder} interface.
+ * This class serves as a type-safe holder for managing both the implementation
+ * of a specific service and its attributes.
+ * The attributes are stored by the manager of the holder, which exposes them to the holder read-only.
+ *
+ * @param <T> the type of the service
+ */
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public final class AttributedServiceHolder<T> implements IAttributedServiceHolder<T> {
+    @Getter
+    @NotNull T implementation;
+    Map<ServiceAttribute<?>, Object> attributes;
+
+    /**
+     * Constructs a holder reading its attributes from the specified storage.
+     *
+     * @param implementation the instance of the service implementation.
+     *                       Must not be {@code null}.
+     * @param attributes     the storage of the attributes, owned and updated by the manager of the holder.
+     *                       Must not be {@code null}.
+     */
+    public AttributedServiceHolder(@NotNull final T implementation, @NotNull final Map<ServiceAttribute<?>, Object> attributes) {
+        this.implementation = implementation;
+        this.attributes = Collections.unmodifiableMap(attributes);
+    }
+
+    @Override
+    public <A> A getAttribute(@NotNull final ServiceAttribute<A> attribute) {
+        return attribute.getType().cast(this.attributes.get(attribute));
+    }
+
+    @Override
+    public @NotNull Map<ServiceAttribute<?>, Object> getAttributes() {
+        return this.attributes;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hashCode(this.implementation.getClass());
+    }
+}
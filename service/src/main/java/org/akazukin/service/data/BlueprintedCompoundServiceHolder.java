@@ -28,7 +28,8 @@ public class BlueprintedCompoundServiceHolder<T, U> implements IBlueprintedCompo
     @NotNull
     final T implementation;
     @Setter
-    @Nullable U data;
+    @Nullable
+    volatile U data;
 
     @Override
     public int hashCode() {
@@ -26,7 +26,8 @@ public class CompoundServiceHolder<T, U> implements ICompoundServiceHolder<T, U>
     @NotNull
     final T implementation;
     @Setter
-    @Nullable U data;
+    @Nullable
+    volatile U data;
 
     @Override
     public int hashCode() {
@@ -0,0 +1,87 @@
+package org.akazukin.service.data;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import lombok.experimental.NonFinal;
+import org.akazukin.annotation.marker.ThreadSafe;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLongFieldUpdater;
+
+/**
+ * A service holder carrying a {@code double} value, updated atomically without boxing.
+ * The value starts at zero.
+ *
+ * @param <T> the type of the service
+ */
+@RequiredArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+@Getter
+@ThreadSafe
+public final class DoubleServiceHolder<T> implements IBlueprintedServiceHolder<T> {
+    @SuppressWarnings("rawtypes")
+    private static final AtomicLongFieldUpdater<DoubleServiceHolder> BITS =
+            AtomicLongFieldUpdater.newUpdater(DoubleServiceHolder.class, "bits");
+
+    @Nullable Class<T> interfaceClass;
+    @NotNull T implementation;
+    @Getter(AccessLevel.NONE)
+    @NonFinal
+    volatile long bits;
+
+    /**
+     * Retrieves the value carried by this holder.
+     *
+     * @return the current value.
+     */
+    public double getData() {
+        return Double.longBitsToDouble(this.bits);
+    }
+
+    /**
+     * Sets the value carried by this holder.
+     *
+     * @param data the new value.
+     */
+    public void setData(final double data) {
+        this.bits = Double.doubleToRawLongBits(data);
+    }
+
+    /**
+     * Atomically adds the specified delta to the value carried by this holder.
+     *
+     * @param delta the value to add.
+     * @return the updated value.
+     */
+    public double addAndGet(final double delta) {
+        while (true) {
+            final long current = this.bits;
+            final double next = Double.longBitsToDouble(current) + delta;
+            if (BITS.compareAndSet(this, current, Double.doubleToRawLongBits(next))) {
+                return next;
+            }
+        }
+    }
+
+    /**
+     * Atomically sets the value carried by this holder if it equals the expected value.
+     * The values are compared by their bit patterns, so {@code NaN} matches itself
+     * while {@code 0.0} and {@code -0.0} are different values.
+     *
+     * @param expect the expected value.
+     * @param update the new value.
+     * @return {@code true} if the value was updated.
+     */
+    public boolean compareAndSet(final double expect, final double update) {
+        return BITS.compareAndSet(this, Double.doubleToRawLongBits(expect), Double.doubleToRawLongBits(update));
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hashCode(this.implementation.getClass());
+    }
+}
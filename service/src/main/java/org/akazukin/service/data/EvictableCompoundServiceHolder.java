@@ -0,0 +1,42 @@
+package org.akazukin.service.data;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.experimental.FieldDefaults;
+import org.akazukin.annotation.marker.ThreadSafe;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.function.Supplier;
+
+/**
+ * An {@link EvictableServiceHolder} carrying additional data.
+ * The data belongs to the holder, so it is kept while the implementation is released and created again.
+ *
+ * @param <T> the type of the service
+ * @param <U> the type of the additional data
+ */
+@FieldDefaults(level = AccessLevel.PRIVATE)
+@Getter
+@Setter
+@ThreadSafe
+public class EvictableCompoundServiceHolder<T, U> extends EvictableServiceHolder<T> implements IBlueprintedCompoundServiceHolder<T, U> {
+    @Nullable
+    volatile U data;
+
+    /**
+     * Constructs a holder which creates the implementation on the first access.
+     *
+     * @param interfaceClass      the interface class of the service, or {@code null} if there is none.
+     * @param implementationClass the class of the instances created by the factory.
+     *                            Must not be {@code null}.
+     * @param factory             the factory creating the implementation.
+     *                            Must not be {@code null}.
+     * @param idleTimeout         the time in nanoseconds after which an unused implementation is released.
+     */
+    public EvictableCompoundServiceHolder(@Nullable final Class<T> interfaceClass, @NotNull final Class<? extends T> implementationClass,
+                                          @NotNull final Supplier<? extends T> factory, final long idleTimeout) {
+        super(interfaceClass, implementationClass, factory, idleTimeout);
+    }
+}
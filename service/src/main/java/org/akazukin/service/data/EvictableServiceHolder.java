@@ -0,0 +1,117 @@
+package org.akazukin.service.data;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.experimental.FieldDefaults;
+import lombok.experimental.NonFinal;
+import org.akazukin.annotation.marker.ThreadSafe;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLongFieldUpdater;
+import java.util.function.Supplier;
+
+/**
+ * A service holder creating the implementation of its service from a factory on demand,
+ * and releasing it once it has not been accessed for the idle timeout.
+ * <p>
+ * An access records a timestamp with an ordered write only once the recorded one is older than
+ * an eighth of the idle timeout, so frequent accesses of a held implementation only read it
+ * and do not keep invalidating the cache line of the holder.
+ * A caller still using an implementation obtained before its release keeps a working instance,
+ * but the next access returns a newly created one.
+ *
+ * @param <T> the type of the service
+ */
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+@ThreadSafe
+public class EvictableServiceHolder<T> implements IEvictableServiceHolder<T>, IBlueprintedServiceHolder<T> {
+    public static final String EXCE_FACTORY_MISMATCH = "The factory created an instance of another class; Implementation:";
+    @SuppressWarnings("rawtypes")
+    private static final AtomicLongFieldUpdater<EvictableServiceHolder> LAST_ACCESS =
+            AtomicLongFieldUpdater.newUpdater(EvictableServiceHolder.class, "lastAccess");
+
+    @Getter
+    @Nullable Class<T> interfaceClass;
+    @Getter
+    @NotNull Class<? extends T> implementationClass;
+    @NotNull Supplier<? extends T> factory;
+    @Getter
+    long idleTimeout;
+    @NonFinal
+    volatile T implementation;
+    @NonFinal
+    volatile long lastAccess = System.nanoTime();
+
+    /**
+     * Constructs a holder which creates the implementation on the first access.
+     *
+     * @param interfaceClass      the interface class of the service, or {@code null} if there is none.
+     * @param implementationClass the class of the instances created by the factory.
+     *                            Must not be {@code null}.
+     * @param factory             the factory creating the implementation.
+     *                            Must not be {@code null}.
+     * @param idleTimeout         the time in nanoseconds after which an unused implementation is released.
+     */
+    public EvictableServiceHolder(@Nullable final Class<T> interfaceClass, @NotNull final Class<? extends T> implementationClass,
+                                  @NotNull final Supplier<? extends T> factory, final long idleTimeout) {
+        this.interfaceClass = interfaceClass;
+        this.implementationClass = implementationClass;
+        this.factory = factory;
+        this.idleTimeout = idleTimeout;
+    }
+
+    /**
+     * Retrieves the implementation of the service, creating it if it has been released.
+     *
+     * @return the implementation of the service.
+     * Must not be {@code null}.
+     * @throws IllegalStateException if the factory created an instance of another class.
+     */
+    @Override
+    public @NotNull T getImplementation() {
+        final long now = System.nanoTime();
+        if (now - this.lastAccess > this.idleTimeout >> 3) {
+            LAST_ACCESS.lazySet(this, now);
+        }
+        final T current = this.implementation;
+        if (current != null) {
+            return current;
+        }
+        synchronized (this) {
+            if (this.implementation == null) {
+                final T created = this.factory.get();
+                if (created.getClass() != this.implementationClass) {
+                    throw new IllegalStateException(EXCE_FACTORY_MISMATCH + this.implementationClass.getName());
+                }
+                this.implementation = created;
+            }
+            return this.implementation;
+        }
+    }
+
+    @Override
+    public @Nullable T peekImplementation() {
+        return this.implementation;
+    }
+
+    @Override
+    public boolean evictIfIdle(final long now) {
+        if (this.implementation == null || now - this.lastAccess < this.idleTimeout) {
+            return false;
+        }
+        synchronized (this) {
+            if (this.implementation == null || now - this.lastAccess < this.idleTimeout) {
+                return false;
+            }
+            this.implementation = null;
+            return true;
+        }
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hashCode(this.implementationClass);
+    }
+}
@@ -0,0 +1,40 @@
+package org.akazukin.service.data;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Map;
+
+/**
+ * Represents a holder interface for managing a service together with any number of
+ * named and typed attributes.
+ * <p>
+ * This interface extends {@link IServiceHolder}, enabling type-safe access to
+ * the implementation of the service as well as providing
+ * methods for reading its attributes.
+ * The attributes are read-only through the holder and are changed through the manager of the holder,
+ * which keeps its indexes up to date.
+ *
+ * @param <T> the type of the service
+ */
+public interface IAttributedServiceHolder<T> extends IServiceHolder<T> {
+    /**
+     * Retrieves the value of the specified attribute.
+     *
+     * @param <A>       the type of the attribute value
+     * @param attribute the attribute whose value is to be retrieved.
+     *                  Must not be {@code null}.
+     * @return the value of the attribute, or {@code null} if it has not been set.
+     */
+    @Nullable
+    <A> A getAttribute(@NotNull ServiceAttribute<A> attribute);
+
+    /**
+     * Retrieves an unmodifiable view of all the attributes set on the holder.
+     *
+     * @return the attributes and their values.
+     * Must not be {@code null}.
+     */
+    @NotNull
+    Map<ServiceAttribute<?>, Object> getAttributes();
+}
@@ -0,0 +1,24 @@
+package org.akazukin.service.data;
+
+/**
+ * Represents a holder which releases the implementation of its service once it has been idle for too long,
+ * and creates it again on the next access.
+ *
+ * @param <T> the type of the service
+ */
+public interface IEvictableServiceHolder<T> extends IServiceHolder<T> {
+    /**
+     * Releases the implementation of the service if it has not been accessed for the idle timeout of the holder.
+     *
+     * @param now the current value of {@link System#nanoTime()}.
+     * @return {@code true} if the implementation was released.
+     */
+    boolean evictIfIdle(long now);
+
+    /**
+     * Retrieves the time after which an unused implementation is released.
+     *
+     * @return the idle timeout in nanoseconds.
+     */
+    long getIdleTimeout();
+}
@@ -1,6 +1,7 @@
 package org.akazukin.service.data;
 
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
 /**
  * Represents a holder interface for managing a service of a specific type.
@@ -20,4 +21,29 @@ public interface IServiceHolder<T> {
      */
     @NotNull
     T getImplementation();
+
+    /**
+     * Retrieves the class of the implementation of the service managed by the holder.
+     * Unlike {@link #getImplementation()}, this method never creates the implementation
+     * of a holder which creates it lazily.
+     *
+     * @return the class of the implementation of the service.
+     * Must not be {@code null}.
+     */
+    @NotNull
+    @SuppressWarnings("unchecked")
+    default Class<? extends T> getImplementationClass() {
+        return (Class<? extends T>) this.getImplementation().getClass();
+    }
+
+    /**
+     * Retrieves the implementation of the service if it is currently held,
+     * without creating it or marking it as used.
+     *
+     * @return the implementation of the service, or {@code null} if it is not currently held.
+     */
+    @Nullable
+    default T peekImplementation() {
+        return this.getImplementation();
+    }
 }
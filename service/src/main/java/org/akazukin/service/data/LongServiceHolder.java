@@ -0,0 +1,79 @@
+package org.akazukin.service.data;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import lombok.experimental.NonFinal;
+import org.akazukin.annotation.marker.ThreadSafe;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLongFieldUpdater;
+
+/**
+ * A service holder carrying a {@code long} value, updated atomically without boxing.
+ * The value starts at zero.
+ *
+ * @param <T> the type of the service
+ */
+@RequiredArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+@Getter
+@ThreadSafe
+public final class LongServiceHolder<T> implements IBlueprintedServiceHolder<T> {
+    @SuppressWarnings("rawtypes")
+    private static final AtomicLongFieldUpdater<LongServiceHolder> DATA =
+            AtomicLongFieldUpdater.newUpdater(LongServiceHolder.class, "data");
+
+    @Nullable Class<T> interfaceClass;
+    @NotNull T implementation;
+    @Getter(AccessLevel.NONE)
+    @NonFinal
+    volatile long data;
+
+    /**
+     * Retrieves the value carried by this holder.
+     *
+     * @return the current value.
+     */
+    public long getData() {
+        return this.data;
+    }
+
+    /**
+     * Sets the value carried by this holder.
+     *
+     * @param data the new value.
+     */
+    public void setData(final long data) {
+        this.data = data;
+    }
+
+    /**
+     * Atomically adds the specified delta to the value carried by this holder.
+     *
+     * @param delta the value to add.
+     * @return the updated value.
+     */
+    public long addAndGet(final long delta) {
+        return DATA.addAndGet(this, delta);
+    }
+
+    /**
+     * Atomically sets the value carried by this holder if it equals the expected value.
+     *
+     * @param expect the expected value.
+     * @param update the new value.
+     * @return {@code true} if the value was updated.
+     */
+    public boolean compareAndSet(final long expect, final long update) {
+        return DATA.compareAndSet(this, expect, update);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hashCode(this.implementation.getClass());
+    }
+}
@@ -0,0 +1,44 @@
+package org.akazukin.service.data;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * A named and typed key of an attribute attached to a service holder.
+ * <p>
+ * Attributes are compared by identity,
+ * so each attribute is expected to be declared once and shared as a constant.
+ *
+ * @param <A> the type of the attribute value
+ */
+@RequiredArgsConstructor(access = AccessLevel.PRIVATE)
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+@Getter
+public final class ServiceAttribute<A> {
+    @NotNull String name;
+    @NotNull Class<A> type;
+
+    /**
+     * Creates a new attribute with the specified name and value type.
+     *
+     * @param <A>  the type of the attribute value
+     * @param name the name of the attribute.
+     *             Must not be {@code null}.
+     * @param type the class object representing the type of the attribute value.
+     *             Must not be {@code null}.
+     * @return a new attribute.
+     * Must not be {@code null}.
+     */
+    @NotNull
+    public static <A> ServiceAttribute<A> of(@NotNull final String name, @NotNull final Class<A> type) {
+        return new ServiceAttribute<>(name, type);
+    }
+
+    @Override
+    public String toString() {
+        return this.name;
+    }
+}
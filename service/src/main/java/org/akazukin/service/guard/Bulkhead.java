@@ -0,0 +1,69 @@
+package org.akazukin.service.guard;
+
+import lombok.AccessLevel;
+import lombok.experimental.FieldDefaults;
+import org.akazukin.annotation.marker.ThreadSafe;
+
+import java.util.concurrent.Semaphore;
+
+/**
+ * A bulkhead limiting the number of concurrent calls into a service.
+ * Permits are acquired without waiting, so a saturated service rejects
+ * further callers instead of accumulating blocked threads.
+ */
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+@ThreadSafe
+public final class Bulkhead {
+    Semaphore permits;
+    int maxConcurrentCalls;
+
+    /**
+     * Constructs a bulkhead with the specified number of permits.
+     *
+     * @param maxConcurrentCalls the maximum number of calls allowed to run concurrently.
+     *                           Must be positive.
+     * @throws IllegalArgumentException if {@code maxConcurrentCalls} is not positive.
+     */
+    public Bulkhead(final int maxConcurrentCalls) {
+        if (maxConcurrentCalls <= 0) {
+            throw new IllegalArgumentException("The max concurrent calls must be positive");
+        }
+        this.maxConcurrentCalls = maxConcurrentCalls;
+        this.permits = new Semaphore(maxConcurrentCalls);
+    }
+
+    /**
+     * Attempts to acquire a permit without waiting.
+     * Every successful acquisition must be followed by {@link #release()}.
+     *
+     * @return {@code true} if a permit was acquired, or {@code false} if all permits are in use.
+     */
+    public boolean tryAcquire() {
+        return this.permits.tryAcquire();
+    }
+
+    /**
+     * Releases a permit acquired by {@link #tryAcquire()}.
+     */
+    public void release() {
+        this.permits.release();
+    }
+
+    /**
+     * Retrieves the number of permits currently available.
+     *
+     * @return the number of available permits.
+     */
+    public int getAvailablePermits() {
+        return this.permits.availablePermits();
+    }
+
+    /**
+     * Retrieves the maximum number of concurrent calls allowed by this bulkhead.
+     *
+     * @return the maximum number of concurrent calls.
+     */
+    public int getMaxConcurrentCalls() {
+        return this.maxConcurrentCalls;
+    }
+}
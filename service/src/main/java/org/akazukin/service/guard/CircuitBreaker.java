@@ -0,0 +1,266 @@
+package org.akazukin.service.guard;
+
+import lombok.AccessLevel;
+import lombok.experimental.FieldDefaults;
+import org.akazukin.annotation.marker.ThreadSafe;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * A circuit breaker driven by a count-based sliding window of call outcomes.
+ * <p>
+ * The breaker stays {@link State#CLOSED} while the failure rate and the slow call rate
+ * of the last {@code windowSize} calls stay below their thresholds.
+ * Once either threshold is reached, it trips {@link State#OPEN} and rejects every call
+ * until {@code openDuration} has elapsed.
+ * It then moves to {@link State#HALF_OPEN} and lets a limited number of trial calls through,
+ * closing again when all of them succeed or reopening on the first failed or slow trial.
+ * <p>
+ * The state, the window and the half-open counters of each phase of the breaker are held together
+ * in one {@link Permission} object published through a single atomic reference,
+ * so a transition installs its fresh counters atomically with the new state.
+ * A permission is bound to the phase it was acquired in, and the outcome of a call permitted during
+ * an earlier phase is ignored, so it can neither count as a half-open trial nor trip a freshly closed breaker.
+ * The window is recorded without locks; all state transitions are performed with CAS operations.
+ */
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+@ThreadSafe
+public final class CircuitBreaker {
+    private static final int RECORDED = 1;
+    private static final int FAILED = 1 << 1;
+    private static final int SLOW = 1 << 2;
+
+    int windowSize;
+    float failureRateThreshold;
+    long slowCallThreshold;
+    float slowCallRateThreshold;
+    long openDuration;
+    int halfOpenCalls;
+
+    AtomicReference<Permission> phase;
+
+    /**
+     * Constructs a circuit breaker with the specified thresholds.
+     *
+     * @param windowSize            the number of the most recent calls considered when evaluating the rates.
+     *                              Must be positive.
+     * @param failureRateThreshold  the failure rate in the range {@code (0, 1]} at which the breaker opens.
+     * @param slowCallThreshold     the duration from which a call is considered slow.
+     * @param slowCallRateThreshold the slow call rate in the range {@code (0, 1]} at which the breaker opens.
+     * @param openDuration          the duration for which the breaker stays open before allowing trial calls.
+     * @param halfOpenCalls         the number of trial calls permitted while half-open.
+     *                              Must be positive.
+     * @param unit                  the time unit of {@code slowCallThreshold} and {@code openDuration}.
+     *                              Must not be {@code null}.
+     * @throws IllegalArgumentException if any of the arguments is out of range.
+     */
+    public CircuitBreaker(final int windowSize, final float failureRateThreshold,
+                          final long slowCallThreshold, final float slowCallRateThreshold,
+                          final long openDuration, final int halfOpenCalls, @NotNull final TimeUnit unit) {
+        if (windowSize <= 0 || halfOpenCalls <= 0) {
+            throw new IllegalArgumentException("The window size and the half-open calls must be positive");
+        }
+        if (!(failureRateThreshold > 0 && failureRateThreshold <= 1)
+                || !(slowCallRateThreshold > 0 && slowCallRateThreshold <= 1)) {
+            throw new IllegalArgumentException("The rate thresholds must be in the range (0, 1]");
+        }
+        this.windowSize = windowSize;
+        this.failureRateThreshold = failureRateThreshold;
+        this.slowCallThreshold = unit.toNanos(slowCallThreshold);
+        this.slowCallRateThreshold = slowCallRateThreshold;
+        this.openDuration = unit.toNanos(openDuration);
+        this.halfOpenCalls = halfOpenCalls;
+        this.phase = new AtomicReference<>(Permission.closed(windowSize));
+    }
+
+    /**
+     * Retrieves the current state of the circuit breaker.
+     * An open breaker whose open duration has elapsed is still reported as open
+     * until the next call attempts to acquire a permission.
+     *
+     * @return the current state.
+     * Must not be {@code null}.
+     */
+    @NotNull
+    public State getState() {
+        return this.phase.get().state;
+    }
+
+    /**
+     * Attempts to acquire a permission to perform a call.
+     * Every acquired permission must be passed to {@link #onResult(Permission, long, boolean)}
+     * once the call is done.
+     *
+     * @return the permission bound to the current phase of the breaker,
+     * or {@code null} if the breaker rejects the call.
+     */
+    @Nullable
+    public Permission tryAcquirePermission() {
+        while (true) {
+            final Permission current = this.phase.get();
+            switch (current.state) {
+                case CLOSED:
+                    return current;
+                case OPEN:
+                    if (System.nanoTime() - current.openedAt < this.openDuration) {
+                        return null;
+                    }
+                    this.phase.compareAndSet(current, Permission.halfOpen());
+                    break;
+                default:
+                    return this.tryAcquireTrial(current.permits) ? current : null;
+            }
+        }
+    }
+
+    /**
+     * Takes one of the trial calls of the half-open phase.
+     * A rejected call only reads the counter, so it never grows past the number of trials.
+     *
+     * @param permits the trial calls taken in the current phase.
+     *                Must not be {@code null}.
+     * @return {@code true} if a trial call was taken.
+     */
+    private boolean tryAcquireTrial(@NotNull final AtomicInteger permits) {
+        int taken;
+        do {
+            taken = permits.get();
+            if (taken >= this.halfOpenCalls) {
+                return false;
+            }
+        } while (!permits.compareAndSet(taken, taken + 1));
+        return true;
+    }
+
+    /**
+     * Records the outcome of a call permitted by {@link #tryAcquirePermission()}.
+     * The outcome is ignored if the breaker has changed its state since the permission was acquired.
+     *
+     * @param permission the permission returned by {@link #tryAcquirePermission()}.
+     *                   Must not be {@code null}.
+     * @param duration   the duration of the call in nanoseconds.
+     * @param failed     {@code true} if the call failed.
+     */
+    public void onResult(@NotNull final Permission permission, final long duration, final boolean failed) {
+        if (this.phase.get() != permission) {
+            return;
+        }
+        final boolean slow = duration >= this.slowCallThreshold;
+        if (permission.state == State.HALF_OPEN) {
+            if (failed || slow) {
+                this.phase.compareAndSet(permission, Permission.open());
+            } else if (permission.successes.incrementAndGet() >= this.halfOpenCalls) {
+                this.phase.compareAndSet(permission, Permission.closed(this.windowSize));
+            }
+            return;
+        }
+
+        final Window w = permission.window;
+        w.record(RECORDED | (failed ? FAILED : 0) | (slow ? SLOW : 0));
+        final int recorded = w.recorded.get();
+        if (recorded < this.windowSize) {
+            return;
+        }
+        if (w.failures.get() >= this.failureRateThreshold * recorded
+                || w.slows.get() >= this.slowCallRateThreshold * recorded) {
+            this.phase.compareAndSet(permission, Permission.open());
+        }
+    }
+
+    /**
+     * The states of a {@link CircuitBreaker}.
+     */
+    public enum State {
+        /**
+         * Calls are permitted and their outcomes are recorded.
+         */
+        CLOSED,
+        /**
+         * Calls are rejected.
+         */
+        OPEN,
+        /**
+         * A limited number of trial calls is permitted.
+         */
+        HALF_OPEN
+    }
+
+    /**
+     * A permission to perform a call, bound to one phase of a {@link CircuitBreaker}.
+     * Each state transition of the breaker creates a new phase with its own counters,
+     * so a permission acquired before the transition no longer affects the breaker.
+     */
+    @FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+    public static final class Permission {
+        State state;
+        long openedAt;
+        @Nullable Window window;
+        @Nullable AtomicInteger permits;
+        @Nullable AtomicInteger successes;
+
+        private Permission(@NotNull final State state, final long openedAt, @Nullable final Window window,
+                           @Nullable final AtomicInteger permits, @Nullable final AtomicInteger successes) {
+            this.state = state;
+            this.openedAt = openedAt;
+            this.window = window;
+            this.permits = permits;
+            this.successes = successes;
+        }
+
+        @NotNull
+        static Permission closed(final int windowSize) {
+            return new Permission(State.CLOSED, 0, new Window(windowSize), null, null);
+        }
+
+        @NotNull
+        static Permission open() {
+            return new Permission(State.OPEN, System.nanoTime(), null, null, null);
+        }
+
+        @NotNull
+        static Permission halfOpen() {
+            return new Permission(State.HALF_OPEN, 0, null, new AtomicInteger(), new AtomicInteger());
+        }
+    }
+
+    /**
+     * A ring buffer of call outcomes with running counters.
+     * Overwritten slots are subtracted from the counters, so the counters
+     * always describe the latest {@code windowSize} outcomes.
+     */
+    @FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+    private static final class Window {
+        AtomicIntegerArray outcomes;
+        AtomicLong cursor = new AtomicLong();
+        AtomicInteger recorded = new AtomicInteger();
+        AtomicInteger failures = new AtomicInteger();
+        AtomicInteger slows = new AtomicInteger();
+
+        Window(final int size) {
+            this.outcomes = new AtomicIntegerArray(size);
+        }
+
+        void record(final int outcome) {
+            final int index = (int) (this.cursor.getAndIncrement() % this.outcomes.length());
+            final int old = this.outcomes.getAndSet(index, outcome);
+            if ((old & RECORDED) == 0) {
+                this.recorded.incrementAndGet();
+            }
+            this.adjust(this.failures, old, outcome, FAILED);
+            this.adjust(this.slows, old, outcome, SLOW);
+        }
+
+        private void adjust(final AtomicInteger counter, final int old, final int outcome, final int flag) {
+            final int delta = (outcome & flag) - (old & flag);
+            if (delta != 0) {
+                counter.addAndGet(delta / flag);
+            }
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package org.akazukin.service.guard;
+
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.experimental.FieldDefaults;
+import org.akazukin.annotation.marker.ThreadSafe;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.function.Function;
+
+/**
+ * A guard combining an optional {@link CircuitBreaker} and an optional {@link Bulkhead}
+ * in front of a single service.
+ * Calls are rejected with a {@link ServiceUnavailableException} before reaching the service
+ * when the bulkhead has no permits left or the circuit breaker is open.
+ */
+@AllArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+@Getter
+@ThreadSafe
+public final class ServiceGuard {
+    public static final String EXCE_CIRCUIT_OPEN = "The circuit breaker of the service is open; Implementation:";
+    public static final String EXCE_BULKHEAD_FULL = "The service has no call permits left; Implementation:";
+
+    @Nullable CircuitBreaker circuitBreaker;
+    @Nullable Bulkhead bulkhead;
+
+    /**
+     * Invokes the specified call on the service if both the bulkhead and the circuit breaker permit it.
+     * Any exception thrown by the call is recorded as a failure and rethrown.
+     *
+     * @param <S>     the type of the service.
+     * @param <R>     the type of the result.
+     * @param service the service to invoke.
+     *                Must not be {@code null}.
+     * @param call    the call to perform on the service.
+     *                Must not be {@code null}.
+     * @return the result of the call.
+     * @throws ServiceUnavailableException if the bulkhead or the circuit breaker rejected the call.
+     */
+    public <S, R> R call(@NotNull final S service, @NotNull final Function<? super S, ? extends R> call) {
+        final Bulkhead b = this.bulkhead;
+        if (b != null && !b.tryAcquire()) {
+            throw new ServiceUnavailableException(EXCE_BULKHEAD_FULL + service.getClass().getName());
+        }
+        try {
+            final CircuitBreaker cb = this.circuitBreaker;
+            if (cb == null) {
+                return call.apply(service);
+            }
+            final CircuitBreaker.Permission permission = cb.tryAcquirePermission();
+            if (permission == null) {
+                throw new ServiceUnavailableException(EXCE_CIRCUIT_OPEN + service.getClass().getName());
+            }
+
+            final long start = System.nanoTime();
+            boolean failed = true;
+            try {
+                final R result = call.apply(service);
+                failed = false;
+                return result;
+            } finally {
+                cb.onResult(permission, System.nanoTime() - start, failed);
+            }
+        } finally {
+            if (b != null) {
+                b.release();
+            }
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package org.akazukin.service.guard;
+
+/**
+ * Thrown when a guarded call is rejected without invoking the service,
+ * either because the service is not registered, its circuit breaker is open,
+ * or its bulkhead has no permits left.
+ */
+public class ServiceUnavailableException extends IllegalStateException {
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * Constructs a new exception with the specified detail message.
+     *
+     * @param message the detail message.
+     */
+    public ServiceUnavailableException(final String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,9 @@
+/**
+ * Provides guards protecting callers from degraded services.
+ * <p>
+ * This package contains the circuit breaker and the bulkhead
+ * which can be attached to services registered in a blueprinted service manager,
+ * so that a slow or failing service is rejected fast
+ * instead of exhausting the threads of its callers.
+ */
+package org.akazukin.service.guard;
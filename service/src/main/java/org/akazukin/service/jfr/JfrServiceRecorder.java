@@ -0,0 +1,103 @@
+package org.akazukin.service.jfr;
+
+import jdk.jfr.EventType;
+import jdk.jfr.FlightRecorder;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Records the events of the service managers with Java Flight Recorder.
+ * The enablement of each event is read from its cached {@link EventType},
+ * so no event is allocated unless it is enabled in a running recording.
+ * This class is only loaded reflectively once JFR is known to be present.
+ */
+final class JfrServiceRecorder implements ServiceRecorder {
+    private static final EventType REGISTRATION = EventType.getEventType(ServiceRegistrationEvent.class);
+    private static final EventType LOOKUP = EventType.getEventType(ServiceLookupEvent.class);
+    private static final EventType LOOKUP_MISS = EventType.getEventType(ServiceLookupMissEvent.class);
+    private static final EventType LOCK_CONTENTION = EventType.getEventType(ServiceLockContentionEvent.class);
+
+    JfrServiceRecorder() {
+        if (!FlightRecorder.isAvailable()) {
+            throw new IllegalStateException("Java Flight Recorder is not available");
+        }
+    }
+
+    @Override
+    public Object beginRegistration() {
+        if (!REGISTRATION.isEnabled()) {
+            return null;
+        }
+        final ServiceRegistrationEvent event = new ServiceRegistrationEvent();
+        event.begin();
+        return event;
+    }
+
+    @Override
+    public void endRegistration(@NotNull final Object event, @NotNull final Object manager, final boolean registered,
+                                @Nullable final Class<?> implementation, @Nullable final Class<?> service) {
+        final ServiceRegistrationEvent e = (ServiceRegistrationEvent) event;
+        e.end();
+        if (e.shouldCommit()) {
+            e.managerClass = manager.getClass();
+            e.registered = registered;
+            e.implementationClass = implementation;
+            e.interfaceClass = service;
+            e.commit();
+        }
+    }
+
+    @Override
+    public Object beginLookup() {
+        if (!LOOKUP.isEnabled() && !LOOKUP_MISS.isEnabled()) {
+            return null;
+        }
+        final ServiceLookupEvent event = new ServiceLookupEvent();
+        event.begin();
+        return event;
+    }
+
+    @Override
+    public void endLookup(@NotNull final Object event, @NotNull final Object manager, @NotNull final String kind,
+                          @Nullable final Class<?> queried, final boolean hit) {
+        final ServiceLookupEvent e = (ServiceLookupEvent) event;
+        e.end();
+        if (e.shouldCommit()) {
+            e.managerClass = manager.getClass();
+            e.kind = kind;
+            e.queriedClass = queried;
+            e.hit = hit;
+            e.commit();
+        }
+        if (!hit && LOOKUP_MISS.isEnabled()) {
+            final ServiceLookupMissEvent miss = new ServiceLookupMissEvent();
+            if (miss.shouldCommit()) {
+                miss.managerClass = manager.getClass();
+                miss.kind = kind;
+                miss.queriedClass = queried;
+                miss.commit();
+            }
+        }
+    }
+
+    @Override
+    public Object beginContention() {
+        if (!LOCK_CONTENTION.isEnabled()) {
+            return null;
+        }
+        final ServiceLockContentionEvent event = new ServiceLockContentionEvent();
+        event.begin();
+        return event;
+    }
+
+    @Override
+    public void endContention(@NotNull final Object event, @NotNull final Object manager, @NotNull final String operation) {
+        final ServiceLockContentionEvent e = (ServiceLockContentionEvent) event;
+        e.end();
+        if (e.shouldCommit()) {
+            e.managerClass = manager.getClass();
+            e.operation = operation;
+            e.commit();
+        }
+    }
+}
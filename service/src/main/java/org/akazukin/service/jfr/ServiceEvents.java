@@ -0,0 +1,140 @@
+package org.akazukin.service.jfr;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * The entry point through which the service managers emit Java Flight Recorder events.
+ * <p>
+ * Events are only emitted when JFR is present in the running JVM (JDK 11 or later, or 8u262 or later)
+ * and the system property {@value #PROPERTY_ENABLED} is not set to {@code false}.
+ * Otherwise, every method returns immediately, so the instrumentation costs a single static field read.
+ * <p>
+ * Each {@code begin} method returns an opaque token, or {@code null} if the event is disabled;
+ * the matching {@code end} method must be passed the same token and ignores {@code null}.
+ */
+public final class ServiceEvents {
+    public static final String PROPERTY_ENABLED = "org.akazukin.service.jfr";
+
+    public static final String LOOKUP_SERVICE_BY_IMPLEMENTATION = "getServiceByImplementation";
+    public static final String LOOKUP_SERVICE_BY_INTERFACE = "getServiceByInterface";
+    public static final String LOOKUP_HOLDER_BY_IMPLEMENTATION = "getServiceHolderByImplementation";
+    public static final String LOOKUP_HOLDER_BY_INTERFACE = "getServiceHolderByInterface";
+    public static final String LOOKUP_HOLDER_BY_SERVICE = "getServiceHolderByService";
+    public static final String LOOKUP_DATA_BY_IMPLEMENTATION = "getDataByImplementation";
+    public static final String LOOKUP_DATA_BY_INTERFACE = "getDataByInterface";
+    public static final String LOOKUP_DATA_BY_SERVICE = "getDataByService";
+
+    @Nullable
+    private static final ServiceRecorder RECORDER = createRecorder();
+
+    private ServiceEvents() {
+    }
+
+    @Nullable
+    private static ServiceRecorder createRecorder() {
+        if ("false".equalsIgnoreCase(System.getProperty(PROPERTY_ENABLED))) {
+            return null;
+        }
+        try {
+            Class.forName("jdk.jfr.Event", false, ServiceEvents.class.getClassLoader());
+            return (ServiceRecorder) Class.forName(ServiceEvents.class.getPackage().getName() + ".JfrServiceRecorder")
+                    .getDeclaredConstructor()
+                    .newInstance();
+        } catch (final ReflectiveOperationException | LinkageError | IllegalStateException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Checks whether the events are emitted in the running JVM.
+     *
+     * @return {@code true} if JFR is present and the events are not disabled by the system property.
+     */
+    public static boolean isAvailable() {
+        return RECORDER != null;
+    }
+
+    /**
+     * Begins timing the registration or the unregistration of a service.
+     *
+     * @return the token to pass to {@link #endRegistration(Object, Object, boolean, Class, Class)},
+     * or {@code null} if the event is disabled.
+     */
+    @Nullable
+    public static Object beginRegistration() {
+        return RECORDER == null ? null : RECORDER.beginRegistration();
+    }
+
+    /**
+     * Ends timing the registration or the unregistration of a service and emits its event.
+     *
+     * @param event          the token returned by {@link #beginRegistration()}.
+     * @param manager        the manager the service was registered to or unregistered from.
+     *                       Must not be {@code null}.
+     * @param registered     {@code true} for a registration, {@code false} for an unregistration.
+     * @param implementation the implementation class of the service, or {@code null} if unknown.
+     * @param service        the interface class of the service, or {@code null} if unknown.
+     */
+    public static void endRegistration(@Nullable final Object event, @NotNull final Object manager, final boolean registered,
+                                       @Nullable final Class<?> implementation, @Nullable final Class<?> service) {
+        if (event != null) {
+            RECORDER.endRegistration(event, manager, registered, implementation, service);
+        }
+    }
+
+    /**
+     * Begins timing a lookup.
+     *
+     * @return the token to pass to {@link #endLookup(Object, Object, String, Class, boolean)},
+     * or {@code null} if the events are disabled.
+     */
+    @Nullable
+    public static Object beginLookup() {
+        return RECORDER == null ? null : RECORDER.beginLookup();
+    }
+
+    /**
+     * Ends timing a lookup and emits its events if it was slow or missed.
+     *
+     * @param event   the token returned by {@link #beginLookup()}.
+     * @param manager the manager that performed the lookup.
+     *                Must not be {@code null}.
+     * @param kind    the name of the lookup method.
+     *                Must not be {@code null}.
+     * @param queried the class that was looked up, or {@code null} if the lookup was not by class.
+     * @param hit     {@code true} if the lookup found a service.
+     */
+    public static void endLookup(@Nullable final Object event, @NotNull final Object manager, @NotNull final String kind,
+                                 @Nullable final Class<?> queried, final boolean hit) {
+        if (event != null) {
+            RECORDER.endLookup(event, manager, kind, queried, hit);
+        }
+    }
+
+    /**
+     * Begins timing the wait for a contended manager lock.
+     *
+     * @return the token to pass to {@link #endContention(Object, Object, String)},
+     * or {@code null} if the event is disabled.
+     */
+    @Nullable
+    public static Object beginContention() {
+        return RECORDER == null ? null : RECORDER.beginContention();
+    }
+
+    /**
+     * Ends timing the wait for a contended manager lock and emits its event.
+     *
+     * @param event     the token returned by {@link #beginContention()}.
+     * @param manager   the manager whose lock was contended.
+     *                  Must not be {@code null}.
+     * @param operation the name of the mutator which waited.
+     *                  Must not be {@code null}.
+     */
+    public static void endContention(@Nullable final Object event, @NotNull final Object manager, @NotNull final String operation) {
+        if (event != null) {
+            RECORDER.endContention(event, manager, operation);
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package org.akazukin.service.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Threshold;
+
+/**
+ * Records a mutator of a service manager waiting for the lock held by another mutator.
+ */
+@Name("org.akazukin.service.LockContention")
+@Label("Service Manager Lock Contention")
+@Description("A mutator of a service manager waited for the lock held by another mutator")
+@Category({"Akazukin", "Service"})
+@Threshold("10 ms")
+final class ServiceLockContentionEvent extends jdk.jfr.Event {
+    @Label("Manager")
+    Class<?> managerClass;
+
+    @Label("Operation")
+    String operation;
+}
@@ -0,0 +1,30 @@
+package org.akazukin.service.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Threshold;
+
+/**
+ * Records a lookup of a service which took longer than the threshold of the event.
+ */
+@Name("org.akazukin.service.Lookup")
+@Label("Slow Service Lookup")
+@Description("A lookup of a service manager took longer than the threshold")
+@Category({"Akazukin", "Service"})
+@Threshold("1 ms")
+final class ServiceLookupEvent extends jdk.jfr.Event {
+    @Label("Manager")
+    Class<?> managerClass;
+
+    @Label("Kind")
+    @Description("The lookup method which was called")
+    String kind;
+
+    @Label("Queried Class")
+    Class<?> queriedClass;
+
+    @Label("Hit")
+    boolean hit;
+}
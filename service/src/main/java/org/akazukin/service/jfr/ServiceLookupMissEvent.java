@@ -0,0 +1,29 @@
+package org.akazukin.service.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Records a lookup of a service which did not find any service.
+ */
+@Name("org.akazukin.service.LookupMiss")
+@Label("Service Lookup Miss")
+@Description("A lookup of a service manager did not find any service")
+@Category({"Akazukin", "Service"})
+@Enabled(false)
+@StackTrace(false)
+final class ServiceLookupMissEvent extends jdk.jfr.Event {
+    @Label("Manager")
+    Class<?> managerClass;
+
+    @Label("Kind")
+    @Description("The lookup method which was called")
+    String kind;
+
+    @Label("Queried Class")
+    Class<?> queriedClass;
+}
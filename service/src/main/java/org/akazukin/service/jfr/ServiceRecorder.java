@@ -0,0 +1,27 @@
+package org.akazukin.service.jfr;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Records the events of the service managers.
+ * The signatures must not refer to any JFR type, so that this interface can be loaded on runtimes without JFR.
+ */
+interface ServiceRecorder {
+    @Nullable
+    Object beginRegistration();
+
+    void endRegistration(@NotNull Object event, @NotNull Object manager, boolean registered,
+                         @Nullable Class<?> implementation, @Nullable Class<?> service);
+
+    @Nullable
+    Object beginLookup();
+
+    void endLookup(@NotNull Object event, @NotNull Object manager, @NotNull String kind,
+                   @Nullable Class<?> queried, boolean hit);
+
+    @Nullable
+    Object beginContention();
+
+    void endContention(@NotNull Object event, @NotNull Object manager, @NotNull String operation);
+}
@@ -0,0 +1,30 @@
+package org.akazukin.service.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Records the registration or the unregistration of a service, including the time spent waiting for the manager lock.
+ */
+@Name("org.akazukin.service.Registration")
+@Label("Service Registration")
+@Description("A service was registered to or unregistered from a service manager")
+@Category({"Akazukin", "Service"})
+@StackTrace(false)
+final class ServiceRegistrationEvent extends jdk.jfr.Event {
+    @Label("Manager")
+    Class<?> managerClass;
+
+    @Label("Registered")
+    @Description("Whether the service was registered, or unregistered otherwise")
+    boolean registered;
+
+    @Label("Implementation")
+    Class<?> implementationClass;
+
+    @Label("Interface")
+    Class<?> interfaceClass;
+}
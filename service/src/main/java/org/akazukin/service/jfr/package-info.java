@@ -0,0 +1,14 @@
+/**
+ * Provides Java Flight Recorder events for the service managers.
+ * <p>
+ * The events are emitted only when JFR is present in the running JVM,
+ * and are configured with the standard JFR settings:
+ * <ul>
+ *     <li>{@code org.akazukin.service.Registration}: registrations and unregistrations with their duration.</li>
+ *     <li>{@code org.akazukin.service.Lookup}: lookups slower than the threshold, {@code 1 ms} by default.</li>
+ *     <li>{@code org.akazukin.service.LookupMiss}: lookups which found no service, disabled by default.</li>
+ *     <li>{@code org.akazukin.service.LockContention}: mutators waiting for the manager lock
+ *     longer than the threshold, {@code 10 ms} by default.</li>
+ * </ul>
+ */
+package org.akazukin.service.jfr;
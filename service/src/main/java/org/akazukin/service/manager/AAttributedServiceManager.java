@@ -0,0 +1,259 @@
+package org.akazukin.service.manager;
+
+import lombok.AccessLevel;
+import lombok.experimental.FieldDefaults;
+import lombok.experimental.NonFinal;
+import org.akazukin.annotation.marker.ThreadSafe;
+import org.akazukin.service.data.IAttributedServiceHolder;
+import org.akazukin.service.data.ServiceAttribute;
+import org.akazukin.util.utils.ArrayUtils;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * An abstract implementation of a service manager that manages services and their attributes.
+ * Extends the {@link ASingleServiceManager} with secondary indexes over the attributes
+ * and a query API intersecting the postings of those indexes.
+ * <p>
+ * The attributes of each holder are stored by the manager and exposed to the holder read-only,
+ * so {@link #setAttribute(Object, ServiceAttribute, Object)} is the only way to change them
+ * and the indexes never diverge from the holders.
+ * <p>
+ * The results of up to {@link #MAX_CACHED_QUERIES} queries are cached until the next mutation
+ * of the services or their attributes, and a cached result is read without locking.
+ * The service manager is thread-safe and can be used in multithreaded environments.
+ *
+ * @param <T> the type of the service holder, which extends {@link IAttributedServiceHolder}.
+ * @param <U> the type of service managed by this manager.
+ */
+@FieldDefaults(level = AccessLevel.PROTECTED, makeFinal = true)
+@ThreadSafe
+public abstract class AAttributedServiceManager<T extends IAttributedServiceHolder<? extends U>, U>
+        extends ASingleServiceManager<T, U> implements IAttributedServiceManager<T, U> {
+    public static final int MAX_CACHED_QUERIES = 256;
+
+    Map<ServiceAttribute<?>, ServiceAttributeIndex<T>> indexes = new ConcurrentHashMap<>();
+    Map<T, Map<ServiceAttribute<?>, Object>> attributes = new ConcurrentHashMap<>();
+    @NonFinal
+    volatile QueryCache<T> queryCache = new QueryCache<>();
+
+    /**
+     * Constructs an instance of AAttributedServiceManager with the specified service holder type and service type.
+     *
+     * @param serviceHolderType the class object representing the type of the service holder.
+     *                          Must not be null.
+     * @param serviceType       the class object representing the type of the service.
+     *                          Must not be null.
+     */
+    public AAttributedServiceManager(@NotNull final Class<T> serviceHolderType, @NotNull final Class<U> serviceType) {
+        super(serviceHolderType, serviceType);
+    }
+
+    @Override
+    public <A> void declareHashIndex(@NotNull final ServiceAttribute<A> attribute) {
+        this.declareIndex(ServiceAttributeIndex.hash(attribute));
+    }
+
+    @Override
+    public <A extends Comparable<? super A>> void declareSortedIndex(@NotNull final ServiceAttribute<A> attribute) {
+        this.declareIndex(ServiceAttributeIndex.sorted(attribute));
+    }
+
+    private void declareIndex(@NotNull final ServiceAttributeIndex<T> index) {
+        this.lock("declareIndex");
+        try {
+            for (final T holder : this.services) {
+                index.add(holder);
+            }
+            this.indexes.put(index.getAttribute(), index);
+            this.invalidateQueries();
+        } finally {
+            this.unlock();
+        }
+    }
+
+    @Override
+    public <A> void setAttribute(@NotNull final U service, @NotNull final ServiceAttribute<A> attribute, @Nullable final A value) {
+        this.lock("setAttribute");
+        try {
+            final T holder = this.getServiceHolderByService(service);
+            if (holder == null) {
+                return;
+            }
+
+            final ServiceAttributeIndex<T> index = this.indexes.get(attribute);
+            if (index != null) {
+                index.remove(holder, holder.getAttribute(attribute));
+            }
+            final Map<ServiceAttribute<?>, Object> values = this.attributes.get(holder);
+            if (value == null) {
+                values.remove(attribute);
+            } else {
+                values.put(attribute, attribute.getType().cast(value));
+            }
+            if (index != null) {
+                index.add(holder);
+            }
+            this.invalidateQueries();
+        } finally {
+            this.unlock();
+        }
+    }
+
+    @Override
+    public <A> A getAttribute(@NotNull final U service, @NotNull final ServiceAttribute<A> attribute) {
+        final T holder = this.getServiceHolderByService(service);
+        return holder == null ? null : holder.getAttribute(attribute);
+    }
+
+    @Override
+    public @NotNull ServiceQuery<T> query() {
+        return new ServiceQuery<>(this);
+    }
+
+    @Override
+    public @NotNull T[] executeQuery(@NotNull final ServiceQuery<T> query) {
+        final QueryCache<T> cache = this.queryCache;
+        final List<ServiceQuery.Condition> conditions = query.getConditions();
+        T[] result = cache.get(conditions);
+        if (result == null) {
+            result = this.evaluate(conditions);
+            cache.put(conditions, result);
+        }
+        return result.clone();
+    }
+
+    @NotNull
+    private T[] evaluate(@NotNull final List<ServiceQuery.Condition> conditions) {
+        final List<Set<T>> postings = new ArrayList<>();
+        final List<ServiceQuery.Condition> residual = new ArrayList<>();
+        for (final ServiceQuery.Condition condition : conditions) {
+            final ServiceAttributeIndex<T> index = this.indexes.get(condition.getAttribute());
+            final Set<T> posting = index == null ? null : index.lookup(condition);
+            if (posting == null) {
+                residual.add(condition);
+            } else {
+                postings.add(posting);
+            }
+        }
+
+        final Collection<T> candidates;
+        if (postings.isEmpty()) {
+            candidates = this.services;
+        } else {
+            postings.sort(Comparator.comparingInt(Set::size));
+            candidates = postings.remove(0);
+        }
+        return candidates.stream()
+                .filter(h -> {
+                    for (final Set<T> posting : postings) {
+                        if (!posting.contains(h)) {
+                            return false;
+                        }
+                    }
+                    for (final ServiceQuery.Condition condition : residual) {
+                        if (!condition.matches(h)) {
+                            return false;
+                        }
+                    }
+                    return true;
+                })
+                .toArray(ArrayUtils.collectToArray(this.serviceHolderType));
+    }
+
+    /**
+     * Creates the holder of the specified service, with a storage of its attributes owned by this manager.
+     *
+     * @param serviceImpl The instance of the service implementation.
+     *                    Must not be {@code null}.
+     * @return A newly created service holder of type {@link T}.
+     * Must not be {@code null}.
+     */
+    @Override
+    protected final @NotNull T createServiceHolder(@NotNull final U serviceImpl) {
+        final Map<ServiceAttribute<?>, Object> values = new ConcurrentHashMap<>();
+        final T holder = this.createServiceHolder(serviceImpl, values);
+        this.attributes.put(holder, values);
+        return holder;
+    }
+
+    /**
+     * Creates a service holder reading its attributes from the specified storage.
+     * The holder must not expose the storage other than read-only.
+     *
+     * @param serviceImpl The instance of the service implementation.
+     *                    Must not be {@code null}.
+     * @param attributes  The storage of the attributes of the service, updated by this manager.
+     *                    Must not be {@code null}.
+     * @return A newly created service holder of type {@link T}.
+     * Must not be {@code null}.
+     */
+    @NotNull
+    protected abstract T createServiceHolder(@NotNull U serviceImpl, @NotNull Map<ServiceAttribute<?>, Object> attributes);
+
+    /**
+     * Discards all the cached query results.
+     * Indexes must be updated before calling this method, so that a query evaluated concurrently
+     * against stale indexes only ever populates the discarded cache.
+     */
+    protected void invalidateQueries() {
+        this.queryCache = new QueryCache<>();
+    }
+
+    @Override
+    protected void onServiceRegistered(@NotNull final T holder) {
+        for (final ServiceAttributeIndex<T> index : this.indexes.values()) {
+            index.add(holder);
+        }
+        this.invalidateQueries();
+        super.onServiceRegistered(holder);
+    }
+
+    @Override
+    protected void onServiceUnregistered(@NotNull final T holder) {
+        super.onServiceUnregistered(holder);
+        for (final ServiceAttributeIndex<T> index : this.indexes.values()) {
+            index.remove(holder, holder.getAttribute(index.getAttribute()));
+        }
+        this.attributes.remove(holder);
+        this.invalidateQueries();
+    }
+
+    /**
+     * A map of query results bounded to {@link #MAX_CACHED_QUERIES},
+     * so that queries with varying bounds cannot grow the cache without limit.
+     * A hit is a plain read of a concurrent map without locking nor recording the access,
+     * and an insertion beyond the bound evicts an arbitrary entry instead of the least recently used one.
+     */
+    @FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+    private static final class QueryCache<T> {
+        Map<List<ServiceQuery.Condition>, T[]> results = new ConcurrentHashMap<>();
+
+        @Nullable
+        T[] get(@NotNull final List<ServiceQuery.Condition> conditions) {
+            return this.results.get(conditions);
+        }
+
+        void put(@NotNull final List<ServiceQuery.Condition> conditions, @NotNull final T[] result) {
+            if (this.results.putIfAbsent(conditions, result) != null || this.results.size() <= MAX_CACHED_QUERIES) {
+                return;
+            }
+            final Iterator<List<ServiceQuery.Condition>> victims = this.results.keySet().iterator();
+            while (this.results.size() > MAX_CACHED_QUERIES && victims.hasNext()) {
+                final List<ServiceQuery.Condition> victim = victims.next();
+                if (victim != conditions) {
+                    victims.remove();
+                }
+            }
+        }
+    }
+}
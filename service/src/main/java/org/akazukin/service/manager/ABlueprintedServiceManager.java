@@ -3,11 +3,23 @@ package org.akazukin.service.manager;
 import lombok.AccessLevel;
 import lombok.experimental.FieldDefaults;
 import org.akazukin.annotation.marker.ThreadSafe;
+import org.akazukin.service.cache.CacheSpec;
+import org.akazukin.service.cache.CachingView;
 import org.akazukin.service.data.IBlueprintedServiceHolder;
+import org.akazukin.service.guard.ServiceGuard;
+import org.akazukin.service.guard.ServiceUnavailableException;
+import org.akazukin.service.jfr.ServiceEvents;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
+import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.function.Supplier;
 
 /**
  * A base abstract class that provides the implementation of a service management system.
@@ -23,6 +35,11 @@ import java.util.Objects;
 @ThreadSafe
 public abstract class ABlueprintedServiceManager<T extends IBlueprintedServiceHolder<? extends U>, U> extends ASingleServiceManager<T, U> implements IBlueprintedServiceManager<T, U> {
     public static final String EXCE_INTERFACE_REGISTERED = "An service that associated is already registered; Interface:";
+    public static final String EXCE_INTERFACE_NOT_REGISTERED = "No service is associated with the interface; Interface:";
+
+    Map<Class<? extends U>, ServiceGuard> guards = new ConcurrentHashMap<>();
+    ServiceWaiters interfaceWaiters = new ServiceWaiters();
+    CachingViews cachingViews = new CachingViews();
 
     /**
      * Constructs an instance of AServiceManager with the specified service holder type and service type.
@@ -59,40 +76,217 @@ public abstract class ABlueprintedServiceManager<T extends IBlueprintedServiceHo
     @Override
     @SuppressWarnings("unchecked")
     public <U2 extends U> U2 getServiceByInterface(@NotNull final Class<U2> service) {
-        return (U2) this.services.stream()
+        final Object event = ServiceEvents.beginLookup();
+        final U2 impl = (U2) this.services.stream()
                 .filter(s -> Objects.equals(s.getInterfaceClass(), service))
                 .findFirst()
                 .map(IBlueprintedServiceHolder::getImplementation)
                 .orElse(null);
+        ServiceEvents.endLookup(event, this, ServiceEvents.LOOKUP_SERVICE_BY_INTERFACE, service, impl != null);
+        return impl;
     }
 
     @Override
     public <U2 extends U> void registerService(@Nullable final Class<U2> service, @NotNull final U2 serviceImpl) {
         if (service == null) {
             this.registerService(serviceImpl);
-        } else {
+            return;
+        }
+
+        final Object event = ServiceEvents.beginRegistration();
+        this.lock("registerService");
+        try {
             if (this.services.stream()
                     .anyMatch(s -> Objects.equals(s.getInterfaceClass(), service))) {
                 throw new IllegalStateException(EXCE_INTERFACE_REGISTERED + service.getName());
             }
             if (this.services.stream()
-                    .anyMatch(s -> Objects.equals(s.getImplementation().getClass(), serviceImpl.getClass()))) {
+                    .anyMatch(s -> Objects.equals(s.getImplementationClass(), serviceImpl.getClass()))) {
                 throw new IllegalStateException(ASingleServiceManager.EXCE_IMPL_REGISTERED + serviceImpl.getClass().getName());
             }
-            this.services.add(this.createServiceHolder(service, serviceImpl));
+            this.addServiceHolder(this.createServiceHolder(service, serviceImpl));
+        } finally {
+            this.unlock();
+        }
+        ServiceEvents.endRegistration(event, this, true, serviceImpl.getClass(), service);
+    }
+
+    @Override
+    public <U2 extends U> void registerEvictableService(@Nullable final Class<U2> service, @NotNull final Class<? extends U2> serviceImpl,
+                                                        @NotNull final Supplier<? extends U2> factory,
+                                                        final long idleTimeout, @NotNull final TimeUnit unit) {
+        final Object event = ServiceEvents.beginRegistration();
+        this.lock("registerEvictableService");
+        try {
+            if (service != null && this.services.stream()
+                    .anyMatch(s -> Objects.equals(s.getInterfaceClass(), service))) {
+                throw new IllegalStateException(EXCE_INTERFACE_REGISTERED + service.getName());
+            }
+            if (this.services.stream()
+                    .anyMatch(s -> Objects.equals(s.getImplementationClass(), serviceImpl))) {
+                throw new IllegalStateException(ASingleServiceManager.EXCE_IMPL_REGISTERED + serviceImpl.getName());
+            }
+            this.addEvictableServiceHolder(this.createEvictableServiceHolder(service, serviceImpl, factory, unit.toNanos(idleTimeout)));
+        } finally {
+            this.unlock();
         }
+        ServiceEvents.endRegistration(event, this, true, serviceImpl, service);
     }
 
     @Override
     public void unregisterServiceByInterface(@NotNull final Class<? extends U> service) {
-        this.services.removeIf(h -> Objects.equals(h.getInterfaceClass(), service));
+        final Object event = ServiceEvents.beginRegistration();
+        this.lock("unregisterServiceByInterface");
+        try {
+            this.removeServiceHolders(h -> Objects.equals(h.getInterfaceClass(), service));
+        } finally {
+            this.unlock();
+        }
+        ServiceEvents.endRegistration(event, this, false, null, service);
+    }
+
+    @Override
+    public <U2 extends U> ServiceLease<U2> acquireByInterface(@NotNull final Class<U2> service) {
+        return this.acquireLease(() -> this.getServiceHolderByInterface(service));
+    }
+
+    @Override
+    public @NotNull CompletableFuture<Void> unregisterAndDrainByInterface(@NotNull final Class<? extends U> service) {
+        final Object event = ServiceEvents.beginRegistration();
+        final CompletableFuture<Void> drained;
+        this.lock("unregisterAndDrainByInterface");
+        try {
+            drained = this.drainServiceHolders(h -> Objects.equals(h.getInterfaceClass(), service));
+        } finally {
+            this.unlock();
+        }
+        ServiceEvents.endRegistration(event, this, false, null, service);
+        return drained;
     }
 
     @Override
     public T getServiceHolderByInterface(@NotNull final Class<? extends U> service) {
-        return this.services.stream()
+        final Object event = ServiceEvents.beginLookup();
+        final T holder = this.services.stream()
                 .filter(s -> Objects.equals(s.getInterfaceClass(), service))
                 .findFirst()
                 .orElse(null);
+        ServiceEvents.endLookup(event, this, ServiceEvents.LOOKUP_HOLDER_BY_INTERFACE, service, holder != null);
+        return holder;
+    }
+
+    /**
+     * Retrieves the service holder associated with the specified interface, which must be registered.
+     *
+     * @param service the class object representing the interface type of the service.
+     *                Must not be {@code null}.
+     * @return the service holder associated with the interface.
+     * Must not be {@code null}.
+     * @throws IllegalStateException if no service is associated with the interface.
+     */
+    @NotNull
+    protected T requireServiceHolderByInterface(@NotNull final Class<? extends U> service) {
+        final T holder = this.getServiceHolderByInterface(service);
+        if (holder == null) {
+            throw new IllegalStateException(EXCE_INTERFACE_NOT_REGISTERED + service.getName());
+        }
+        return holder;
+    }
+
+    @Override
+    public void setServiceGuard(@NotNull final Class<? extends U> service, @Nullable final ServiceGuard guard) {
+        if (guard == null) {
+            this.guards.remove(service);
+        } else {
+            this.guards.put(service, guard);
+        }
+    }
+
+    @Override
+    public ServiceGuard getServiceGuard(@NotNull final Class<? extends U> service) {
+        return this.guards.get(service);
+    }
+
+    @Override
+    public <U2 extends U, R> R callService(@NotNull final Class<U2> service, @NotNull final Function<? super U2, ? extends R> call) {
+        final U2 impl = this.getServiceByInterface(service);
+        if (impl == null) {
+            throw new ServiceUnavailableException(EXCE_INTERFACE_NOT_REGISTERED + service.getName());
+        }
+
+        final ServiceGuard guard = this.guards.get(service);
+        if (guard == null) {
+            return call.apply(impl);
+        }
+        return guard.call(impl, call);
+    }
+
+    @Override
+    public <U2 extends U> CompletableFuture<U2> awaitServiceByInterface(@NotNull final Class<U2> service) {
+        return this.awaitServiceByInterface(service, null, 0, TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public <U2 extends U> CompletableFuture<U2> awaitServiceByInterface(@NotNull final Class<U2> service, @Nullable final Executor executor,
+                                                                        final long timeout, @NotNull final TimeUnit unit) {
+        this.lock("awaitServiceByInterface");
+        try {
+            final U2 impl = this.getServiceByInterface(service);
+            if (impl != null) {
+                return CompletableFuture.completedFuture(impl);
+            }
+            return this.interfaceWaiters.add(service, executor, timeout, unit);
+        } finally {
+            this.unlock();
+        }
+    }
+
+    @Override
+    public <U2 extends U> U2 cachingView(@NotNull final Class<U2> service, @NotNull final CacheSpec spec) {
+        final CachingView<U2> view = new CachingView<>(service, spec, () -> this.getServiceByInterface(service));
+        this.cachingViews.register(service, view);
+        return view.getProxy();
+    }
+
+    /**
+     * Invalidates the caching views of the specified interface.
+     *
+     * @param service the interface of the service which has been registered or unregistered.
+     *                Must not be {@code null}.
+     */
+    protected void invalidateCachingViews(@NotNull final Class<?> service) {
+        this.cachingViews.invalidate(service);
+    }
+
+    @Override
+    public @NotNull IBlueprintedServiceManager<T, U> freeze() {
+        this.lock("freeze");
+        try {
+            return new FrozenBlueprintedServiceManager<>(this.serviceHolderType, this.serviceType, this.getAllServiceHolders(),
+                    this.pools, this.guards);
+        } finally {
+            this.unlock();
+        }
+    }
+
+    @Override
+    protected void onServiceRegistered(@NotNull final T holder) {
+        final Class<?> service = holder.getInterfaceClass();
+        if (service != null) {
+            this.invalidateCachingViews(service);
+        }
+        super.onServiceRegistered(holder);
+        if (service != null) {
+            this.interfaceWaiters.publish(service, () -> holder.getImplementation());
+        }
+    }
+
+    @Override
+    protected void onServiceUnregistered(@NotNull final T holder) {
+        super.onServiceUnregistered(holder);
+        final Class<?> service = holder.getInterfaceClass();
+        if (service != null) {
+            this.invalidateCachingViews(service);
+        }
     }
 }
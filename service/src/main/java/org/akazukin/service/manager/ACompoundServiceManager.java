@@ -4,11 +4,13 @@ import lombok.AccessLevel;
 import lombok.experimental.FieldDefaults;
 import org.akazukin.annotation.marker.ThreadSafe;
 import org.akazukin.service.data.ICompoundServiceHolder;
+import org.akazukin.service.jfr.ServiceEvents;
 import org.akazukin.util.utils.ArrayUtils;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
 import java.util.Objects;
+import java.util.Optional;
 
 /**
  * An abstract implementation of a compound service manager that manages services and their associated data.
@@ -44,32 +46,34 @@ public abstract class ACompoundServiceManager<T extends ICompoundServiceHolder<?
 
     @Override
     public V getDataByImplementation(final Class<? extends U> service) {
-        return this.services.stream()
-                .filter(s -> Objects.equals(s.getImplementation().getClass(), service))
-                .findFirst()
-                .map(ICompoundServiceHolder::getData)
-                .orElse(null);
+        final Object event = ServiceEvents.beginLookup();
+        final Optional<T> holder = this.services.stream()
+                .filter(s -> Objects.equals(s.getImplementationClass(), service))
+                .findFirst();
+        ServiceEvents.endLookup(event, this, ServiceEvents.LOOKUP_DATA_BY_IMPLEMENTATION, service, holder.isPresent());
+        return holder.map(ICompoundServiceHolder::getData).orElse(null);
     }
 
     @Override
     public V getDataByService(final @NotNull U service) {
-        return this.services.stream()
-                .filter(s -> s.getImplementation() == service)
-                .findFirst()
-                .map(ICompoundServiceHolder::getData)
-                .orElse(null);
+        final Object event = ServiceEvents.beginLookup();
+        final Optional<T> holder = this.services.stream()
+                .filter(s -> holdsService(s, service))
+                .findFirst();
+        ServiceEvents.endLookup(event, this, ServiceEvents.LOOKUP_DATA_BY_SERVICE, service.getClass(), holder.isPresent());
+        return holder.map(ICompoundServiceHolder::getData).orElse(null);
     }
 
     @Override
     public V[] getAllData() {
-        return this.services.stream()
+        return this.scanHolders()
                 .map(ICompoundServiceHolder::getData)
                 .toArray(ArrayUtils.collectToArray(this.dataType));
     }
 
     @Override
     public T[] getServiceHolderByData(@Nullable final V data) {
-        return this.services.stream()
+        return this.scanHolders()
                 .filter(s -> Objects.equals(s.getData(), data))
                 .toArray(ArrayUtils.collectToArray(this.serviceHolderType));
     }
@@ -2,14 +2,36 @@ package org.akazukin.service.manager;
 
 import lombok.AccessLevel;
 import lombok.experimental.FieldDefaults;
+import lombok.experimental.NonFinal;
 import org.akazukin.annotation.marker.ThreadSafe;
+import org.akazukin.service.data.IEvictableServiceHolder;
 import org.akazukin.service.data.IServiceHolder;
+import org.akazukin.service.jfr.ServiceEvents;
+import org.akazukin.service.pool.ServicePool;
 import org.akazukin.util.utils.ArrayUtils;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
-import java.util.HashSet;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
  * A base abstract class that provides the implementation of a service management system.
@@ -17,6 +39,15 @@ import java.util.Set;
  * implementation, or holders.
  * <p>
  * The service manager is thread-safe and can be used in multithreaded environments.
+ * Mutators are serialized on the lock of the manager,
+ * while lookups iterate over an immutable snapshot of the services without locking.
+ * The snapshot is also kept as an array, rebuilt by every mutator, which backs the streams of the manager.
+ * Evictable services are released by a background sweeper once idle and no longer leased,
+ * and the lookups by class never create a released implementation.
+ * Each registered service counts its open leases on a counter striped once contended,
+ * so leases are acquired and closed without locking and an unregistration can wait for them to be closed.
+ * Registrations, slow or missed lookups and contended mutators are reported as JFR events
+ * when JFR is present, see {@link ServiceEvents}.
  *
  * @param <T> The type of the service holder, which extends {@link org.akazukin.service.data.IBlueprintedServiceHolder}.
  * @param <U> The type of the service object managed by this service manager.
@@ -25,10 +56,28 @@ import java.util.Set;
 @ThreadSafe
 public abstract class ASingleServiceManager<T extends IServiceHolder<? extends U>, U> implements IServiceManager<T, U> {
     public static final String EXCE_IMPL_REGISTERED = "The service is already registered; Implementation:";
+    public static final String EXCE_NOT_REGISTERED = "The service is not registered; Class:";
+    public static final String EXCE_EVICTION_UNSUPPORTED = "The service manager does not support evictable services; Manager:";
+    public static final String EXCE_POOL_REGISTERED = "A pool is already registered for the service; Class:";
+    public static final String EXCE_POOL_NOT_REGISTERED = "No pool is registered for the service; Class:";
+    public static final int DEFAULT_PARALLEL_THRESHOLD = 8192;
 
-    Set<T> services = new HashSet<>();
+    Set<T> services = new CopyOnWriteArraySet<>();
+    ReentrantLock mutatorLock = new ReentrantLock();
+    ServiceWaiters implementationWaiters = new ServiceWaiters();
+    Map<Class<? extends U>, ServicePool<? extends U>> pools = new ConcurrentHashMap<>();
+    List<IServiceListener<? super T>> listeners = new CopyOnWriteArrayList<>();
+    Map<T, LeaseCounter> leases = new ConcurrentHashMap<>();
     Class<T> serviceHolderType;
     Class<U> serviceType;
+    @NonFinal
+    volatile T[] snapshot;
+    @NonFinal
+    volatile int parallelThreshold = DEFAULT_PARALLEL_THRESHOLD;
+    @NonFinal
+    ScheduledFuture<?> sweeper;
+    @NonFinal
+    long sweepPeriod;
 
     /**
      * Constructs an instance of AServiceManager with the specified service holder type and service type.
@@ -41,25 +90,36 @@ public abstract class ASingleServiceManager<T extends IServiceHolder<? extends U
     public ASingleServiceManager(@NotNull final Class<T> serviceHolderType, @NotNull final Class<U> serviceType) {
         this.serviceHolderType = serviceHolderType;
         this.serviceType = serviceType;
+        this.snapshot = ArrayUtils.getNewArray(serviceHolderType, 0);
     }
 
     @Override
     @SuppressWarnings("unchecked")
     public <U2 extends U> U2 getServiceByImplementation(@NotNull final Class<U2> service) {
-        return (U2) this.services.stream()
-                .map(IServiceHolder::getImplementation)
-                .filter(s -> Objects.equals(s.getClass(), service))
+        final Object event = ServiceEvents.beginLookup();
+        final U2 impl = (U2) this.services.stream()
+                .filter(s -> Objects.equals(s.getImplementationClass(), service))
                 .findFirst()
+                .map(IServiceHolder::getImplementation)
                 .orElse(null);
+        ServiceEvents.endLookup(event, this, ServiceEvents.LOOKUP_SERVICE_BY_IMPLEMENTATION, service, impl != null);
+        return impl;
     }
 
     @Override
-    public synchronized void registerService(final @NotNull U serviceImpl) {
-        if (this.services.stream()
-                .anyMatch(s -> Objects.equals(s.getImplementation().getClass(), serviceImpl.getClass()))) {
-            throw new IllegalStateException(EXCE_IMPL_REGISTERED + serviceImpl.getClass().getName());
+    public void registerService(final @NotNull U serviceImpl) {
+        final Object event = ServiceEvents.beginRegistration();
+        this.lock("registerService");
+        try {
+            if (this.services.stream()
+                    .anyMatch(s -> Objects.equals(s.getImplementationClass(), serviceImpl.getClass()))) {
+                throw new IllegalStateException(EXCE_IMPL_REGISTERED + serviceImpl.getClass().getName());
+            }
+            this.addServiceHolder(this.createServiceHolder(serviceImpl));
+        } finally {
+            this.unlock();
         }
-        this.services.add(this.createServiceHolder(serviceImpl));
+        ServiceEvents.endRegistration(event, this, true, serviceImpl.getClass(), null);
     }
 
     @Override
@@ -71,34 +131,220 @@ public abstract class ASingleServiceManager<T extends IServiceHolder<? extends U
     }
 
     @Override
-    public synchronized void unregisterService(@NotNull final U serviceImpl) {
-        this.services.removeIf(h -> h.getImplementation() == serviceImpl);
+    public void unregisterService(@NotNull final U serviceImpl) {
+        final Object event = ServiceEvents.beginRegistration();
+        this.lock("unregisterService");
+        try {
+            this.removeServiceHolders(h -> holdsService(h, serviceImpl));
+        } finally {
+            this.unlock();
+        }
+        ServiceEvents.endRegistration(event, this, false, serviceImpl.getClass(), null);
+    }
+
+    @Override
+    public void unregisterServiceByImplementation(@NotNull final Class<? extends U> serviceImpl) {
+        final Object event = ServiceEvents.beginRegistration();
+        this.lock("unregisterServiceByImplementation");
+        try {
+            this.removeServiceHolders(h -> Objects.equals(h.getImplementationClass(), serviceImpl));
+        } finally {
+            this.unlock();
+        }
+        ServiceEvents.endRegistration(event, this, false, serviceImpl, null);
     }
 
     @Override
-    public synchronized void unregisterServiceByImplementation(@NotNull final Class<? extends U> serviceImpl) {
-        this.services.removeIf(h -> Objects.equals(h.getImplementation().getClass(), serviceImpl));
+    public <U2 extends U> ServiceLease<U2> acquire(@NotNull final Class<U2> serviceImpl) {
+        return this.acquireLease(() -> this.getServiceHolderByImplementation(serviceImpl));
+    }
+
+    @Override
+    public @NotNull CompletableFuture<Void> unregisterAndDrain(@NotNull final Class<? extends U> serviceImpl) {
+        final Object event = ServiceEvents.beginRegistration();
+        final CompletableFuture<Void> drained;
+        this.lock("unregisterAndDrain");
+        try {
+            drained = this.drainServiceHolders(h -> Objects.equals(h.getImplementationClass(), serviceImpl));
+        } finally {
+            this.unlock();
+        }
+        ServiceEvents.endRegistration(event, this, false, serviceImpl, null);
+        return drained;
+    }
+
+    /**
+     * Acquires a lease on the service holder returned by the specified lookup.
+     * If the holder is unregistered before the lease is counted, the lookup is repeated.
+     *
+     * @param <U2>   the type of the service
+     * @param lookup the lookup of the service holder, returning {@code null} if it is not registered.
+     *               Must not be {@code null}.
+     * @return an open lease on the service, or {@code null} if the lookup returned {@code null}.
+     */
+    @Nullable
+    @SuppressWarnings("unchecked")
+    protected <U2 extends U> ServiceLease<U2> acquireLease(@NotNull final Supplier<? extends T> lookup) {
+        while (true) {
+            final T holder = lookup.get();
+            if (holder == null) {
+                return null;
+            }
+            final LeaseCounter counter = this.leases.get(holder);
+            final int stripe = counter == null ? -1 : counter.acquire();
+            if (stripe >= 0) {
+                return new ServiceLease<>((U2) holder.getImplementation(), counter, stripe);
+            }
+        }
+    }
+
+    /**
+     * Removes all the service holders matching the specified filter like {@link #removeServiceHolders(Predicate)},
+     * and collects the completion of their leases.
+     * Must be called while holding the lock of this manager.
+     *
+     * @param filter the filter selecting the service holders to remove.
+     *               Must not be {@code null}.
+     * @return a future completed once every lease on the removed service holders is closed.
+     * Must not be {@code null}.
+     */
+    @NotNull
+    protected CompletableFuture<Void> drainServiceHolders(@NotNull final Predicate<? super T> filter) {
+        final List<CompletableFuture<Void>> drained = new ArrayList<>();
+        for (final T holder : this.services) {
+            final LeaseCounter counter = filter.test(holder) ? this.leases.get(holder) : null;
+            if (counter != null) {
+                drained.add(counter.getDrained());
+            }
+        }
+        this.removeServiceHolders(filter);
+        return CompletableFuture.allOf(drained.toArray(new CompletableFuture<?>[0]));
     }
 
     @Override
     public T[] getAllServiceHolders() {
-        return this.services.toArray(ArrayUtils.getNewArray(this.serviceHolderType, 0));
+        return this.snapshot.clone();
+    }
+
+    @Override
+    public @NotNull Stream<U> streamServices() {
+        return this.streamHolders().map(IServiceHolder::getImplementation);
+    }
+
+    @Override
+    public @NotNull Stream<T> streamHolders() {
+        return StreamSupport.stream(Spliterators.spliterator(this.snapshot,
+                Spliterator.IMMUTABLE | Spliterator.ORDERED | Spliterator.NONNULL), false);
+    }
+
+    /**
+     * Creates a stream over the snapshot of the service holders for a full scan,
+     * which runs in parallel if the number of services reaches the parallel threshold.
+     *
+     * @return a stream of the service holders currently registered.
+     * Must not be {@code null}.
+     */
+    @NotNull
+    protected Stream<T> scanHolders() {
+        final Stream<T> stream = this.streamHolders();
+        return this.snapshot.length >= this.parallelThreshold ? stream.parallel() : stream;
+    }
+
+    /**
+     * Sets the number of registered services from which full scans run in parallel on the common pool.
+     *
+     * @param threshold the minimum number of services for a parallel scan.
+     *                  Must be positive.
+     * @throws IllegalArgumentException if the threshold is not positive.
+     */
+    public void setParallelThreshold(final int threshold) {
+        if (threshold <= 0) {
+            throw new IllegalArgumentException("The parallel threshold must be positive");
+        }
+        this.parallelThreshold = threshold;
+    }
+
+    /**
+     * Retrieves the number of registered services from which full scans run in parallel.
+     *
+     * @return the minimum number of services for a parallel scan.
+     */
+    public int getParallelThreshold() {
+        return this.parallelThreshold;
     }
 
     @Override
     public T getServiceHolderByImplementation(@NotNull final Class<? extends U> service) {
-        return this.services.stream()
-                .filter(s -> Objects.equals(s.getImplementation().getClass(), service))
+        final Object event = ServiceEvents.beginLookup();
+        final T holder = this.services.stream()
+                .filter(s -> Objects.equals(s.getImplementationClass(), service))
                 .findFirst()
                 .orElse(null);
+        ServiceEvents.endLookup(event, this, ServiceEvents.LOOKUP_HOLDER_BY_IMPLEMENTATION, service, holder != null);
+        return holder;
     }
 
     @Override
     public T getServiceHolderByService(@NotNull final U service) {
-        return this.services.stream()
-                .filter(s -> s.getImplementation() == service)
+        final Object event = ServiceEvents.beginLookup();
+        final T holder = this.services.stream()
+                .filter(s -> holdsService(s, service))
                 .findFirst()
                 .orElse(null);
+        ServiceEvents.endLookup(event, this, ServiceEvents.LOOKUP_HOLDER_BY_SERVICE, service.getClass(), holder != null);
+        return holder;
+    }
+
+    /**
+     * Checks whether the specified holder holds the specified service.
+     * An evictable holder also matches the instances of its implementation class it has released,
+     * as the holder does not keep them to compare.
+     *
+     * @param holder  the service holder to check.
+     *                Must not be {@code null}.
+     * @param service the instance of the service.
+     *                Must not be {@code null}.
+     * @return {@code true} if the holder holds the service.
+     */
+    static boolean holdsService(@NotNull final IServiceHolder<?> holder, @NotNull final Object service) {
+        return holder.peekImplementation() == service
+                || holder instanceof IEvictableServiceHolder && holder.getImplementationClass() == service.getClass();
+    }
+
+    /**
+     * Retrieves the service holder of the specified service, which must be registered.
+     *
+     * @param service the instance of the service.
+     *                Must not be {@code null}.
+     * @return the service holder of the service.
+     * Must not be {@code null}.
+     * @throws IllegalStateException if the service is not registered.
+     */
+    @NotNull
+    protected T requireServiceHolder(@NotNull final U service) {
+        final T holder = this.getServiceHolderByService(service);
+        if (holder == null) {
+            throw new IllegalStateException(EXCE_NOT_REGISTERED + service.getClass().getName());
+        }
+        return holder;
+    }
+
+    /**
+     * Retrieves the service holder of the specified implementation class, which must be registered.
+     *
+     * @param service the class object representing the implementation of the service.
+     *                Must not be {@code null}.
+     * @return the service holder of the implementation class.
+     * Must not be {@code null}.
+     * @throws IllegalStateException if no service of the implementation class is registered.
+     */
+    @NotNull
+    protected T requireServiceHolderByImplementation(@NotNull final Class<? extends U> service) {
+        final T holder = this.getServiceHolderByImplementation(service);
+        if (holder == null) {
+            throw new IllegalStateException(EXCE_NOT_REGISTERED + service.getName());
+        }
+        return holder;
     }
 
     /**
@@ -111,4 +357,302 @@ public abstract class ASingleServiceManager<T extends IServiceHolder<? extends U
      */
     @NotNull
     protected abstract T createServiceHolder(final @NotNull U serviceImpl);
+
+    @Override
+    public <U2 extends U> CompletableFuture<U2> awaitServiceByImplementation(@NotNull final Class<U2> service) {
+        return this.awaitServiceByImplementation(service, null, 0, TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public <U2 extends U> CompletableFuture<U2> awaitServiceByImplementation(@NotNull final Class<U2> service, @Nullable final Executor executor,
+                                                                             final long timeout, @NotNull final TimeUnit unit) {
+        this.lock("awaitServiceByImplementation");
+        try {
+            final U2 impl = this.getServiceByImplementation(service);
+            if (impl != null) {
+                return CompletableFuture.completedFuture(impl);
+            }
+            return this.implementationWaiters.add(service, executor, timeout, unit);
+        } finally {
+            this.unlock();
+        }
+    }
+
+    @Override
+    public <U2 extends U> void registerEvictableService(@NotNull final Class<U2> serviceImpl, @NotNull final Supplier<? extends U2> factory,
+                                                        final long idleTimeout, @NotNull final TimeUnit unit) {
+        final Object event = ServiceEvents.beginRegistration();
+        this.lock("registerEvictableService");
+        try {
+            if (this.services.stream()
+                    .anyMatch(s -> Objects.equals(s.getImplementationClass(), serviceImpl))) {
+                throw new IllegalStateException(EXCE_IMPL_REGISTERED + serviceImpl.getName());
+            }
+            this.addEvictableServiceHolder(this.createEvictableServiceHolder(null, serviceImpl, factory, unit.toNanos(idleTimeout)));
+        } finally {
+            this.unlock();
+        }
+        ServiceEvents.endRegistration(event, this, true, serviceImpl, null);
+    }
+
+    /**
+     * Creates a service holder releasing its implementation once idle.
+     * Managers supporting evictable services override this method, the default implementation rejects them.
+     *
+     * @param <U2>        The type of the service, which must extend {@link U}.
+     * @param service     The class object representing the service's interface.
+     *                    Can be {@code null} if there is no associated interface.
+     * @param serviceImpl The class of the instances created by the factory.
+     *                    Must not be {@code null}.
+     * @param factory     The factory creating the implementation.
+     *                    Must not be {@code null}.
+     * @param idleTimeout The time in nanoseconds after which an unused implementation is released.
+     * @return A newly created service holder of type {@link T} implementing {@link IEvictableServiceHolder}.
+     * Must not be {@code null}.
+     * @throws UnsupportedOperationException if this manager does not support evictable services.
+     */
+    @NotNull
+    protected <U2 extends U> T createEvictableServiceHolder(@Nullable final Class<U2> service, @NotNull final Class<? extends U2> serviceImpl,
+                                                            @NotNull final Supplier<? extends U2> factory, final long idleTimeout) {
+        throw new UnsupportedOperationException(EXCE_EVICTION_UNSUPPORTED + this.getClass().getName());
+    }
+
+    /**
+     * Adds an evictable service holder and makes sure the sweeper runs often enough for its idle timeout.
+     * Must be called while holding the lock of this manager.
+     *
+     * @param holder the evictable service holder to add.
+     *               Must not be {@code null}.
+     */
+    protected void addEvictableServiceHolder(@NotNull final T holder) {
+        this.addServiceHolder(holder);
+        final long period = Math.max(((IEvictableServiceHolder<?>) holder).getIdleTimeout() / 2, TimeUnit.MILLISECONDS.toNanos(1));
+        if (this.sweeper == null || period < this.sweepPeriod) {
+            if (this.sweeper != null) {
+                this.sweeper.cancel(false);
+            }
+            this.sweeper = ServiceSweeper.schedule(this, period);
+            this.sweepPeriod = period;
+        }
+    }
+
+    /**
+     * Releases the implementations of the evictable services which have been idle for longer than their idle timeout.
+     * A service with an open lease is never released, however long ago the lease was acquired.
+     * Called periodically by the sweeper once an evictable service is registered.
+     *
+     * @return the number of released implementations.
+     */
+    public int evictIdleServices() {
+        final long now = System.nanoTime();
+        int evicted = 0;
+        for (final T holder : this.snapshot) {
+            if (!(holder instanceof IEvictableServiceHolder)) {
+                continue;
+            }
+            final LeaseCounter counter = this.leases.get(holder);
+            if ((counter == null || !counter.isLeased()) && ((IEvictableServiceHolder<?>) holder).evictIfIdle(now)) {
+                evicted++;
+            }
+        }
+        return evicted;
+    }
+
+    @Override
+    public <U2 extends U> void registerPooledService(@NotNull final Class<U2> service, @NotNull final Supplier<? extends U2> factory,
+                                                     final int minSize, final int maxSize, final long idleTimeout, @NotNull final TimeUnit unit) {
+        this.lock("registerPooledService");
+        try {
+            if (this.pools.containsKey(service)) {
+                throw new IllegalStateException(EXCE_POOL_REGISTERED + service.getName());
+            }
+            this.pools.put(service, new ServicePool<>(factory, minSize, maxSize, idleTimeout, unit));
+        } finally {
+            this.unlock();
+        }
+    }
+
+    @Override
+    public void unregisterPooledService(@NotNull final Class<? extends U> service) {
+        final ServicePool<? extends U> pool;
+        this.lock("unregisterPooledService");
+        try {
+            pool = this.pools.remove(service);
+        } finally {
+            this.unlock();
+        }
+        if (pool != null) {
+            pool.close();
+        }
+    }
+
+    @Override
+    public <U2 extends U> U2 borrowService(@NotNull final Class<U2> service) {
+        return this.getPool(service).borrow();
+    }
+
+    @Override
+    public <U2 extends U> void releaseService(@NotNull final Class<U2> service, @NotNull final U2 serviceImpl) {
+        this.getPool(service).release(serviceImpl);
+    }
+
+    @Override
+    public <U2 extends U, R> R withService(@NotNull final Class<U2> service, @NotNull final Function<? super U2, ? extends R> function) {
+        return this.getPool(service).with(function);
+    }
+
+    @NotNull
+    @SuppressWarnings("unchecked")
+    private <U2 extends U> ServicePool<U2> getPool(@NotNull final Class<U2> service) {
+        final ServicePool<U2> pool = (ServicePool<U2>) this.pools.get(service);
+        if (pool == null) {
+            throw new IllegalStateException(EXCE_POOL_NOT_REGISTERED + service.getName());
+        }
+        return pool;
+    }
+
+    @Override
+    public @NotNull IServiceManager<T, U> freeze() {
+        this.lock("freeze");
+        try {
+            return new FrozenServiceManager<>(this.serviceHolderType, this.serviceType, this.getAllServiceHolders(), this.pools);
+        } finally {
+            this.unlock();
+        }
+    }
+
+    @Override
+    public void addServiceListener(@NotNull final IServiceListener<? super T> listener) {
+        this.lock("addServiceListener");
+        try {
+            this.listeners.add(listener);
+            for (final T holder : this.snapshot) {
+                listener.onServiceRegistered(holder);
+            }
+        } finally {
+            this.unlock();
+        }
+    }
+
+    @Override
+    public void removeServiceListener(@NotNull final IServiceListener<? super T> listener) {
+        this.listeners.remove(listener);
+    }
+
+    /**
+     * Acquires the lock serializing the mutators of this manager.
+     * If the lock is held by another thread, the wait is reported as a JFR event.
+     * Every call must be followed by {@link #unlock()} in a {@code finally} block.
+     *
+     * @param operation the name of the mutator acquiring the lock.
+     *                  Must not be {@code null}.
+     */
+    protected void lock(@NotNull final String operation) {
+        if (!this.mutatorLock.tryLock()) {
+            final Object event = ServiceEvents.beginContention();
+            this.mutatorLock.lock();
+            ServiceEvents.endContention(event, this, operation);
+        }
+        DeferredCompletions.enter();
+    }
+
+    /**
+     * Releases the lock acquired by {@link #lock(String)}.
+     * The futures completed while holding the lock are completed once the thread holds no manager lock,
+     * so the continuations of their callers run outside of the lock, after the listeners were notified.
+     */
+    protected void unlock() {
+        this.mutatorLock.unlock();
+        DeferredCompletions.exit();
+    }
+
+    /**
+     * Adds the specified service holder to the managed services
+     * and notifies {@link #onServiceRegistered(IServiceHolder)} and the listeners.
+     * Must be called while holding the lock of this manager.
+     *
+     * @param holder the service holder to add.
+     *               Must not be {@code null}.
+     */
+    protected void addServiceHolder(@NotNull final T holder) {
+        this.leases.put(holder, new LeaseCounter());
+        this.services.add(holder);
+        this.snapshot = this.services.toArray(ArrayUtils.getNewArray(this.serviceHolderType, 0));
+        this.onServiceRegistered(holder);
+        for (final IServiceListener<? super T> listener : this.listeners) {
+            listener.onServiceRegistered(holder);
+        }
+    }
+
+    /**
+     * Removes all the service holders matching the specified filter
+     * and notifies {@link #onServiceUnregistered(IServiceHolder)} and the listeners for each of them.
+     * All of them are removed, and the snapshot rebuilt once, before the first notification.
+     * Must be called while holding the lock of this manager.
+     *
+     * @param filter the filter selecting the service holders to remove.
+     *               Must not be {@code null}.
+     */
+    protected void removeServiceHolders(@NotNull final Predicate<? super T> filter) {
+        final List<T> removed = new ArrayList<>();
+        if (!this.services.removeIf(h -> filter.test(h) && removed.add(h))) {
+            return;
+        }
+        this.snapshot = this.services.toArray(ArrayUtils.getNewArray(this.serviceHolderType, 0));
+
+        boolean evictable = false;
+        for (final T holder : removed) {
+            final LeaseCounter counter = this.leases.remove(holder);
+            if (counter != null) {
+                counter.drain();
+            }
+            this.onServiceUnregistered(holder);
+            for (final IServiceListener<? super T> listener : this.listeners) {
+                listener.onServiceUnregistered(holder);
+            }
+            evictable |= holder instanceof IEvictableServiceHolder;
+        }
+        if (evictable) {
+            this.cancelIdleSweeper();
+        }
+    }
+
+    /**
+     * Cancels the sweeper once no evictable service is registered anymore.
+     * Must be called while holding the lock of this manager.
+     */
+    private void cancelIdleSweeper() {
+        if (this.sweeper == null) {
+            return;
+        }
+        for (final T holder : this.services) {
+            if (holder instanceof IEvictableServiceHolder) {
+                return;
+            }
+        }
+        this.sweeper.cancel(false);
+        this.sweeper = null;
+        this.sweepPeriod = 0;
+    }
+
+    /**
+     * Called after a service holder has been added to the managed services.
+     * The call is made while holding the lock of this manager.
+     *
+     * @param holder the service holder that has been added.
+     *               Must not be {@code null}.
+     */
+    protected void onServiceRegistered(@NotNull final T holder) {
+        this.implementationWaiters.publish(holder.getImplementationClass(), () -> holder.getImplementation());
+    }
+
+    /**
+     * Called after a service holder has been removed from the managed services.
+     * The call is made while holding the lock of this manager.
+     *
+     * @param holder the service holder that has been removed.
+     *               Must not be {@code null}.
+     */
+    protected void onServiceUnregistered(@NotNull final T holder) {
+    }
 }
@@ -0,0 +1,37 @@
+package org.akazukin.service.manager;
+
+import org.akazukin.annotation.marker.ThreadSafe;
+import org.akazukin.service.data.AttributedServiceHolder;
+import org.akazukin.service.data.IAttributedServiceHolder;
+import org.akazukin.service.data.ServiceAttribute;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Map;
+
+/**
+ * An implementation of the {@link AAttributedServiceManager} class for managing services
+ * with {@link IAttributedServiceHolder} as the holder type.
+ * This class simplifies the process of creating service holders by using a specified type.
+ *
+ * @param <T> The type of the service being managed by this ServiceManager.
+ */
+@ThreadSafe
+public class AttributedServiceManager<T> extends AAttributedServiceManager<IAttributedServiceHolder<? extends T>, T> {
+    /**
+     * Constructs a {@link AttributedServiceManager} instance for managing services of the specified type.
+     * This constructor leverages the {@link IAttributedServiceHolder} class for service holder management.
+     *
+     * @param serviceType The class object representing the type of the service to be managed.
+     *                    Must not be {@code null}.
+     */
+    @SuppressWarnings("unchecked")
+    public AttributedServiceManager(final @NotNull Class<T> serviceType) {
+        super((Class<IAttributedServiceHolder<? extends T>>) (Object) IAttributedServiceHolder.class, serviceType);
+    }
+
+    @Override
+    protected @NotNull IAttributedServiceHolder<? extends T> createServiceHolder(@NotNull final T serviceImpl,
+                                                                                @NotNull final Map<ServiceAttribute<?>, Object> attributes) {
+        return new AttributedServiceHolder<>(serviceImpl, attributes);
+    }
+}
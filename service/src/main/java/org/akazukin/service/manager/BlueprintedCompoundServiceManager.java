@@ -1,8 +1,12 @@
 package org.akazukin.service.manager;
 
 import org.akazukin.annotation.marker.ThreadSafe;
+import org.akazukin.service.data.EvictableCompoundServiceHolder;
 import org.akazukin.service.data.IBlueprintedCompoundServiceHolder;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.function.Supplier;
 
 /**
  * An implementation of the {@link ABlueprintedCompoundServiceManager} class for managing services
@@ -27,4 +31,11 @@ public abstract class BlueprintedCompoundServiceManager<T, U> extends ABlueprint
     public BlueprintedCompoundServiceManager(final @NotNull Class<T> serviceType, @NotNull final Class<U> dataType) {
         super((Class<IBlueprintedCompoundServiceHolder<? extends T, U>>) (Object) IBlueprintedCompoundServiceHolder.class, serviceType, dataType);
     }
+
+    @Override
+    protected <T2 extends T> @NotNull IBlueprintedCompoundServiceHolder<? extends T, U> createEvictableServiceHolder(
+            @Nullable final Class<T2> service, @NotNull final Class<? extends T2> serviceImpl,
+            @NotNull final Supplier<? extends T2> factory, final long idleTimeout) {
+        return new EvictableCompoundServiceHolder<>(service, serviceImpl, factory, idleTimeout);
+    }
 }
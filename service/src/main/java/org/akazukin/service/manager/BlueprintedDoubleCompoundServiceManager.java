@@ -0,0 +1,81 @@
+package org.akazukin.service.manager;
+
+import org.akazukin.annotation.marker.ThreadSafe;
+import org.akazukin.service.data.DoubleServiceHolder;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.OptionalDouble;
+
+/**
+ * A blueprinted service manager associating a {@code double} value with each service, such as a weight or a counter.
+ * The values are kept unboxed in {@link DoubleServiceHolder} and updated atomically,
+ * and the bulk accessors and reductions return primitive results without boxing.
+ * Reductions over registries reaching the parallel threshold run in parallel.
+ *
+ * @param <U> The type of the service being managed by this ServiceManager.
+ */
+@ThreadSafe
+public class BlueprintedDoubleCompoundServiceManager<U> extends ABlueprintedServiceManager<DoubleServiceHolder<? extends U>, U>
+        implements IBlueprintedDoubleCompoundServiceManager<U> {
+    /**
+     * Constructs a {@link BlueprintedDoubleCompoundServiceManager} instance for managing services of the specified type.
+     *
+     * @param serviceType The class object representing the type of the service to be managed.
+     *                    Must not be {@code null}.
+     */
+    @SuppressWarnings("unchecked")
+    public BlueprintedDoubleCompoundServiceManager(@NotNull final Class<U> serviceType) {
+        super((Class<DoubleServiceHolder<? extends U>>) (Object) DoubleServiceHolder.class, serviceType);
+    }
+
+    @Override
+    protected <U2 extends U> @NotNull DoubleServiceHolder<? extends U> createServiceHolder(@Nullable final Class<U2> service, @NotNull final U2 serviceImpl) {
+        return new DoubleServiceHolder<>(service, serviceImpl);
+    }
+
+    @Override
+    public double getDataByInterface(@NotNull final Class<? extends U> service) {
+        return this.requireServiceHolderByInterface(service).getData();
+    }
+
+    @Override
+    public double getDataByImplementation(@NotNull final Class<? extends U> service) {
+        return this.requireServiceHolderByImplementation(service).getData();
+    }
+
+    @Override
+    public double getDataByService(@NotNull final U service) {
+        return this.requireServiceHolder(service).getData();
+    }
+
+    @Override
+    public void setData(@NotNull final U service, final double data) {
+        this.requireServiceHolder(service).setData(data);
+    }
+
+    @Override
+    public double addAndGet(@NotNull final U service, final double delta) {
+        return this.requireServiceHolder(service).addAndGet(delta);
+    }
+
+    @Override
+    public boolean compareAndSet(@NotNull final U service, final double expect, final double update) {
+        return this.requireServiceHolder(service).compareAndSet(expect, update);
+    }
+
+    @Override
+    public double[] getAllData() {
+        return this.scanHolders().mapToDouble(DoubleServiceHolder::getData).toArray();
+    }
+
+    @Override
+    public double sumData() {
+        return this.scanHolders().mapToDouble(DoubleServiceHolder::getData).sum();
+    }
+
+    @Override
+    public OptionalDouble maxData() {
+        return this.scanHolders().mapToDouble(DoubleServiceHolder::getData).max();
+    }
+}
@@ -0,0 +1,81 @@
+package org.akazukin.service.manager;
+
+import org.akazukin.annotation.marker.ThreadSafe;
+import org.akazukin.service.data.IntServiceHolder;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.OptionalInt;
+
+/**
+ * A blueprinted service manager associating a {@code int} value with each service, such as a weight or a counter.
+ * The values are kept unboxed in {@link IntServiceHolder} and updated atomically,
+ * and the bulk accessors and reductions return primitive results without boxing.
+ * Reductions over registries reaching the parallel threshold run in parallel.
+ *
+ * @param <U> The type of the service being managed by this ServiceManager.
+ */
+@ThreadSafe
+public class BlueprintedIntCompoundServiceManager<U> extends ABlueprintedServiceManager<IntServiceHolder<? extends U>, U>
+        implements IBlueprintedIntCompoundServiceManager<U> {
+    /**
+     * Constructs a {@link BlueprintedIntCompoundServiceManager} instance for managing services of the specified type.
+     *
+     * @param serviceType The class object representing the type of the service to be managed.
+     *                    Must not be {@code null}.
+     */
+    @SuppressWarnings("unchecked")
+    public BlueprintedIntCompoundServiceManager(@NotNull final Class<U> serviceType) {
+        super((Class<IntServiceHolder<? extends U>>) (Object) IntServiceHolder.class, serviceType);
+    }
+
+    @Override
+    protected <U2 extends U> @NotNull IntServiceHolder<? extends U> createServiceHolder(@Nullable final Class<U2> service, @NotNull final U2 serviceImpl) {
+        return new IntServiceHolder<>(service, serviceImpl);
+    }
+
+    @Override
+    public int getDataByInterface(@NotNull final Class<? extends U> service) {
+        return this.requireServiceHolderByInterface(service).getData();
+    }
+
+    @Override
+    public int getDataByImplementation(@NotNull final Class<? extends U> service) {
+        return this.requireServiceHolderByImplementation(service).getData();
+    }
+
+    @Override
+    public int getDataByService(@NotNull final U service) {
+        return this.requireServiceHolder(service).getData();
+    }
+
+    @Override
+    public void setData(@NotNull final U service, final int data) {
+        this.requireServiceHolder(service).setData(data);
+    }
+
+    @Override
+    public int addAndGet(@NotNull final U service, final int delta) {
+        return this.requireServiceHolder(service).addAndGet(delta);
+    }
+
+    @Override
+    public boolean compareAndSet(@NotNull final U service, final int expect, final int update) {
+        return this.requireServiceHolder(service).compareAndSet(expect, update);
+    }
+
+    @Override
+    public int[] getAllData() {
+        return this.scanHolders().mapToInt(IntServiceHolder::getData).toArray();
+    }
+
+    @Override
+    public long sumData() {
+        return this.scanHolders().mapToInt(IntServiceHolder::getData).asLongStream().sum();
+    }
+
+    @Override
+    public OptionalInt maxData() {
+        return this.scanHolders().mapToInt(IntServiceHolder::getData).max();
+    }
+}
@@ -0,0 +1,81 @@
+package org.akazukin.service.manager;
+
+import org.akazukin.annotation.marker.ThreadSafe;
+import org.akazukin.service.data.LongServiceHolder;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.OptionalLong;
+
+/**
+ * A blueprinted service manager associating a {@code long} value with each service, such as a weight or a counter.
+ * The values are kept unboxed in {@link LongServiceHolder} and updated atomically,
+ * and the bulk accessors and reductions return primitive results without boxing.
+ * Reductions over registries reaching the parallel threshold run in parallel.
+ *
+ * @param <U> The type of the service being managed by this ServiceManager.
+ */
+@ThreadSafe
+public class BlueprintedLongCompoundServiceManager<U> extends ABlueprintedServiceManager<LongServiceHolder<? extends U>, U>
+        implements IBlueprintedLongCompoundServiceManager<U> {
+    /**
+     * Constructs a {@link BlueprintedLongCompoundServiceManager} instance for managing services of the specified type.
+     *
+     * @param serviceType The class object representing the type of the service to be managed.
+     *                    Must not be {@code null}.
+     */
+    @SuppressWarnings("unchecked")
+    public BlueprintedLongCompoundServiceManager(@NotNull final Class<U> serviceType) {
+        super((Class<LongServiceHolder<? extends U>>) (Object) LongServiceHolder.class, serviceType);
+    }
+
+    @Override
+    protected <U2 extends U> @NotNull LongServiceHolder<? extends U> createServiceHolder(@Nullable final Class<U2> service, @NotNull final U2 serviceImpl) {
+        return new LongServiceHolder<>(service, serviceImpl);
+    }
+
+    @Override
+    public long getDataByInterface(@NotNull final Class<? extends U> service) {
+        return this.requireServiceHolderByInterface(service).getData();
+    }
+
+    @Override
+    public long getDataByImplementation(@NotNull final Class<? extends U> service) {
+        return this.requireServiceHolderByImplementation(service).getData();
+    }
+
+    @Override
+    public long getDataByService(@NotNull final U service) {
+        return this.requireServiceHolder(service).getData();
+    }
+
+    @Override
+    public void setData(@NotNull final U service, final long data) {
+        this.requireServiceHolder(service).setData(data);
+    }
+
+    @Override
+    public long addAndGet(@NotNull final U service, final long delta) {
+        return this.requireServiceHolder(service).addAndGet(delta);
+    }
+
+    @Override
+    public boolean compareAndSet(@NotNull final U service, final long expect, final long update) {
+        return this.requireServiceHolder(service).compareAndSet(expect, update);
+    }
+
+    @Override
+    public long[] getAllData() {
+        return this.scanHolders().mapToLong(LongServiceHolder::getData).toArray();
+    }
+
+    @Override
+    public long sumData() {
+        return this.scanHolders().mapToLong(LongServiceHolder::getData).sum();
+    }
+
+    @Override
+    public OptionalLong maxData() {
+        return this.scanHolders().mapToLong(LongServiceHolder::getData).max();
+    }
+}
@@ -2,10 +2,13 @@ package org.akazukin.service.manager;
 
 import org.akazukin.annotation.marker.ThreadSafe;
 import org.akazukin.service.data.BlueprintedServiceHolder;
+import org.akazukin.service.data.EvictableServiceHolder;
 import org.akazukin.service.data.IBlueprintedServiceHolder;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
+import java.util.function.Supplier;
+
 /**
  * An implementation of the {@link ABlueprintedServiceManager} class for managing services
  * with {@link IBlueprintedServiceHolder} as the holder type.
@@ -31,4 +34,11 @@ public class BlueprintedServiceManager<T> extends ABlueprintedServiceManager<IBl
     protected <T2 extends T> @NotNull IBlueprintedServiceHolder<? extends T> createServiceHolder(final @Nullable Class<T2> service, @NotNull final T2 serviceImpl) {
         return new BlueprintedServiceHolder<>(service, serviceImpl);
     }
+
+    @Override
+    protected <T2 extends T> @NotNull IBlueprintedServiceHolder<? extends T> createEvictableServiceHolder(
+            @Nullable final Class<T2> service, @NotNull final Class<? extends T2> serviceImpl,
+            @NotNull final Supplier<? extends T2> factory, final long idleTimeout) {
+        return new EvictableServiceHolder<>(service, serviceImpl, factory, idleTimeout);
+    }
 }
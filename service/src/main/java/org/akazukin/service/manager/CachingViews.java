@@ -0,0 +1,89 @@
+package org.akazukin.service.manager;
+
+import lombok.AccessLevel;
+import lombok.experimental.FieldDefaults;
+import org.akazukin.annotation.marker.ThreadSafe;
+import org.akazukin.service.cache.CachingView;
+import org.jetbrains.annotations.NotNull;
+
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * A registry of the caching views handed out by a manager, indexed by the interface they cache.
+ * <p>
+ * The views are only weakly referenced, so a view dropped by its caller is not retained by the manager.
+ * The references cleared by the garbage collector are enqueued and forgotten on the next registration or invalidation,
+ * whatever interface they belonged to.
+ */
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+@ThreadSafe
+final class CachingViews {
+    Map<Class<?>, List<ViewReference>> views = new ConcurrentHashMap<>();
+    ReferenceQueue<CachingView<?>> cleared = new ReferenceQueue<>();
+
+    /**
+     * Registers a caching view of the specified interface.
+     *
+     * @param service the interface cached by the view.
+     *                Must not be {@code null}.
+     * @param view    the view to invalidate when a service of the interface is registered or unregistered.
+     *                Must not be {@code null}.
+     */
+    void register(@NotNull final Class<?> service, @NotNull final CachingView<?> view) {
+        this.expunge();
+        final ViewReference ref = new ViewReference(service, view, this.cleared);
+        // Added within the mapping, so a concurrent expunge cannot drop the list after it was looked up
+        this.views.compute(service, (k, l) -> {
+            final List<ViewReference> refs = l == null ? new CopyOnWriteArrayList<>() : l;
+            refs.add(ref);
+            return refs;
+        });
+    }
+
+    /**
+     * Invalidates the caching views of the specified interface.
+     *
+     * @param service the interface of the service which has been registered or unregistered.
+     *                Must not be {@code null}.
+     */
+    void invalidate(@NotNull final Class<?> service) {
+        this.expunge();
+        final List<ViewReference> refs = this.views.get(service);
+        if (refs == null) {
+            return;
+        }
+        for (final ViewReference ref : refs) {
+            final CachingView<?> view = ref.get();
+            if (view != null) {
+                view.invalidate();
+            }
+        }
+    }
+
+    private void expunge() {
+        ViewReference ref;
+        while ((ref = (ViewReference) this.cleared.poll()) != null) {
+            final ViewReference dead = ref;
+            this.views.computeIfPresent(dead.service, (k, l) -> {
+                l.remove(dead);
+                return l.isEmpty() ? null : l;
+            });
+        }
+    }
+
+    @FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+    private static final class ViewReference extends WeakReference<CachingView<?>> {
+        Class<?> service;
+
+        ViewReference(@NotNull final Class<?> service, @NotNull final CachingView<?> view,
+                      @NotNull final ReferenceQueue<CachingView<?>> queue) {
+            super(view, queue);
+            this.service = service;
+        }
+    }
+}
@@ -0,0 +1,226 @@
+package org.akazukin.service.manager;
+
+import lombok.AccessLevel;
+import lombok.experimental.FieldDefaults;
+import org.akazukin.annotation.marker.ThreadSafe;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.ToLongFunction;
+
+/**
+ * An immutable table mapping a fixed set of classes to indexes, built on a minimal perfect hash function.
+ * <p>
+ * Each key is reduced to a 64-bit fingerprint combining its identity hash and the hash of its name,
+ * since identity hashes alone are not unique.
+ * The keys are spread over buckets by a first hash of their fingerprints, and each bucket is assigned a displacement seed
+ * so that a second hash sends all of its keys to distinct slots, following the hash-and-displace scheme.
+ * Buckets holding a single key store the slot directly instead of a seed.
+ * Keys which cannot be separated, because their fingerprints collide or no seed is found for their bucket,
+ * are kept in a small overflow array compared by identity.
+ * The table has exactly one slot per key, and a lookup costs two hashes and a single key comparison
+ * without any lock or volatile read, plus a scan of the overflow array on a miss if any key overflowed.
+ */
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+@ThreadSafe
+final class ClassTable {
+    private static final int KEYS_PER_BUCKET = 4;
+    private static final int MAX_SEED_TRIALS = 1 << 16;
+
+    ToLongFunction<Class<?>> fingerprint;
+    int[] displacements;
+    Class<?>[] keys;
+    int[] values;
+    Class<?>[] overflowKeys;
+    int[] overflowValues;
+
+    /**
+     * Builds a table mapping each key to the value at the same position.
+     *
+     * @param keys   the distinct classes to map.
+     *               Must not be {@code null} nor contain {@code null}.
+     * @param values the values of the keys, at the same positions.
+     *               Must not be {@code null}.
+     */
+    ClassTable(@NotNull final Class<?>[] keys, @NotNull final int[] values) {
+        this(keys, values, ClassTable::fingerprint);
+    }
+
+    /**
+     * Builds a table mapping each key to the value at the same position, with the specified fingerprint function.
+     *
+     * @param keys        the distinct classes to map.
+     *                    Must not be {@code null} nor contain {@code null}.
+     * @param values      the values of the keys, at the same positions.
+     *                    Must not be {@code null}.
+     * @param fingerprint the function reducing a key to its fingerprint.
+     *                    Must not be {@code null}.
+     */
+    ClassTable(@NotNull final Class<?>[] keys, @NotNull final int[] values, @NotNull final ToLongFunction<Class<?>> fingerprint) {
+        this.fingerprint = fingerprint;
+        final int n = keys.length;
+        final long[] fingerprints = new long[n];
+        final Map<Long, Integer> occurrences = new HashMap<>();
+        for (int i = 0; i < n; i++) {
+            fingerprints[i] = fingerprint.applyAsLong(keys[i]);
+            occurrences.merge(fingerprints[i], 1, Integer::sum);
+        }
+
+        final List<Integer> overflow = new ArrayList<>();
+        final int bucketCount = Math.max(1, (n + KEYS_PER_BUCKET - 1) / KEYS_PER_BUCKET);
+        final List<List<Integer>> buckets = new ArrayList<>(bucketCount);
+        for (int i = 0; i < bucketCount; i++) {
+            buckets.add(new ArrayList<>());
+        }
+        for (int i = 0; i < n; i++) {
+            if (occurrences.get(fingerprints[i]) > 1) {
+                overflow.add(i);
+            } else {
+                buckets.get(reduce(hash(fingerprints[i], 0), bucketCount)).add(i);
+            }
+        }
+
+        final Integer[] order = new Integer[bucketCount];
+        for (int i = 0; i < bucketCount; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, (a, b) -> buckets.get(b).size() - buckets.get(a).size());
+
+        this.displacements = new int[bucketCount];
+        this.keys = new Class<?>[n];
+        this.values = new int[n];
+        final boolean[] occupied = new boolean[n];
+        final int[] slots = new int[KEYS_PER_BUCKET * 4];
+        int free = 0;
+        for (final int b : order) {
+            final List<Integer> bucket = buckets.get(b);
+            if (bucket.isEmpty()) {
+                break;
+            }
+            if (bucket.size() == 1) {
+                while (occupied[free]) {
+                    free++;
+                }
+                this.place(bucket.get(0), free, keys, values, occupied);
+                this.displacements[b] = -free - 1;
+                continue;
+            }
+            final int seed = this.findSeed(bucket, keys, fingerprints, values, occupied,
+                    bucket.size() <= slots.length ? slots : new int[bucket.size()]);
+            if (seed == 0) {
+                overflow.addAll(bucket);
+            }
+            this.displacements[b] = seed;
+        }
+
+        this.overflowKeys = new Class<?>[overflow.size()];
+        this.overflowValues = new int[overflow.size()];
+        for (int i = 0; i < overflow.size(); i++) {
+            this.overflowKeys[i] = keys[overflow.get(i)];
+            this.overflowValues[i] = values[overflow.get(i)];
+        }
+    }
+
+    /**
+     * Builds a table from the specified mappings.
+     *
+     * @param mappings the classes and their values.
+     *                 Must not be {@code null}.
+     * @return the table.
+     * Must not be {@code null}.
+     */
+    @NotNull
+    static ClassTable of(@NotNull final Map<Class<?>, Integer> mappings) {
+        final Class<?>[] keys = new Class<?>[mappings.size()];
+        final int[] values = new int[mappings.size()];
+        int i = 0;
+        for (final Map.Entry<Class<?>, Integer> entry : mappings.entrySet()) {
+            keys[i] = entry.getKey();
+            values[i++] = entry.getValue();
+        }
+        return new ClassTable(keys, values);
+    }
+
+    private static long fingerprint(@NotNull final Class<?> key) {
+        return (long) System.identityHashCode(key) << 32 | key.getName().hashCode() & 0xFFFFFFFFL;
+    }
+
+    private static int hash(final long fingerprint, final int seed) {
+        long h = fingerprint ^ seed * 0x9E3779B97F4A7C15L;
+        h = (h ^ h >>> 33) * 0xFF51AFD7ED558CCDL;
+        h = (h ^ h >>> 33) * 0xC4CEB9FE1A85EC53L;
+        return (int) (h ^ h >>> 33);
+    }
+
+    private static int reduce(final int hash, final int bound) {
+        return (int) ((hash & 0xFFFFFFFFL) * bound >>> 32);
+    }
+
+    /**
+     * Finds a seed sending all the keys of the bucket to free slots, and places them.
+     *
+     * @return the seed, or {@code 0} if none was found and the keys were not placed.
+     */
+    private int findSeed(@NotNull final List<Integer> bucket, @NotNull final Class<?>[] keys, @NotNull final long[] fingerprints,
+                         @NotNull final int[] values, @NotNull final boolean[] occupied, @NotNull final int[] slots) {
+        final int n = occupied.length;
+        for (int seed = 1; seed < MAX_SEED_TRIALS; seed++) {
+            int placed = 0;
+            for (final int key : bucket) {
+                final int slot = reduce(hash(fingerprints[key], seed), n);
+                if (occupied[slot]) {
+                    break;
+                }
+                occupied[slot] = true;
+                slots[placed++] = slot;
+            }
+            for (int i = 0; i < placed; i++) {
+                occupied[slots[i]] = false;
+            }
+            if (placed == bucket.size()) {
+                for (int i = 0; i < placed; i++) {
+                    this.place(bucket.get(i), slots[i], keys, values, occupied);
+                }
+                return seed;
+            }
+        }
+        return 0;
+    }
+
+    private void place(final int key, final int slot, @NotNull final Class<?>[] keys, @NotNull final int[] values,
+                       @NotNull final boolean[] occupied) {
+        occupied[slot] = true;
+        this.keys[slot] = keys[key];
+        this.values[slot] = values[key];
+    }
+
+    /**
+     * Retrieves the value mapped to the specified class.
+     *
+     * @param key the class to look up.
+     *            Must not be {@code null}.
+     * @return the value mapped to the class, or {@code -1} if the class is not a key of this table.
+     */
+    int get(@NotNull final Class<?> key) {
+        final int n = this.keys.length;
+        if (n == 0) {
+            return -1;
+        }
+        final long f = this.fingerprint.applyAsLong(key);
+        final int d = this.displacements[reduce(hash(f, 0), this.displacements.length)];
+        final int slot = d < 0 ? -d - 1 : reduce(hash(f, d), n);
+        if (this.keys[slot] == key) {
+            return this.values[slot];
+        }
+        for (int i = 0; i < this.overflowKeys.length; i++) {
+            if (this.overflowKeys[i] == key) {
+                return this.overflowValues[i];
+            }
+        }
+        return -1;
+    }
+}
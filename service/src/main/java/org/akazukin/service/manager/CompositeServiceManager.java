@@ -0,0 +1,679 @@
+package org.akazukin.service.manager;
+
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import org.akazukin.annotation.marker.ThreadSafe;
+import org.akazukin.service.cache.CacheSpec;
+import org.akazukin.service.cache.CachingView;
+import org.akazukin.service.data.IBlueprintedServiceHolder;
+import org.akazukin.service.data.IServiceHolder;
+import org.akazukin.service.guard.ServiceGuard;
+import org.akazukin.service.guard.ServiceUnavailableException;
+import org.akazukin.service.jfr.ServiceEvents;
+import org.akazukin.util.utils.ArrayUtils;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * A service manager federating several member managers in a precedence order.
+ * <p>
+ * The composite listens to its members and keeps one merged index per interface and implementation class,
+ * updated incrementally on every registration and unregistration of a member,
+ * so a lookup is a single probe regardless of the number of members.
+ * When several members provide the same class, the member coming first in the precedence order wins
+ * and the others are shadowed, independently of the order of registration; see {@link #getConflicts()}.
+ * <p>
+ * Registrations are delegated to the first member, and unregistrations to all the members.
+ * Pools are those of the first member.
+ * Guards attached to the composite take precedence over the guards of the members.
+ * The composite must be {@link #close() closed} to detach it from its members.
+ *
+ * @param <T> The type of the service holder, which extends {@link IBlueprintedServiceHolder}.
+ * @param <U> The type of the service object managed by this service manager.
+ */
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+@ThreadSafe
+public class CompositeServiceManager<T extends IBlueprintedServiceHolder<? extends U>, U>
+        implements IBlueprintedServiceManager<T, U>, AutoCloseable {
+    public static final String EXCE_NO_MEMBERS = "A composite service manager needs at least one member";
+
+    Class<T> serviceHolderType;
+    Class<U> serviceType;
+    List<IBlueprintedServiceManager<? extends T, U>> members;
+    List<MemberListener> memberListeners = new ArrayList<>();
+    Map<Class<?>, Slot<T>> interfaces = new ConcurrentHashMap<>();
+    Map<Class<?>, Slot<T>> implementations = new ConcurrentHashMap<>();
+    Map<Class<? extends U>, ServiceGuard> guards = new ConcurrentHashMap<>();
+    ServiceWaiters implementationWaiters = new ServiceWaiters();
+    ServiceWaiters interfaceWaiters = new ServiceWaiters();
+    CachingViews cachingViews = new CachingViews();
+    List<IServiceListener<? super T>> listeners = new CopyOnWriteArrayList<>();
+    ReentrantLock lock = new ReentrantLock();
+
+    /**
+     * Constructs a composite of the specified members and indexes the services they already hold.
+     *
+     * @param serviceHolderType the class object representing the type of the service holder.
+     *                          Must not be null.
+     * @param serviceType       the class object representing the type of the service.
+     *                          Must not be null.
+     * @param members           the member managers, from the highest to the lowest precedence.
+     *                          Must not be null nor empty.
+     * @throws IllegalArgumentException if there is no member.
+     */
+    public CompositeServiceManager(@NotNull final Class<T> serviceHolderType, @NotNull final Class<U> serviceType,
+                                   @NotNull final List<? extends IBlueprintedServiceManager<? extends T, U>> members) {
+        if (members.isEmpty()) {
+            throw new IllegalArgumentException(EXCE_NO_MEMBERS);
+        }
+        this.serviceHolderType = serviceHolderType;
+        this.serviceType = serviceType;
+        this.members = Collections.unmodifiableList(new ArrayList<>(members));
+        for (int i = 0; i < this.members.size(); i++) {
+            final MemberListener listener = new MemberListener(i);
+            this.memberListeners.add(listener);
+            this.members.get(i).addServiceListener(listener);
+        }
+    }
+
+    private void lock() {
+        this.lock.lock();
+        DeferredCompletions.enter();
+    }
+
+    private void unlock() {
+        this.lock.unlock();
+        DeferredCompletions.exit();
+    }
+
+    @Nullable
+    private static <T> T winner(@NotNull final Map<Class<?>, Slot<T>> index, @NotNull final Class<?> key) {
+        final Slot<T> slot = index.get(key);
+        if (slot == null) {
+            return null;
+        }
+        final Candidate<T> winner = slot.winner;
+        return winner == null ? null : winner.holder;
+    }
+
+    @NotNull
+    private IBlueprintedServiceManager<? extends T, U> primary() {
+        return this.members.get(0);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <U2 extends U> U2 getServiceByImplementation(@NotNull final Class<U2> service) {
+        final Object event = ServiceEvents.beginLookup();
+        final T holder = winner(this.implementations, service);
+        final U2 impl = holder == null ? null : (U2) holder.getImplementation();
+        ServiceEvents.endLookup(event, this, ServiceEvents.LOOKUP_SERVICE_BY_IMPLEMENTATION, service, impl != null);
+        return impl;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <U2 extends U> U2 getServiceByInterface(@NotNull final Class<U2> service) {
+        final Object event = ServiceEvents.beginLookup();
+        final T holder = winner(this.interfaces, service);
+        final U2 impl = holder == null ? null : (U2) holder.getImplementation();
+        ServiceEvents.endLookup(event, this, ServiceEvents.LOOKUP_SERVICE_BY_INTERFACE, service, impl != null);
+        return impl;
+    }
+
+    @Override
+    public T getServiceHolderByImplementation(@NotNull final Class<? extends U> service) {
+        final Object event = ServiceEvents.beginLookup();
+        final T holder = winner(this.implementations, service);
+        ServiceEvents.endLookup(event, this, ServiceEvents.LOOKUP_HOLDER_BY_IMPLEMENTATION, service, holder != null);
+        return holder;
+    }
+
+    @Override
+    public T getServiceHolderByInterface(@NotNull final Class<? extends U> service) {
+        final Object event = ServiceEvents.beginLookup();
+        final T holder = winner(this.interfaces, service);
+        ServiceEvents.endLookup(event, this, ServiceEvents.LOOKUP_HOLDER_BY_INTERFACE, service, holder != null);
+        return holder;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * A shadowed service is not visible through the composite, so no holder is returned for it.
+     */
+    @Override
+    public T getServiceHolderByService(@NotNull final U service) {
+        final Object event = ServiceEvents.beginLookup();
+        T holder = winner(this.implementations, service.getClass());
+        if (holder != null && !ASingleServiceManager.holdsService(holder, service)) {
+            holder = null;
+        }
+        ServiceEvents.endLookup(event, this, ServiceEvents.LOOKUP_HOLDER_BY_SERVICE, service.getClass(), holder != null);
+        return holder;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The visible service holders are ordered by the precedence of their members,
+     * then by their order in their member.
+     */
+    @Override
+    public T[] getAllServiceHolders() {
+        final List<T> holders = new ArrayList<>();
+        for (final IBlueprintedServiceManager<? extends T, U> member : this.members) {
+            for (final T holder : member.getAllServiceHolders()) {
+                if (winner(this.implementations, holder.getImplementationClass()) == holder) {
+                    holders.add(holder);
+                }
+            }
+        }
+        return holders.toArray(ArrayUtils.getNewArray(this.serviceHolderType, holders.size()));
+    }
+
+    @Override
+    public U[] getAllServices() {
+        final T[] holders = this.getAllServiceHolders();
+        final U[] services = ArrayUtils.getNewArray(this.serviceType, holders.length);
+        for (int i = 0; i < holders.length; i++) {
+            services[i] = holders[i].getImplementation();
+        }
+        return services;
+    }
+
+    @Override
+    public @NotNull Stream<U> streamServices() {
+        return this.streamHolders().map(IServiceHolder::getImplementation);
+    }
+
+    @Override
+    public @NotNull Stream<T> streamHolders() {
+        return StreamSupport.stream(Spliterators.spliterator(this.getAllServiceHolders(),
+                Spliterator.IMMUTABLE | Spliterator.ORDERED | Spliterator.NONNULL), false);
+    }
+
+    @Override
+    public void registerService(@NotNull final U serviceImpl) {
+        this.primary().registerService(serviceImpl);
+    }
+
+    @Override
+    public <U2 extends U> void registerService(@Nullable final Class<U2> service, @NotNull final U2 serviceImpl) {
+        this.primary().registerService(service, serviceImpl);
+    }
+
+    @Override
+    public <U2 extends U> void registerEvictableService(@NotNull final Class<U2> serviceImpl, @NotNull final Supplier<? extends U2> factory,
+                                                        final long idleTimeout, @NotNull final TimeUnit unit) {
+        this.primary().registerEvictableService(serviceImpl, factory, idleTimeout, unit);
+    }
+
+    @Override
+    public <U2 extends U> void registerEvictableService(@Nullable final Class<U2> service, @NotNull final Class<? extends U2> serviceImpl,
+                                                        @NotNull final Supplier<? extends U2> factory,
+                                                        final long idleTimeout, @NotNull final TimeUnit unit) {
+        this.primary().registerEvictableService(service, serviceImpl, factory, idleTimeout, unit);
+    }
+
+    @Override
+    public void unregisterService(@NotNull final U serviceImpl) {
+        for (final IBlueprintedServiceManager<? extends T, U> member : this.members) {
+            member.unregisterService(serviceImpl);
+        }
+    }
+
+    @Override
+    public void unregisterServiceByImplementation(@NotNull final Class<? extends U> serviceImpl) {
+        for (final IBlueprintedServiceManager<? extends T, U> member : this.members) {
+            member.unregisterServiceByImplementation(serviceImpl);
+        }
+    }
+
+    @Override
+    public void unregisterServiceByInterface(@NotNull final Class<? extends U> service) {
+        for (final IBlueprintedServiceManager<? extends T, U> member : this.members) {
+            member.unregisterServiceByInterface(service);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The lease is acquired from the member providing the visible service.
+     */
+    @Override
+    public <U2 extends U> ServiceLease<U2> acquire(@NotNull final Class<U2> serviceImpl) {
+        return this.acquireLease(this.implementations, serviceImpl, m -> m.acquire(serviceImpl));
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The lease is acquired from the member providing the visible service.
+     */
+    @Override
+    public <U2 extends U> ServiceLease<U2> acquireByInterface(@NotNull final Class<U2> service) {
+        return this.acquireLease(this.interfaces, service, m -> m.acquireByInterface(service));
+    }
+
+    @Nullable
+    private <U2 extends U> ServiceLease<U2> acquireLease(@NotNull final Map<Class<?>, Slot<T>> index, @NotNull final Class<U2> key,
+                                                        @NotNull final Function<IBlueprintedServiceManager<? extends T, U>, ServiceLease<U2>> acquire) {
+        while (true) {
+            final Slot<T> slot = index.get(key);
+            final Candidate<T> winner = slot == null ? null : slot.winner;
+            if (winner == null) {
+                return null;
+            }
+            final ServiceLease<U2> lease = acquire.apply(this.members.get(winner.member));
+            if (lease != null || slot.winner == winner) {
+                return lease;
+            }
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The services are unregistered from all the members,
+     * and the returned future is completed once the leases of all the members are closed.
+     */
+    @Override
+    public @NotNull CompletableFuture<Void> unregisterAndDrain(@NotNull final Class<? extends U> serviceImpl) {
+        final CompletableFuture<?>[] drained = new CompletableFuture<?>[this.members.size()];
+        for (int i = 0; i < drained.length; i++) {
+            drained[i] = this.members.get(i).unregisterAndDrain(serviceImpl);
+        }
+        return CompletableFuture.allOf(drained);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The services are unregistered from all the members,
+     * and the returned future is completed once the leases of all the members are closed.
+     */
+    @Override
+    public @NotNull CompletableFuture<Void> unregisterAndDrainByInterface(@NotNull final Class<? extends U> service) {
+        final CompletableFuture<?>[] drained = new CompletableFuture<?>[this.members.size()];
+        for (int i = 0; i < drained.length; i++) {
+            drained[i] = this.members.get(i).unregisterAndDrainByInterface(service);
+        }
+        return CompletableFuture.allOf(drained);
+    }
+
+    @Override
+    public void setServiceGuard(@NotNull final Class<? extends U> service, @Nullable final ServiceGuard guard) {
+        if (guard == null) {
+            this.guards.remove(service);
+        } else {
+            this.guards.put(service, guard);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * If no guard is attached to the composite, the guard attached by the member providing the service is returned.
+     */
+    @Override
+    public ServiceGuard getServiceGuard(@NotNull final Class<? extends U> service) {
+        final ServiceGuard guard = this.guards.get(service);
+        if (guard != null) {
+            return guard;
+        }
+        final Slot<T> slot = this.interfaces.get(service);
+        final Candidate<T> winner = slot == null ? null : slot.winner;
+        return winner == null ? null : this.members.get(winner.member).getServiceGuard(service);
+    }
+
+    @Override
+    public <U2 extends U, R> R callService(@NotNull final Class<U2> service, @NotNull final Function<? super U2, ? extends R> call) {
+        final U2 impl = this.getServiceByInterface(service);
+        if (impl == null) {
+            throw new ServiceUnavailableException(ABlueprintedServiceManager.EXCE_INTERFACE_NOT_REGISTERED + service.getName());
+        }
+
+        final ServiceGuard guard = this.getServiceGuard(service);
+        if (guard == null) {
+            return call.apply(impl);
+        }
+        return guard.call(impl, call);
+    }
+
+    @Override
+    public <U2 extends U> CompletableFuture<U2> awaitServiceByImplementation(@NotNull final Class<U2> service) {
+        return this.awaitServiceByImplementation(service, null, 0, TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public <U2 extends U> CompletableFuture<U2> awaitServiceByImplementation(@NotNull final Class<U2> service, @Nullable final Executor executor,
+                                                                             final long timeout, @NotNull final TimeUnit unit) {
+        this.lock();
+        try {
+            final U2 impl = this.getServiceByImplementation(service);
+            if (impl != null) {
+                return CompletableFuture.completedFuture(impl);
+            }
+            return this.implementationWaiters.add(service, executor, timeout, unit);
+        } finally {
+            this.unlock();
+        }
+    }
+
+    @Override
+    public <U2 extends U> CompletableFuture<U2> awaitServiceByInterface(@NotNull final Class<U2> service) {
+        return this.awaitServiceByInterface(service, null, 0, TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public <U2 extends U> CompletableFuture<U2> awaitServiceByInterface(@NotNull final Class<U2> service, @Nullable final Executor executor,
+                                                                        final long timeout, @NotNull final TimeUnit unit) {
+        this.lock();
+        try {
+            final U2 impl = this.getServiceByInterface(service);
+            if (impl != null) {
+                return CompletableFuture.completedFuture(impl);
+            }
+            return this.interfaceWaiters.add(service, executor, timeout, unit);
+        } finally {
+            this.unlock();
+        }
+    }
+
+    @Override
+    public <U2 extends U> void registerPooledService(@NotNull final Class<U2> service, @NotNull final Supplier<? extends U2> factory,
+                                                     final int minSize, final int maxSize, final long idleTimeout, @NotNull final TimeUnit unit) {
+        this.primary().registerPooledService(service, factory, minSize, maxSize, idleTimeout, unit);
+    }
+
+    @Override
+    public void unregisterPooledService(@NotNull final Class<? extends U> service) {
+        this.primary().unregisterPooledService(service);
+    }
+
+    @Override
+    public <U2 extends U> U2 borrowService(@NotNull final Class<U2> service) {
+        return this.primary().borrowService(service);
+    }
+
+    @Override
+    public <U2 extends U> void releaseService(@NotNull final Class<U2> service, @NotNull final U2 serviceImpl) {
+        this.primary().releaseService(service, serviceImpl);
+    }
+
+    @Override
+    public <U2 extends U, R> R withService(@NotNull final Class<U2> service, @NotNull final Function<? super U2, ? extends R> function) {
+        return this.primary().withService(service, function);
+    }
+
+    @Override
+    public <U2 extends U> U2 cachingView(@NotNull final Class<U2> service, @NotNull final CacheSpec spec) {
+        final CachingView<U2> view = new CachingView<>(service, spec, () -> this.getServiceByInterface(service));
+        this.cachingViews.register(service, view);
+        return view.getProxy();
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The listener is notified when a service becomes visible or is hidden,
+     * including when a service is shadowed by a member with a higher precedence.
+     */
+    @Override
+    public void addServiceListener(@NotNull final IServiceListener<? super T> listener) {
+        this.lock();
+        try {
+            this.listeners.add(listener);
+            for (final Slot<T> slot : this.implementations.values()) {
+                final Candidate<T> winner = slot.winner;
+                if (winner != null) {
+                    listener.onServiceRegistered(winner.holder);
+                }
+            }
+        } finally {
+            this.unlock();
+        }
+    }
+
+    @Override
+    public void removeServiceListener(@NotNull final IServiceListener<? super T> listener) {
+        this.listeners.remove(listener);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The snapshot contains the visible services and the guards effective at the time of freezing,
+     * but no pool.
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public @NotNull IBlueprintedServiceManager<T, U> freeze() {
+        this.lock();
+        try {
+            final List<T> holders = new ArrayList<>();
+            Collections.addAll(holders, this.getAllServiceHolders());
+            final Map<Class<? extends U>, ServiceGuard> effectiveGuards = new HashMap<>();
+            for (final Map.Entry<Class<?>, Slot<T>> entry : this.interfaces.entrySet()) {
+                final Candidate<T> winner = entry.getValue().winner;
+                if (winner == null) {
+                    continue;
+                }
+                if (!holders.contains(winner.holder)) {
+                    holders.add(winner.holder);
+                }
+                final Class<? extends U> service = (Class<? extends U>) entry.getKey();
+                final ServiceGuard guard = this.getServiceGuard(service);
+                if (guard != null) {
+                    effectiveGuards.put(service, guard);
+                }
+            }
+            return new FrozenBlueprintedServiceManager<>(this.serviceHolderType, this.serviceType,
+                    holders.toArray(ArrayUtils.getNewArray(this.serviceHolderType, holders.size())),
+                    Collections.emptyMap(), effectiveGuards);
+        } finally {
+            this.unlock();
+        }
+    }
+
+    /**
+     * Retrieves the classes provided by several members, sorted by kind and then by class name,
+     * so that the report does not depend on the order of registration.
+     *
+     * @return the current conflicts.
+     * Must not be {@code null}.
+     */
+    @NotNull
+    public List<ServiceConflict> getConflicts() {
+        final List<ServiceConflict> conflicts = new ArrayList<>();
+        this.lock();
+        try {
+            this.collectConflicts(ServiceConflict.Kind.INTERFACE, this.interfaces, conflicts);
+            this.collectConflicts(ServiceConflict.Kind.IMPLEMENTATION, this.implementations, conflicts);
+        } finally {
+            this.unlock();
+        }
+        conflicts.sort(Comparator.comparing(ServiceConflict::getKind)
+                .thenComparing(c -> c.getService().getName()));
+        return Collections.unmodifiableList(conflicts);
+    }
+
+    private void collectConflicts(@NotNull final ServiceConflict.Kind kind, @NotNull final Map<Class<?>, Slot<T>> index,
+                                  @NotNull final List<ServiceConflict> conflicts) {
+        for (final Map.Entry<Class<?>, Slot<T>> entry : index.entrySet()) {
+            final List<Candidate<T>> candidates = entry.getValue().candidates;
+            if (candidates.size() < 2) {
+                continue;
+            }
+            final List<Integer> shadowed = new ArrayList<>(candidates.size() - 1);
+            for (int i = 1; i < candidates.size(); i++) {
+                shadowed.add(candidates.get(i).member);
+            }
+            conflicts.add(new ServiceConflict(kind, entry.getKey(), candidates.get(0).member, Collections.unmodifiableList(shadowed)));
+        }
+    }
+
+    /**
+     * Detaches the composite from its members. The merged indexes are no longer updated afterward.
+     */
+    @Override
+    public void close() {
+        for (int i = 0; i < this.members.size(); i++) {
+            this.members.get(i).removeServiceListener(this.memberListeners.get(i));
+        }
+    }
+
+    private void onMemberRegistered(final int member, @NotNull final T holder) {
+        this.lock();
+        try {
+            final Candidate<T> candidate = new Candidate<>(member, holder);
+            final Class<?> impl = holder.getImplementationClass();
+            final T previous = winner(this.implementations, impl);
+            add(this.implementations, impl, candidate);
+            this.onWinnerChanged(previous, winner(this.implementations, impl));
+
+            final Class<?> service = holder.getInterfaceClass();
+            if (service != null) {
+                final T previousInterface = winner(this.interfaces, service);
+                add(this.interfaces, service, candidate);
+                final T current = winner(this.interfaces, service);
+                if (current != previousInterface) {
+                    this.cachingViews.invalidate(service);
+                    this.interfaceWaiters.publish(service, () -> current.getImplementation());
+                }
+            }
+        } finally {
+            this.unlock();
+        }
+    }
+
+    private void onMemberUnregistered(@NotNull final T holder) {
+        this.lock();
+        try {
+            final Class<?> impl = holder.getImplementationClass();
+            final T previous = winner(this.implementations, impl);
+            remove(this.implementations, impl, holder);
+            this.onWinnerChanged(previous, winner(this.implementations, impl));
+
+            final Class<?> service = holder.getInterfaceClass();
+            if (service != null) {
+                final T previousInterface = winner(this.interfaces, service);
+                remove(this.interfaces, service, holder);
+                final T current = winner(this.interfaces, service);
+                if (current != previousInterface) {
+                    this.cachingViews.invalidate(service);
+                    if (current != null) {
+                        this.interfaceWaiters.publish(service, () -> current.getImplementation());
+                    }
+                }
+            }
+        } finally {
+            this.unlock();
+        }
+    }
+
+    private void onWinnerChanged(@Nullable final T previous, @Nullable final T current) {
+        if (previous == current) {
+            return;
+        }
+        if (previous != null) {
+            for (final IServiceListener<? super T> listener : this.listeners) {
+                listener.onServiceUnregistered(previous);
+            }
+        }
+        if (current != null) {
+            this.implementationWaiters.publish(current.getImplementationClass(), () -> current.getImplementation());
+            for (final IServiceListener<? super T> listener : this.listeners) {
+                listener.onServiceRegistered(current);
+            }
+        }
+    }
+
+    private static <T> void add(@NotNull final Map<Class<?>, Slot<T>> index, @NotNull final Class<?> key,
+                                @NotNull final Candidate<T> candidate) {
+        final Slot<T> slot = index.computeIfAbsent(key, k -> new Slot<>());
+        int position = 0;
+        for (final Candidate<T> c : slot.candidates) {
+            if (c.holder == candidate.holder) {
+                return;
+            }
+            if (c.member <= candidate.member) {
+                position++;
+            }
+        }
+        slot.candidates.add(position, candidate);
+        slot.winner = slot.candidates.get(0);
+    }
+
+    private static <T> void remove(@NotNull final Map<Class<?>, Slot<T>> index, @NotNull final Class<?> key,
+                                   @NotNull final T holder) {
+        final Slot<T> slot = index.get(key);
+        if (slot == null) {
+            return;
+        }
+        slot.candidates.removeIf(c -> c.holder == holder);
+        if (slot.candidates.isEmpty()) {
+            slot.winner = null;
+            index.remove(key);
+        } else {
+            slot.winner = slot.candidates.get(0);
+        }
+    }
+
+    /**
+     * The entry of a merged index, holding the candidates of all the members in precedence order.
+     * The candidates are guarded by the lock of the composite, while the winner is read without locking.
+     */
+    @FieldDefaults(level = AccessLevel.PRIVATE)
+    private static final class Slot<T> {
+        final List<Candidate<T>> candidates = new ArrayList<>(2);
+        @Nullable
+        volatile Candidate<T> winner;
+    }
+
+    @AllArgsConstructor
+    @FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+    private static final class Candidate<T> {
+        int member;
+        T holder;
+    }
+
+    @RequiredArgsConstructor
+    @FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+    private final class MemberListener implements IServiceListener<T> {
+        int member;
+
+        @Override
+        public void onServiceRegistered(@NotNull final T holder) {
+            CompositeServiceManager.this.onMemberRegistered(this.member, holder);
+        }
+
+        @Override
+        public void onServiceUnregistered(@NotNull final T holder) {
+            CompositeServiceManager.this.onMemberUnregistered(holder);
+        }
+    }
+}
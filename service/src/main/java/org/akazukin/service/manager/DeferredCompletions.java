@@ -0,0 +1,85 @@
+package org.akazukin.service.manager;
+
+import lombok.AccessLevel;
+import lombok.experimental.FieldDefaults;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+/**
+ * Defers the completion of futures handed out by the managers until the current thread holds no manager lock.
+ * <p>
+ * Completing a future runs the continuations of its callers inline,
+ * which must neither run under the lock of a manager nor observe its listeners out of order.
+ * Each thread counts the manager locks it holds, including nested ones such as a member lock
+ * and the lock of a composite listening to it, and the completions deferred meanwhile run
+ * once the outermost lock is released, in the order they were deferred.
+ * A failing completion never propagates to the thread releasing the lock,
+ * whose own exception, if any, must not be replaced.
+ */
+final class DeferredCompletions {
+    private static final ThreadLocal<Frame> FRAME = ThreadLocal.withInitial(Frame::new);
+
+    private DeferredCompletions() {
+    }
+
+    /**
+     * Records that the current thread acquired a manager lock.
+     */
+    static void enter() {
+        FRAME.get().depth++;
+    }
+
+    /**
+     * Records that the current thread released a manager lock,
+     * and runs the deferred completions if it no longer holds any.
+     * Never throws, as it is called while releasing a lock in a {@code finally} block.
+     */
+    static void exit() {
+        final Frame frame = FRAME.get();
+        if (--frame.depth > 0 || frame.actions.isEmpty()) {
+            return;
+        }
+        Runnable action;
+        while ((action = frame.actions.pollFirst()) != null) {
+            run(action);
+        }
+    }
+
+    /**
+     * Runs the specified completion once the current thread holds no manager lock, or immediately if it holds none.
+     *
+     * @param action the completion to run.
+     *               Must not be {@code null}.
+     */
+    static void defer(@NotNull final Runnable action) {
+        final Frame frame = FRAME.get();
+        if (frame.depth == 0) {
+            run(action);
+        } else {
+            frame.actions.addLast(action);
+        }
+    }
+
+    /**
+     * Runs a completion, reporting its failure to the uncaught exception handler of the current thread
+     * instead of propagating it to the unrelated caller which released the lock.
+     * A dependent stage failing in a continuation already fails its own future,
+     * so only a failure of the completion itself reaches the handler.
+     */
+    private static void run(@NotNull final Runnable action) {
+        try {
+            action.run();
+        } catch (final RuntimeException e) {
+            final Thread thread = Thread.currentThread();
+            thread.getUncaughtExceptionHandler().uncaughtException(thread, e);
+        }
+    }
+
+    @FieldDefaults(level = AccessLevel.PRIVATE)
+    private static final class Frame {
+        final Deque<Runnable> actions = new ArrayDeque<>();
+        int depth;
+    }
+}
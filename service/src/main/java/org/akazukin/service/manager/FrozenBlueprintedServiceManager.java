@@ -0,0 +1,183 @@
+package org.akazukin.service.manager;
+
+import lombok.AccessLevel;
+import lombok.experimental.FieldDefaults;
+import org.akazukin.annotation.marker.ThreadSafe;
+import org.akazukin.service.cache.CacheSpec;
+import org.akazukin.service.cache.CachingView;
+import org.akazukin.service.data.IBlueprintedServiceHolder;
+import org.akazukin.service.guard.ServiceGuard;
+import org.akazukin.service.guard.ServiceUnavailableException;
+import org.akazukin.service.pool.ServicePool;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * An immutable snapshot of a blueprinted service manager, created by {@link IBlueprintedServiceManager#freeze()}.
+ * Extends the {@link FrozenServiceManager} with a second minimal perfect hash table over the interface classes.
+ * <p>
+ * The guards attached at the time of freezing are copied and can no longer be changed,
+ * although the guards themselves keep their state.
+ *
+ * @param <T> The type of the service holder, which extends {@link IBlueprintedServiceHolder}.
+ * @param <U> The type of the service object managed by this service manager.
+ */
+@FieldDefaults(level = AccessLevel.PROTECTED, makeFinal = true)
+@ThreadSafe
+public class FrozenBlueprintedServiceManager<T extends IBlueprintedServiceHolder<? extends U>, U>
+        extends FrozenServiceManager<T, U> implements IBlueprintedServiceManager<T, U> {
+    ClassTable interfaces;
+    Map<Class<? extends U>, ServiceGuard> guards;
+
+    /**
+     * Constructs a frozen blueprinted service manager over the specified service holders.
+     *
+     * @param serviceHolderType the class object representing the type of the service holder.
+     *                          Must not be null.
+     * @param serviceType       the class object representing the type of the service.
+     *                          Must not be null.
+     * @param holders           the service holders.
+     *                          Must not be null. The array is owned by the frozen manager afterward.
+     *                          If several holders share an implementation or interface class, the first one is indexed.
+     * @param pools             the pools to copy.
+     *                          Must not be null.
+     * @param guards            the guards to copy.
+     *                          Must not be null.
+     */
+    FrozenBlueprintedServiceManager(@NotNull final Class<T> serviceHolderType, @NotNull final Class<U> serviceType,
+                                    @NotNull final T[] holders, @NotNull final Map<Class<? extends U>, ServicePool<? extends U>> pools,
+                                    @NotNull final Map<Class<? extends U>, ServiceGuard> guards) {
+        super(serviceHolderType, serviceType, holders, pools);
+        final Map<Class<?>, Integer> keys = new LinkedHashMap<>();
+        for (int i = 0; i < holders.length; i++) {
+            final Class<?> service = holders[i].getInterfaceClass();
+            if (service != null) {
+                keys.putIfAbsent(service, i);
+            }
+        }
+        this.interfaces = ClassTable.of(keys);
+        this.guards = new HashMap<>(guards);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <U2 extends U> U2 getServiceByInterface(@NotNull final Class<U2> service) {
+        final int index = this.interfaces.get(service);
+        return index < 0 ? null : (U2) this.holders[index].getImplementation();
+    }
+
+    @Override
+    public <U2 extends U> void registerService(@Nullable final Class<U2> service, @NotNull final U2 serviceImpl) {
+        throw new UnsupportedOperationException(EXCE_FROZEN + "registerService");
+    }
+
+    @Override
+    public <U2 extends U> void registerEvictableService(@Nullable final Class<U2> service, @NotNull final Class<? extends U2> serviceImpl,
+                                                        @NotNull final Supplier<? extends U2> factory,
+                                                        final long idleTimeout, @NotNull final TimeUnit unit) {
+        throw new UnsupportedOperationException(EXCE_FROZEN + "registerEvictableService");
+    }
+
+    @Override
+    public void unregisterServiceByInterface(@NotNull final Class<? extends U> service) {
+        throw new UnsupportedOperationException(EXCE_FROZEN + "unregisterServiceByInterface");
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * As no service can be unregistered anymore, the lease does not need to be counted.
+     */
+    @Override
+    public <U2 extends U> ServiceLease<U2> acquireByInterface(@NotNull final Class<U2> service) {
+        final U2 impl = this.getServiceByInterface(service);
+        return impl == null ? null : new ServiceLease<>(impl, null, 0);
+    }
+
+    @Override
+    public @NotNull CompletableFuture<Void> unregisterAndDrainByInterface(@NotNull final Class<? extends U> service) {
+        throw new UnsupportedOperationException(EXCE_FROZEN + "unregisterAndDrainByInterface");
+    }
+
+    @Override
+    public T getServiceHolderByInterface(@NotNull final Class<? extends U> service) {
+        final int index = this.interfaces.get(service);
+        return index < 0 ? null : this.holders[index];
+    }
+
+    @Override
+    public void setServiceGuard(@NotNull final Class<? extends U> service, @Nullable final ServiceGuard guard) {
+        throw new UnsupportedOperationException(EXCE_FROZEN + "setServiceGuard");
+    }
+
+    @Override
+    public ServiceGuard getServiceGuard(@NotNull final Class<? extends U> service) {
+        return this.guards.get(service);
+    }
+
+    @Override
+    public <U2 extends U, R> R callService(@NotNull final Class<U2> service, @NotNull final Function<? super U2, ? extends R> call) {
+        final U2 impl = this.getServiceByInterface(service);
+        if (impl == null) {
+            throw new ServiceUnavailableException(ABlueprintedServiceManager.EXCE_INTERFACE_NOT_REGISTERED + service.getName());
+        }
+
+        final ServiceGuard guard = this.guards.get(service);
+        if (guard == null) {
+            return call.apply(impl);
+        }
+        return guard.call(impl, call);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * As no service can be registered anymore, the returned future is either already completed with the service
+     * or already completed exceptionally with an {@link IllegalStateException}.
+     */
+    @Override
+    public <U2 extends U> CompletableFuture<U2> awaitServiceByInterface(@NotNull final Class<U2> service) {
+        return completed(service, this.getServiceByInterface(service));
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * As no service can be registered anymore, the returned future is either already completed with the service
+     * or already completed exceptionally with an {@link IllegalStateException}.
+     */
+    @Override
+    public <U2 extends U> CompletableFuture<U2> awaitServiceByInterface(@NotNull final Class<U2> service, @Nullable final Executor executor,
+                                                                        final long timeout, @NotNull final TimeUnit unit) {
+        return this.awaitServiceByInterface(service);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * As the services of a frozen manager never change, the cache is never discarded.
+     */
+    @Override
+    public <U2 extends U> U2 cachingView(@NotNull final Class<U2> service, @NotNull final CacheSpec spec) {
+        return new CachingView<>(service, spec, () -> this.getServiceByInterface(service)).getProxy();
+    }
+
+    /**
+     * Returns this manager, which is already frozen.
+     *
+     * @return this manager.
+     */
+    @Override
+    public @NotNull IBlueprintedServiceManager<T, U> freeze() {
+        return this;
+    }
+}
@@ -0,0 +1,264 @@
+package org.akazukin.service.manager;
+
+import lombok.AccessLevel;
+import lombok.experimental.FieldDefaults;
+import org.akazukin.annotation.marker.ThreadSafe;
+import org.akazukin.service.data.IServiceHolder;
+import org.akazukin.service.pool.ServicePool;
+import org.akazukin.util.utils.ArrayUtils;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * An immutable snapshot of a service manager, created by {@link IServiceManager#freeze()}.
+ * <p>
+ * The service holders are laid out in a single array, and the implementation classes are compiled
+ * into a minimal perfect hash table pointing into that array,
+ * so a lookup costs two hashes and one comparison without taking any lock nor reading any volatile field.
+ * Only the holders are kept, so evictable services are still released and created again on demand.
+ * All the mutators throw an {@link UnsupportedOperationException}.
+ * The pools registered at the time of freezing remain usable and are shared with the original manager.
+ *
+ * @param <T> The type of the service holder, which extends {@link IServiceHolder}.
+ * @param <U> The type of the service object managed by this service manager.
+ */
+@FieldDefaults(level = AccessLevel.PROTECTED, makeFinal = true)
+@ThreadSafe
+public class FrozenServiceManager<T extends IServiceHolder<? extends U>, U> implements IServiceManager<T, U> {
+    public static final String EXCE_FROZEN = "The service manager is frozen; Operation:";
+    public static final String EXCE_NOT_REGISTERED = "The service is not registered in the frozen service manager; Class:";
+
+    T[] holders;
+    ClassTable implementations;
+    Map<Class<? extends U>, ServicePool<? extends U>> pools;
+    Class<T> serviceHolderType;
+    Class<U> serviceType;
+
+    /**
+     * Constructs a frozen service manager over the specified service holders.
+     *
+     * @param serviceHolderType the class object representing the type of the service holder.
+     *                          Must not be null.
+     * @param serviceType       the class object representing the type of the service.
+     *                          Must not be null.
+     * @param holders           the service holders.
+     *                          Must not be null. The array is owned by the frozen manager afterward.
+     *                          If several holders share an implementation class, the first one is indexed.
+     * @param pools             the pools to copy.
+     *                          Must not be null.
+     */
+    FrozenServiceManager(@NotNull final Class<T> serviceHolderType, @NotNull final Class<U> serviceType,
+                         @NotNull final T[] holders, @NotNull final Map<Class<? extends U>, ServicePool<? extends U>> pools) {
+        this.serviceHolderType = serviceHolderType;
+        this.serviceType = serviceType;
+        this.holders = holders;
+        final Map<Class<?>, Integer> keys = new LinkedHashMap<>();
+        for (int i = 0; i < holders.length; i++) {
+            keys.putIfAbsent(holders[i].getImplementationClass(), i);
+        }
+        this.implementations = ClassTable.of(keys);
+        this.pools = new HashMap<>(pools);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <U2 extends U> U2 getServiceByImplementation(@NotNull final Class<U2> service) {
+        final int index = this.implementations.get(service);
+        return index < 0 ? null : (U2) this.holders[index].getImplementation();
+    }
+
+    @Override
+    public void registerService(@NotNull final U serviceImpl) {
+        throw new UnsupportedOperationException(EXCE_FROZEN + "registerService");
+    }
+
+    @Override
+    public U[] getAllServices() {
+        final U[] services = ArrayUtils.getNewArray(this.serviceType, this.holders.length);
+        for (int i = 0; i < services.length; i++) {
+            services[i] = this.holders[i].getImplementation();
+        }
+        return services;
+    }
+
+    @Override
+    public void unregisterService(@NotNull final U serviceImpl) {
+        throw new UnsupportedOperationException(EXCE_FROZEN + "unregisterService");
+    }
+
+    @Override
+    public void unregisterServiceByImplementation(@NotNull final Class<? extends U> serviceImpl) {
+        throw new UnsupportedOperationException(EXCE_FROZEN + "unregisterServiceByImplementation");
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * As no service can be unregistered anymore, the lease does not need to be counted.
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public <U2 extends U> ServiceLease<U2> acquire(@NotNull final Class<U2> serviceImpl) {
+        final U2 impl = this.getServiceByImplementation(serviceImpl);
+        return impl == null ? null : new ServiceLease<>(impl, null, 0);
+    }
+
+    @Override
+    public @NotNull CompletableFuture<Void> unregisterAndDrain(@NotNull final Class<? extends U> serviceImpl) {
+        throw new UnsupportedOperationException(EXCE_FROZEN + "unregisterAndDrain");
+    }
+
+    @Override
+    public T[] getAllServiceHolders() {
+        return this.holders.clone();
+    }
+
+    @Override
+    public @NotNull Stream<U> streamServices() {
+        return this.streamHolders().map(IServiceHolder::getImplementation);
+    }
+
+    @Override
+    public @NotNull Stream<T> streamHolders() {
+        return StreamSupport.stream(Spliterators.spliterator(this.holders,
+                Spliterator.IMMUTABLE | Spliterator.ORDERED | Spliterator.NONNULL), false);
+    }
+
+    @Override
+    public T getServiceHolderByImplementation(@NotNull final Class<? extends U> service) {
+        final int index = this.implementations.get(service);
+        return index < 0 ? null : this.holders[index];
+    }
+
+    @Override
+    public T getServiceHolderByService(@NotNull final U service) {
+        final int index = this.implementations.get(service.getClass());
+        return index < 0 || !ASingleServiceManager.holdsService(this.holders[index], service) ? null : this.holders[index];
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * As no service can be registered anymore, the returned future is either already completed with the service
+     * or already completed exceptionally with an {@link IllegalStateException}.
+     */
+    @Override
+    public <U2 extends U> CompletableFuture<U2> awaitServiceByImplementation(@NotNull final Class<U2> service) {
+        return completed(service, this.getServiceByImplementation(service));
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * As no service can be registered anymore, the returned future is either already completed with the service
+     * or already completed exceptionally with an {@link IllegalStateException}.
+     */
+    @Override
+    public <U2 extends U> CompletableFuture<U2> awaitServiceByImplementation(@NotNull final Class<U2> service, @Nullable final Executor executor,
+                                                                             final long timeout, @NotNull final TimeUnit unit) {
+        return this.awaitServiceByImplementation(service);
+    }
+
+    /**
+     * Creates a future already completed with the specified service,
+     * or exceptionally if it is {@code null}.
+     *
+     * @param <U2>    the type of the service
+     * @param service the awaited class, used in the exception message.
+     *                Must not be {@code null}.
+     * @param impl    the service, or {@code null} if it is not registered.
+     * @return the completed future.
+     * Must not be {@code null}.
+     */
+    @NotNull
+    protected static <U2> CompletableFuture<U2> completed(@NotNull final Class<U2> service, @Nullable final U2 impl) {
+        if (impl != null) {
+            return CompletableFuture.completedFuture(impl);
+        }
+        final CompletableFuture<U2> future = new CompletableFuture<>();
+        future.completeExceptionally(new IllegalStateException(EXCE_NOT_REGISTERED + service.getName()));
+        return future;
+    }
+
+    @Override
+    public <U2 extends U> void registerEvictableService(@NotNull final Class<U2> serviceImpl, @NotNull final Supplier<? extends U2> factory,
+                                                        final long idleTimeout, @NotNull final TimeUnit unit) {
+        throw new UnsupportedOperationException(EXCE_FROZEN + "registerEvictableService");
+    }
+
+    @Override
+    public <U2 extends U> void registerPooledService(@NotNull final Class<U2> service, @NotNull final Supplier<? extends U2> factory,
+                                                     final int minSize, final int maxSize, final long idleTimeout, @NotNull final TimeUnit unit) {
+        throw new UnsupportedOperationException(EXCE_FROZEN + "registerPooledService");
+    }
+
+    @Override
+    public void unregisterPooledService(@NotNull final Class<? extends U> service) {
+        throw new UnsupportedOperationException(EXCE_FROZEN + "unregisterPooledService");
+    }
+
+    @Override
+    public <U2 extends U> U2 borrowService(@NotNull final Class<U2> service) {
+        return this.getPool(service).borrow();
+    }
+
+    @Override
+    public <U2 extends U> void releaseService(@NotNull final Class<U2> service, @NotNull final U2 serviceImpl) {
+        this.getPool(service).release(serviceImpl);
+    }
+
+    @Override
+    public <U2 extends U, R> R withService(@NotNull final Class<U2> service, @NotNull final Function<? super U2, ? extends R> function) {
+        return this.getPool(service).with(function);
+    }
+
+    @NotNull
+    @SuppressWarnings("unchecked")
+    private <U2 extends U> ServicePool<U2> getPool(@NotNull final Class<U2> service) {
+        final ServicePool<U2> pool = (ServicePool<U2>) this.pools.get(service);
+        if (pool == null) {
+            throw new IllegalStateException(ASingleServiceManager.EXCE_POOL_NOT_REGISTERED + service.getName());
+        }
+        return pool;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * As the services of a frozen manager never change,
+     * the listener is only notified of the services already registered.
+     */
+    @Override
+    public void addServiceListener(@NotNull final IServiceListener<? super T> listener) {
+        for (final T holder : this.holders) {
+            listener.onServiceRegistered(holder);
+        }
+    }
+
+    @Override
+    public void removeServiceListener(@NotNull final IServiceListener<? super T> listener) {
+    }
+
+    /**
+     * Returns this manager, which is already frozen.
+     *
+     * @return this manager.
+     */
+    @Override
+    public @NotNull IServiceManager<T, U> freeze() {
+        return this;
+    }
+}
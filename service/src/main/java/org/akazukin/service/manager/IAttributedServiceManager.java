@@ -0,0 +1,82 @@
+package org.akazukin.service.manager;
+
+import org.akazukin.service.data.IAttributedServiceHolder;
+import org.akazukin.service.data.ServiceAttribute;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Interface defining management operations for service holders carrying named and typed attributes.
+ * Attributes may be indexed, so that queries on them intersect index postings instead of scanning all the services.
+ *
+ * @param <T> the type of service holder being managed, which must extend {@link IAttributedServiceHolder}.
+ * @param <U> the type of the service managed by the service holder.
+ */
+public interface IAttributedServiceManager<T extends IAttributedServiceHolder<? extends U>, U> extends IServiceManager<T, U> {
+    /**
+     * Declares an index answering equality conditions on the specified attribute.
+     * If the attribute is already indexed, the existing index is replaced.
+     *
+     * @param <A>       the type of the attribute value
+     * @param attribute the attribute to index.
+     *                  Must not be {@code null}.
+     */
+    <A> void declareHashIndex(@NotNull ServiceAttribute<A> attribute);
+
+    /**
+     * Declares an index answering equality and range conditions on the specified attribute.
+     * If the attribute is already indexed, the existing index is replaced.
+     *
+     * @param <A>       the type of the attribute value
+     * @param attribute the attribute to index.
+     *                  Must not be {@code null}.
+     */
+    <A extends Comparable<? super A>> void declareSortedIndex(@NotNull ServiceAttribute<A> attribute);
+
+    /**
+     * Sets the value of an attribute of the specified service and updates the index of the attribute.
+     * If the service is not registered, no action is taken.
+     *
+     * @param <A>       the type of the attribute value
+     * @param service   the service whose attribute is to be set.
+     *                  Must not be {@code null}.
+     * @param attribute the attribute to set.
+     *                  Must not be {@code null}.
+     * @param value     the value to set, or {@code null} to clear the attribute.
+     */
+    <A> void setAttribute(@NotNull U service, @NotNull ServiceAttribute<A> attribute, @Nullable A value);
+
+    /**
+     * Retrieves the value of an attribute of the specified service.
+     *
+     * @param <A>       the type of the attribute value
+     * @param service   the service whose attribute is to be retrieved.
+     *                  Must not be {@code null}.
+     * @param attribute the attribute to retrieve.
+     *                  Must not be {@code null}.
+     * @return the value of the attribute, or {@code null} if the service is not registered or the attribute is not set.
+     */
+    @Nullable
+    <A> A getAttribute(@NotNull U service, @NotNull ServiceAttribute<A> attribute);
+
+    /**
+     * Creates a new empty query evaluated by this manager.
+     *
+     * @return a new query.
+     * Must not be {@code null}.
+     */
+    @NotNull
+    ServiceQuery<T> query();
+
+    /**
+     * Evaluates the specified query.
+     * Results are cached until the services or their indexed attributes change.
+     *
+     * @param query the query to evaluate.
+     *              Must not be {@code null}.
+     * @return an array of the service holders matching all the conditions of the query.
+     * The returned array is never {@code null} but may be empty if no matching service holders are found.
+     */
+    @NotNull
+    T[] executeQuery(@NotNull ServiceQuery<T> query);
+}
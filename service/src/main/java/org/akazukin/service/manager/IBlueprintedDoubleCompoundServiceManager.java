@@ -0,0 +1,23 @@
+package org.akazukin.service.manager;
+
+import org.akazukin.service.data.DoubleServiceHolder;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Interface defining management operations for services carrying a {@code double} value,
+ * which can also be associated with their interface types.
+ *
+ * @param <U> the type of the service managed by the service holder.
+ */
+public interface IBlueprintedDoubleCompoundServiceManager<U>
+        extends IBlueprintedServiceManager<DoubleServiceHolder<? extends U>, U>, IDoubleCompoundServiceManager<U> {
+    /**
+     * Retrieves the value associated with the specified service interface.
+     *
+     * @param service the service interface class whose value is to be retrieved.
+     *                Must not be {@code null}.
+     * @return the value associated with the service.
+     * @throws IllegalStateException if no service is associated with the interface.
+     */
+    double getDataByInterface(@NotNull Class<? extends U> service);
+}
@@ -0,0 +1,23 @@
+package org.akazukin.service.manager;
+
+import org.akazukin.service.data.IntServiceHolder;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Interface defining management operations for services carrying a {@code int} value,
+ * which can also be associated with their interface types.
+ *
+ * @param <U> the type of the service managed by the service holder.
+ */
+public interface IBlueprintedIntCompoundServiceManager<U>
+        extends IBlueprintedServiceManager<IntServiceHolder<? extends U>, U>, IIntCompoundServiceManager<U> {
+    /**
+     * Retrieves the value associated with the specified service interface.
+     *
+     * @param service the service interface class whose value is to be retrieved.
+     *                Must not be {@code null}.
+     * @return the value associated with the service.
+     * @throws IllegalStateException if no service is associated with the interface.
+     */
+    int getDataByInterface(@NotNull Class<? extends U> service);
+}
@@ -1,9 +1,19 @@
 package org.akazukin.service.manager;
 
+import org.akazukin.service.cache.CacheSpec;
 import org.akazukin.service.data.IBlueprintedServiceHolder;
+import org.akazukin.service.guard.ServiceGuard;
+import org.akazukin.service.guard.ServiceUnavailableException;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
 /**
  * Defines the contract for managing a collection of services.
  * This interface provides methods for registering, retrieving, and interacting with services by their types,
@@ -37,6 +47,26 @@ public interface IBlueprintedServiceManager<T extends IBlueprintedServiceHolder<
      */
     <U2 extends U> void registerService(@Nullable Class<U2> service, @NotNull U2 serviceImpl);
 
+    /**
+     * Registers an evictable service with its corresponding service interface.
+     * See {@link #registerEvictableService(Class, Supplier, long, TimeUnit)}.
+     *
+     * @param <U2>        the type of the service, which must extend {@link U}
+     * @param service     the class object representing the service interface,
+     *                    or {@code null} if the service is not associated with a specific interface.
+     * @param serviceImpl the class of the instances created by the factory.
+     *                    Must not be {@code null}.
+     * @param factory     the factory creating the implementation.
+     *                    Must not be {@code null}.
+     * @param idleTimeout the time after which an unused implementation is released.
+     * @param unit        the time unit of {@code idleTimeout}.
+     *                    Must not be {@code null}.
+     * @throws IllegalStateException         if the interface or the implementation class is already registered.
+     * @throws UnsupportedOperationException if this manager does not support evictable services.
+     */
+    <U2 extends U> void registerEvictableService(@Nullable Class<U2> service, @NotNull Class<? extends U2> serviceImpl,
+                                                 @NotNull Supplier<? extends U2> factory, long idleTimeout, @NotNull TimeUnit unit);
+
     /**
      * Unregisters a service implementation using its interface type.
      * This method removes all instances of services associated with the specified service interface class.
@@ -56,4 +86,136 @@ public interface IBlueprintedServiceManager<T extends IBlueprintedServiceHolder<
      */
     @Nullable
     T getServiceHolderByInterface(@NotNull Class<? extends U> service);
+
+    /**
+     * Attaches a guard to the service associated with the given interface type.
+     * The guard is applied to every call performed through {@link #callService(Class, Function)}
+     * and stays attached even if the service is unregistered and registered again.
+     *
+     * @param service the class object representing the interface type of the service.
+     *                Must not be {@code null}.
+     * @param guard   the guard to attach, or {@code null} to detach the current guard.
+     */
+    void setServiceGuard(@NotNull Class<? extends U> service, @Nullable ServiceGuard guard);
+
+    /**
+     * Retrieves the guard attached to the service associated with the given interface type.
+     *
+     * @param service the class object representing the interface type of the service.
+     *                Must not be {@code null}.
+     * @return the attached guard, or {@code null} if the service is not guarded.
+     */
+    @Nullable
+    ServiceGuard getServiceGuard(@NotNull Class<? extends U> service);
+
+    /**
+     * Performs a call on the service associated with the given interface type
+     * through the guard attached to it.
+     * If no guard is attached, the call is performed directly.
+     *
+     * @param <U2>    the type of the service, which must extend {@link U}.
+     * @param <R>     the type of the result.
+     * @param service the class object representing the interface type of the service.
+     *                Must not be {@code null}.
+     * @param call    the call to perform on the service.
+     *                Must not be {@code null}.
+     * @return the result of the call.
+     * @throws ServiceUnavailableException if the service is not registered,
+     *                                     or its guard rejected the call.
+     */
+    <U2 extends U, R> R callService(@NotNull Class<U2> service, @NotNull Function<? super U2, ? extends R> call);
+
+    /**
+     * Awaits the registration of a service by its interface type.
+     * The returned future is completed on the registering thread as soon as a matching service is registered,
+     * or immediately if one is already registered.
+     *
+     * @param <U2>    the type of the service being awaited, which must extend {@link U}
+     * @param service the class object representing the interface of the service to be awaited.
+     *                Must not be {@code null}.
+     * @return a future completed with the instance of the service matching the specified interface type.
+     * Must not be {@code null}.
+     */
+    @NotNull
+    <U2 extends U> CompletableFuture<U2> awaitServiceByInterface(@NotNull Class<U2> service);
+
+    /**
+     * Awaits the registration of a service by its interface type.
+     * The returned future is completed as soon as a matching service is registered,
+     * or immediately if one is already registered.
+     *
+     * @param <U2>     the type of the service being awaited, which must extend {@link U}
+     * @param service  the class object representing the interface of the service to be awaited.
+     *                 Must not be {@code null}.
+     * @param executor the executor completing the future,
+     *                 or {@code null} to complete it on the registering thread.
+     * @param timeout  the maximum time to wait, or a non-positive value to wait indefinitely.
+     * @param unit     the time unit of {@code timeout}.
+     *                 Must not be {@code null}.
+     * @return a future completed with the instance of the service matching the specified interface type,
+     * or completed exceptionally with a {@link TimeoutException} if the timeout elapses first.
+     * Must not be {@code null}.
+     */
+    @NotNull
+    <U2 extends U> CompletableFuture<U2> awaitServiceByInterface(@NotNull Class<U2> service, @Nullable Executor executor,
+                                                                 long timeout, @NotNull TimeUnit unit);
+
+    /**
+     * Creates a proxy of the service associated with the given interface type,
+     * memoizing the results of its methods in a bounded cache.
+     * The cache is discarded whenever a service associated with the interface is unregistered or registered,
+     * and the proxy then resolves the service again on its next call.
+     *
+     * @param <U2>    the type of the service, which must extend {@link U}.
+     * @param service the class object representing the interface type of the service.
+     *                Must be an interface and not {@code null}.
+     * @param spec    the specification of the cache.
+     *                Must not be {@code null}.
+     * @return the caching proxy of the service.
+     * Its calls throw a {@link ServiceUnavailableException} while no service is associated with the interface.
+     * Must not be {@code null}.
+     * @throws IllegalArgumentException if the class is not an interface.
+     */
+    @NotNull
+    <U2 extends U> U2 cachingView(@NotNull Class<U2> service, @NotNull CacheSpec spec);
+
+    /**
+     * Acquires a lease on the service associated with the given interface type.
+     * The service is pinned until the lease is closed, so that {@link #unregisterAndDrainByInterface(Class)}
+     * only completes once it is no longer in use.
+     *
+     * @param <U2>    the type of the service, which must extend {@link U}.
+     * @param service the class object representing the interface type of the service.
+     *                Must not be {@code null}.
+     * @return an open lease on the service, or {@code null} if no service is associated with the interface.
+     */
+    @Nullable
+    <U2 extends U> ServiceLease<U2> acquireByInterface(@NotNull Class<U2> service);
+
+    /**
+     * Unregisters the services associated with the given interface type and waits for their leases.
+     * The services are hidden from new lookups and leases immediately,
+     * while the leases already acquired remain usable until they are closed.
+     *
+     * @param service the class object representing the interface type of the service.
+     *                Must not be {@code null}.
+     * @return a future completed once every lease on the unregistered services is closed,
+     * or already completed if no service was unregistered.
+     * Must not be {@code null}.
+     */
+    @NotNull
+    CompletableFuture<Void> unregisterAndDrainByInterface(@NotNull Class<? extends U> service);
+
+    /**
+     * Creates an immutable snapshot of this manager, meant to be used once the registry no longer changes.
+     * The snapshot resolves services by their implementation and interface classes
+     * through minimal perfect hash tables without taking any lock, and rejects every mutation.
+     * Later changes to this manager are not reflected in the snapshot.
+     *
+     * @return the frozen snapshot of this manager.
+     * Must not be {@code null}.
+     */
+    @Override
+    @NotNull
+    IBlueprintedServiceManager<T, U> freeze();
 }
@@ -48,4 +48,21 @@ public interface ICompoundServiceManager<T extends ICompoundServiceHolder<? exte
      */
     @NotNull
     T[] getServiceHolderByData(@Nullable V data);
+
+    /**
+     * Sets the number of registered services from which {@link #getAllData()}
+     * and {@link #getServiceHolderByData(Object)} scan the services in parallel on the common pool.
+     *
+     * @param threshold the minimum number of services for a parallel scan.
+     *                  Must be positive.
+     * @throws IllegalArgumentException if the threshold is not positive.
+     */
+    void setParallelThreshold(int threshold);
+
+    /**
+     * Retrieves the number of registered services from which the data scans run in parallel.
+     *
+     * @return the minimum number of services for a parallel scan.
+     */
+    int getParallelThreshold();
 }
@@ -0,0 +1,92 @@
+package org.akazukin.service.manager;
+
+import org.akazukin.service.data.LongServiceHolder;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.OptionalLong;
+
+/**
+ * Interface defining management operations for services carrying a {@code long} value.
+ * The values are kept unboxed in the service holders and updated atomically.
+ *
+ * @param <U> the type of the service managed by the service holder.
+ */
+public interface ILongCompoundServiceManager<U> extends IServiceManager<LongServiceHolder<? extends U>, U> {
+    /**
+     * Retrieves the value associated with the given service implementation class.
+     *
+     * @param service the class of the service implementation.
+     *                Must not be {@code null}.
+     * @return the value associated with the service.
+     * @throws IllegalStateException if no service of the implementation class is registered.
+     */
+    long getDataByImplementation(@NotNull Class<? extends U> service);
+
+    /**
+     * Retrieves the value associated with the specified service.
+     *
+     * @param service the service whose value is to be retrieved.
+     *                Must not be {@code null}.
+     * @return the value associated with the service.
+     * @throws IllegalStateException if the service is not registered.
+     */
+    long getDataByService(@NotNull U service);
+
+    /**
+     * Sets the value associated with the specified service.
+     *
+     * @param service the service whose value is to be set.
+     *                Must not be {@code null}.
+     * @param data    the new value.
+     * @throws IllegalStateException if the service is not registered.
+     */
+    void setData(@NotNull U service, long data);
+
+    /**
+     * Atomically adds the specified delta to the value associated with the specified service.
+     *
+     * @param service the service whose value is to be updated.
+     *                Must not be {@code null}.
+     * @param delta   the value to add.
+     * @return the updated value.
+     * @throws IllegalStateException if the service is not registered.
+     */
+    long addAndGet(@NotNull U service, long delta);
+
+    /**
+     * Atomically sets the value associated with the specified service if it equals the expected value.
+     *
+     * @param service the service whose value is to be updated.
+     *                Must not be {@code null}.
+     * @param expect  the expected value.
+     * @param update  the new value.
+     * @return {@code true} if the value was updated.
+     * @throws IllegalStateException if the service is not registered.
+     */
+    boolean compareAndSet(@NotNull U service, long expect, long update);
+
+    /**
+     * Retrieves the values associated with all the registered services, in the order of {@link #getAllServiceHolders()}.
+     *
+     * @return an array of the values, or an empty array if no services are registered.
+     * Must not be {@code null}.
+     */
+    @NotNull
+    long[] getAllData();
+
+    /**
+     * Computes the sum of the values associated with all the registered services.
+     *
+     * @return the sum of the values, or zero if no services are registered.
+     */
+    long sumData();
+
+    /**
+     * Computes the maximum of the values associated with all the registered services.
+     *
+     * @return the maximum value, or an empty optional if no services are registered.
+     * Must not be {@code null}.
+     */
+    @NotNull
+    OptionalLong maxData();
+}
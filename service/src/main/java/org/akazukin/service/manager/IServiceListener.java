@@ -0,0 +1,28 @@
+package org.akazukin.service.manager;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * A listener notified when services are registered in or unregistered from a service manager.
+ * The notifications are made while holding the lock of the manager,
+ * so a listener must return quickly and must not call back into the mutators of that manager.
+ *
+ * @param <T> the type of service holder being notified.
+ */
+public interface IServiceListener<T> {
+    /**
+     * Called after a service holder has been registered.
+     *
+     * @param holder the registered service holder.
+     *               Must not be {@code null}.
+     */
+    void onServiceRegistered(@NotNull T holder);
+
+    /**
+     * Called after a service holder has been unregistered.
+     *
+     * @param holder the unregistered service holder.
+     *               Must not be {@code null}.
+     */
+    void onServiceUnregistered(@NotNull T holder);
+}
@@ -4,6 +4,14 @@ import org.akazukin.service.data.IServiceHolder;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
 /**
  * Interface defining management operations for service holders.
  *
@@ -43,6 +51,8 @@ public interface IServiceManager<T extends IServiceHolder<? extends U>, U> {
      * Unregisters a service implementation from the service manager.
      * This method removes the specified service implementation from the managed collection of services.
      * If the provided implementation is not currently registered, no action is taken.
+     * An evictable service is matched by its implementation class,
+     * so an instance released by the holder still unregisters the service once a new one has been created.
      *
      * @param serviceImpl the instance of the service implementation to be unregistered;
      *                    must not be null.
@@ -80,6 +90,8 @@ public interface IServiceManager<T extends IServiceHolder<? extends U>, U> {
 
     /**
      * Retrieves the service holder associated with the given service instance.
+     * An evictable service is matched by its implementation class,
+     * so an instance released by the holder still finds it once a new one has been created.
      *
      * @param service the instance of the service for which the service holder is to be retrieved.
      *                Must not be null.
@@ -87,4 +99,212 @@ public interface IServiceManager<T extends IServiceHolder<? extends U>, U> {
      */
     @Nullable
     T getServiceHolderByService(@NotNull U service);
+
+    /**
+     * Creates a stream over a snapshot of the registered service instances.
+     * The stream is sized and splits evenly, so it scales when made {@link Stream#parallel() parallel}.
+     *
+     * @return a sequential stream of the services currently registered.
+     * Must not be {@code null}.
+     */
+    @NotNull
+    Stream<U> streamServices();
+
+    /**
+     * Creates a stream over a snapshot of the registered service holders.
+     * The stream is sized and splits evenly, so it scales when made {@link Stream#parallel() parallel}.
+     *
+     * @return a sequential stream of the service holders currently registered.
+     * Must not be {@code null}.
+     */
+    @NotNull
+    Stream<T> streamHolders();
+
+    /**
+     * Awaits the registration of a service by its specific implementation class.
+     * The returned future is completed on the registering thread as soon as a matching service is registered,
+     * or immediately if one is already registered.
+     *
+     * @param <U2>    the type of the service being awaited, which must extend {@link U}
+     * @param service the class object representing the implementation of the service to be awaited.
+     *                Must not be {@code null}.
+     * @return a future completed with the instance of the service matching the specified implementation class.
+     * Must not be {@code null}.
+     */
+    @NotNull
+    <U2 extends U> CompletableFuture<U2> awaitServiceByImplementation(@NotNull Class<U2> service);
+
+    /**
+     * Awaits the registration of a service by its specific implementation class.
+     * The returned future is completed as soon as a matching service is registered,
+     * or immediately if one is already registered.
+     *
+     * @param <U2>     the type of the service being awaited, which must extend {@link U}
+     * @param service  the class object representing the implementation of the service to be awaited.
+     *                 Must not be {@code null}.
+     * @param executor the executor completing the future,
+     *                 or {@code null} to complete it on the registering thread.
+     * @param timeout  the maximum time to wait, or a non-positive value to wait indefinitely.
+     * @param unit     the time unit of {@code timeout}.
+     *                 Must not be {@code null}.
+     * @return a future completed with the instance of the service matching the specified implementation class,
+     * or completed exceptionally with a {@link TimeoutException} if the timeout elapses first.
+     * Must not be {@code null}.
+     */
+    @NotNull
+    <U2 extends U> CompletableFuture<U2> awaitServiceByImplementation(@NotNull Class<U2> service, @Nullable Executor executor,
+                                                                      long timeout, @NotNull TimeUnit unit);
+
+    /**
+     * Registers a service whose implementation is created from a factory on demand
+     * and released by a background sweeper once it has not been accessed for the idle timeout.
+     * Lookups by class never create a released implementation,
+     * while the lookups returning the service create it again transparently.
+     *
+     * @param <U2>        the type of the service, which must extend {@link U}
+     * @param serviceImpl the class of the instances created by the factory.
+     *                    Must not be {@code null}.
+     * @param factory     the factory creating the implementation.
+     *                    Must not be {@code null}.
+     * @param idleTimeout the time after which an unused implementation is released.
+     * @param unit        the time unit of {@code idleTimeout}.
+     *                    Must not be {@code null}.
+     * @throws IllegalStateException         if the implementation class is already registered.
+     * @throws UnsupportedOperationException if this manager does not support evictable services.
+     */
+    <U2 extends U> void registerEvictableService(@NotNull Class<U2> serviceImpl, @NotNull Supplier<? extends U2> factory,
+                                                 long idleTimeout, @NotNull TimeUnit unit);
+
+    /**
+     * Registers a pool of instances of a service which is not thread-safe.
+     * Pooled services are kept apart from the registered services
+     * and are only accessible through {@link #borrowService(Class)} and {@link #withService(Class, Function)}.
+     *
+     * @param <U2>        the type of the pooled service, which must extend {@link U}
+     * @param service     the class object used as the key of the pool.
+     *                    Must not be {@code null}.
+     * @param factory     the factory creating new instances of the service.
+     *                    Must not be {@code null}.
+     * @param minSize     the number of instances kept even when idle.
+     * @param maxSize     the maximum number of instances.
+     * @param idleTimeout the time after which an idle instance above {@code minSize} is released,
+     *                    or a non-positive value to keep all the instances.
+     * @param unit        the time unit of {@code idleTimeout}.
+     *                    Must not be {@code null}.
+     * @throws IllegalStateException if a pool is already registered for the class.
+     */
+    <U2 extends U> void registerPooledService(@NotNull Class<U2> service, @NotNull Supplier<? extends U2> factory,
+                                              int minSize, int maxSize, long idleTimeout, @NotNull TimeUnit unit);
+
+    /**
+     * Unregisters the pool registered for the specified class.
+     * Instances currently borrowed may still be released afterward.
+     * If no pool is registered for the class, no action is taken.
+     *
+     * @param service the class object used as the key of the pool.
+     *                Must not be {@code null}.
+     */
+    void unregisterPooledService(@NotNull Class<? extends U> service);
+
+    /**
+     * Borrows an instance from the pool registered for the specified class.
+     * Every borrowed instance must be returned with {@link #releaseService(Class, Object)}.
+     *
+     * @param <U2>    the type of the pooled service, which must extend {@link U}
+     * @param service the class object used as the key of the pool.
+     *                Must not be {@code null}.
+     * @return a borrowed instance, exclusively owned by the caller until it is released.
+     * Must not be {@code null}.
+     * @throws IllegalStateException if no pool is registered for the class,
+     *                               or all the instances are in use and the pool is full.
+     */
+    @NotNull
+    <U2 extends U> U2 borrowService(@NotNull Class<U2> service);
+
+    /**
+     * Returns an instance borrowed by {@link #borrowService(Class)} to its pool.
+     *
+     * @param <U2>        the type of the pooled service, which must extend {@link U}
+     * @param service     the class object used as the key of the pool.
+     *                    Must not be {@code null}.
+     * @param serviceImpl the borrowed instance.
+     *                    Must not be {@code null}.
+     * @throws IllegalStateException if no pool is registered for the class,
+     *                               or the instance was not borrowed from it.
+     */
+    <U2 extends U> void releaseService(@NotNull Class<U2> service, @NotNull U2 serviceImpl);
+
+    /**
+     * Borrows an instance from the pool registered for the specified class,
+     * applies the specified function to it and releases it.
+     *
+     * @param <U2>     the type of the pooled service, which must extend {@link U}
+     * @param <R>      the type of the result
+     * @param service  the class object used as the key of the pool.
+     *                 Must not be {@code null}.
+     * @param function the function to apply to the borrowed instance.
+     *                 Must not be {@code null}.
+     * @return the result of the function.
+     * @throws IllegalStateException if no pool is registered for the class,
+     *                               or all the instances are in use and the pool is full.
+     */
+    <U2 extends U, R> R withService(@NotNull Class<U2> service, @NotNull Function<? super U2, ? extends R> function);
+
+    /**
+     * Adds a listener notified of every later registration and unregistration.
+     * The listener is immediately notified of the services already registered,
+     * atomically with respect to the mutators, so it never misses nor duplicates a change.
+     *
+     * @param listener the listener to add.
+     *                 Must not be {@code null}.
+     */
+    void addServiceListener(@NotNull IServiceListener<? super T> listener);
+
+    /**
+     * Removes a listener added by {@link #addServiceListener(IServiceListener)}.
+     * If the listener was not added, no action is taken.
+     *
+     * @param listener the listener to remove.
+     *                 Must not be {@code null}.
+     */
+    void removeServiceListener(@NotNull IServiceListener<? super T> listener);
+
+    /**
+     * Acquires a lease on the service of the specified implementation class.
+     * The service is pinned until the lease is closed, so that {@link #unregisterAndDrain(Class)}
+     * only completes once it is no longer in use. Acquiring and closing leases never takes a lock.
+     *
+     * @param <U2>        the type of the service
+     * @param serviceImpl the class object representing the implementation of the service.
+     *                    Must not be {@code null}.
+     * @return an open lease on the service, or {@code null} if the service is not registered.
+     */
+    @Nullable
+    <U2 extends U> ServiceLease<U2> acquire(@NotNull Class<U2> serviceImpl);
+
+    /**
+     * Unregisters the services of the specified implementation class and waits for their leases.
+     * The services are hidden from new lookups and leases immediately,
+     * while the leases already acquired remain usable until they are closed.
+     *
+     * @param serviceImpl the class object representing the implementation of the service.
+     *                    Must not be {@code null}.
+     * @return a future completed once every lease on the unregistered services is closed,
+     * or already completed if no service was unregistered.
+     * Must not be {@code null}.
+     */
+    @NotNull
+    CompletableFuture<Void> unregisterAndDrain(@NotNull Class<? extends U> serviceImpl);
+
+    /**
+     * Creates an immutable snapshot of this manager, meant to be used once the registry no longer changes.
+     * The snapshot resolves services by their implementation class through a minimal perfect hash table
+     * without taking any lock, and rejects every mutation.
+     * Later changes to this manager are not reflected in the snapshot.
+     *
+     * @return the frozen snapshot of this manager.
+     * Must not be {@code null}.
+     */
+    @NotNull
+    IServiceManager<T, U> freeze();
 }
@@ -0,0 +1,75 @@
+package org.akazukin.service.manager;
+
+import org.akazukin.annotation.marker.ThreadSafe;
+import org.akazukin.service.data.IntServiceHolder;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.OptionalInt;
+
+/**
+ * A service manager associating a {@code int} value with each service, such as a weight or a counter.
+ * The values are kept unboxed in {@link IntServiceHolder} and updated atomically,
+ * and the bulk accessors and reductions return primitive results without boxing.
+ * Reductions over registries reaching the parallel threshold run in parallel.
+ *
+ * @param <U> The type of the service being managed by this ServiceManager.
+ */
+@ThreadSafe
+public class IntCompoundServiceManager<U> extends ASingleServiceManager<IntServiceHolder<? extends U>, U>
+        implements IIntCompoundServiceManager<U> {
+    /**
+     * Constructs a {@link IntCompoundServiceManager} instance for managing services of the specified type.
+     *
+     * @param serviceType The class object representing the type of the service to be managed.
+     *                    Must not be {@code null}.
+     */
+    @SuppressWarnings("unchecked")
+    public IntCompoundServiceManager(@NotNull final Class<U> serviceType) {
+        super((Class<IntServiceHolder<? extends U>>) (Object) IntServiceHolder.class, serviceType);
+    }
+
+    @Override
+    protected @NotNull IntServiceHolder<? extends U> createServiceHolder(@NotNull final U serviceImpl) {
+        return new IntServiceHolder<>(null, serviceImpl);
+    }
+
+    @Override
+    public int getDataByImplementation(@NotNull final Class<? extends U> service) {
+        return this.requireServiceHolderByImplementation(service).getData();
+    }
+
+    @Override
+    public int getDataByService(@NotNull final U service) {
+        return this.requireServiceHolder(service).getData();
+    }
+
+    @Override
+    public void setData(@NotNull final U service, final int data) {
+        this.requireServiceHolder(service).setData(data);
+    }
+
+    @Override
+    public int addAndGet(@NotNull final U service, final int delta) {
+        return this.requireServiceHolder(service).addAndGet(delta);
+    }
+
+    @Override
+    public boolean compareAndSet(@NotNull final U service, final int expect, final int update) {
+        return this.requireServiceHolder(service).compareAndSet(expect, update);
+    }
+
+    @Override
+    public int[] getAllData() {
+        return this.scanHolders().mapToInt(IntServiceHolder::getData).toArray();
+    }
+
+    @Override
+    public long sumData() {
+        return this.scanHolders().mapToInt(IntServiceHolder::getData).asLongStream().sum();
+    }
+
+    @Override
+    public OptionalInt maxData() {
+        return this.scanHolders().mapToInt(IntServiceHolder::getData).max();
+    }
+}
@@ -0,0 +1,144 @@
+package org.akazukin.service.manager;
+
+import lombok.AccessLevel;
+import lombok.experimental.FieldDefaults;
+import lombok.experimental.NonFinal;
+import org.akazukin.annotation.marker.ThreadSafe;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicLongFieldUpdater;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
+
+/**
+ * Counts the open leases on a registered service holder.
+ * <p>
+ * The leases are first counted on a single base count, so an uncontended holder costs no more than a long.
+ * Once an update of the base count fails because of contention, the count is striped over several cells,
+ * each on its own cache line, and a thread always updates the cell picked from its identifier,
+ * so acquiring and closing leases from many threads neither takes a lock nor contends on a single counter.
+ * A lease closes the count it was counted in, so each count stays non-negative and a sum of zero proves
+ * that no lease is open.
+ * <p>
+ * Once draining, new acquisitions back out, and the first release bringing the sum to zero completes the drain.
+ * The drain is completed through {@link DeferredCompletions}, so its continuations never run under the lock of a manager.
+ */
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+@ThreadSafe
+final class LeaseCounter {
+    private static final int STRIPES = Integer.highestOneBit(Math.min(64, Runtime.getRuntime().availableProcessors() * 2 - 1));
+    private static final int PADDING = 16;
+    private static final int UNSTRIPED = STRIPES;
+    private static final AtomicLongFieldUpdater<LeaseCounter> BASE =
+            AtomicLongFieldUpdater.newUpdater(LeaseCounter.class, "base");
+    private static final AtomicReferenceFieldUpdater<LeaseCounter, AtomicLongArray> CELLS =
+            AtomicReferenceFieldUpdater.newUpdater(LeaseCounter.class, AtomicLongArray.class, "cells");
+
+    CompletableFuture<Void> drained = new CompletableFuture<>();
+    @NonFinal
+    volatile long base;
+    @NonFinal
+    volatile AtomicLongArray cells;
+    @NonFinal
+    volatile boolean draining;
+
+    private static int stripe() {
+        return (int) (Thread.currentThread().getId() * 0x9E3779B97F4A7C15L >>> 40) & (STRIPES - 1);
+    }
+
+    /**
+     * Counts a new lease, unless the counter is draining.
+     *
+     * @return the stripe to pass to {@link #release(int)}, or {@code -1} if the counter is draining.
+     */
+    int acquire() {
+        AtomicLongArray cells = this.cells;
+        final int stripe;
+        if (cells == null) {
+            final long b = this.base;
+            if (BASE.compareAndSet(this, b, b + 1)) {
+                stripe = UNSTRIPED;
+            } else {
+                CELLS.compareAndSet(this, null, new AtomicLongArray(STRIPES * PADDING));
+                cells = this.cells;
+                stripe = stripe();
+                cells.incrementAndGet(stripe * PADDING);
+            }
+        } else {
+            stripe = stripe();
+            cells.incrementAndGet(stripe * PADDING);
+        }
+        if (this.draining) {
+            this.release(stripe);
+            return -1;
+        }
+        return stripe;
+    }
+
+    /**
+     * Uncounts a lease, completing the drain if it was the last one.
+     *
+     * @param stripe the stripe returned by {@link #acquire()}.
+     */
+    void release(final int stripe) {
+        if (stripe == UNSTRIPED) {
+            BASE.decrementAndGet(this);
+        } else {
+            this.cells.decrementAndGet(stripe * PADDING);
+        }
+        if (this.draining && this.sum() == 0) {
+            this.complete();
+        }
+    }
+
+    /**
+     * Stops counting new leases.
+     *
+     * @return a future completed once all the leases are closed.
+     * Must not be {@code null}.
+     */
+    @NotNull
+    CompletableFuture<Void> drain() {
+        this.draining = true;
+        if (this.sum() == 0) {
+            this.complete();
+        }
+        return this.drained;
+    }
+
+    /**
+     * Retrieves the future completed once the counter is drained.
+     *
+     * @return the future.
+     * Must not be {@code null}.
+     */
+    @NotNull
+    CompletableFuture<Void> getDrained() {
+        return this.drained;
+    }
+
+    /**
+     * Checks whether a lease is open.
+     *
+     * @return {@code true} if at least one lease is counted.
+     */
+    boolean isLeased() {
+        return this.sum() != 0;
+    }
+
+    private void complete() {
+        DeferredCompletions.defer(() -> this.drained.complete(null));
+    }
+
+    private long sum() {
+        long sum = this.base;
+        final AtomicLongArray cells = this.cells;
+        if (cells != null) {
+            for (int i = 0; i < STRIPES; i++) {
+                sum += cells.get(i * PADDING);
+            }
+        }
+        return sum;
+    }
+}
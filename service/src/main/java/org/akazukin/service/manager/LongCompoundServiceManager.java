@@ -0,0 +1,75 @@
+package org.akazukin.service.manager;
+
+import org.akazukin.annotation.marker.ThreadSafe;
+import org.akazukin.service.data.LongServiceHolder;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.OptionalLong;
+
+/**
+ * A service manager associating a {@code long} value with each service, such as a weight or a counter.
+ * The values are kept unboxed in {@link LongServiceHolder} and updated atomically,
+ * and the bulk accessors and reductions return primitive results without boxing.
+ * Reductions over registries reaching the parallel threshold run in parallel.
+ *
+ * @param <U> The type of the service being managed by this ServiceManager.
+ */
+@ThreadSafe
+public class LongCompoundServiceManager<U> extends ASingleServiceManager<LongServiceHolder<? extends U>, U>
+        implements ILongCompoundServiceManager<U> {
+    /**
+     * Constructs a {@link LongCompoundServiceManager} instance for managing services of the specified type.
+     *
+     * @param serviceType The class object representing the type of the service to be managed.
+     *                    Must not be {@code null}.
+     */
+    @SuppressWarnings("unchecked")
+    public LongCompoundServiceManager(@NotNull final Class<U> serviceType) {
+        super((Class<LongServiceHolder<? extends U>>) (Object) LongServiceHolder.class, serviceType);
+    }
+
+    @Override
+    protected @NotNull LongServiceHolder<? extends U> createServiceHolder(@NotNull final U serviceImpl) {
+        return new LongServiceHolder<>(null, serviceImpl);
+    }
+
+    @Override
+    public long getDataByImplementation(@NotNull final Class<? extends U> service) {
+        return this.requireServiceHolderByImplementation(service).getData();
+    }
+
+    @Override
+    public long getDataByService(@NotNull final U service) {
+        return this.requireServiceHolder(service).getData();
+    }
+
+    @Override
+    public void setData(@NotNull final U service, final long data) {
+        this.requireServiceHolder(service).setData(data);
+    }
+
+    @Override
+    public long addAndGet(@NotNull final U service, final long delta) {
+        return this.requireServiceHolder(service).addAndGet(delta);
+    }
+
+    @Override
+    public boolean compareAndSet(@NotNull final U service, final long expect, final long update) {
+        return this.requireServiceHolder(service).compareAndSet(expect, update);
+    }
+
+    @Override
+    public long[] getAllData() {
+        return this.scanHolders().mapToLong(LongServiceHolder::getData).toArray();
+    }
+
+    @Override
+    public long sumData() {
+        return this.scanHolders().mapToLong(LongServiceHolder::getData).sum();
+    }
+
+    @Override
+    public OptionalLong maxData() {
+        return this.scanHolders().mapToLong(LongServiceHolder::getData).max();
+    }
+}
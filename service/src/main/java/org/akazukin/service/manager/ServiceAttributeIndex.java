@@ -0,0 +1,122 @@
+package org.akazukin.service.manager;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.experimental.FieldDefaults;
+import org.akazukin.annotation.marker.ThreadSafe;
+import org.akazukin.service.data.IAttributedServiceHolder;
+import org.akazukin.service.data.ServiceAttribute;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * A secondary index mapping the values of a single attribute to the service holders carrying them.
+ * A hash index answers equality conditions, while a sorted index answers both equality and range conditions.
+ * <p>
+ * The index may be read concurrently, but must only be updated while holding the lock of its manager.
+ *
+ * @param <T> the type of the indexed service holder
+ */
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+@ThreadSafe
+final class ServiceAttributeIndex<T extends IAttributedServiceHolder<?>> {
+    @Getter
+    ServiceAttribute<?> attribute;
+    ConcurrentMap<Object, Set<T>> postings;
+    Set<T> absent = ConcurrentHashMap.newKeySet();
+
+    private ServiceAttributeIndex(@NotNull final ServiceAttribute<?> attribute, @NotNull final ConcurrentMap<Object, Set<T>> postings) {
+        this.attribute = attribute;
+        this.postings = postings;
+    }
+
+    /**
+     * Creates an index answering equality conditions.
+     *
+     * @param <T>       the type of the indexed service holder
+     * @param attribute the indexed attribute.
+     *                  Must not be {@code null}.
+     * @return a new empty index.
+     */
+    @NotNull
+    static <T extends IAttributedServiceHolder<?>> ServiceAttributeIndex<T> hash(@NotNull final ServiceAttribute<?> attribute) {
+        return new ServiceAttributeIndex<>(attribute, new ConcurrentHashMap<>());
+    }
+
+    /**
+     * Creates an index answering equality and range conditions.
+     * The values of the attribute must be mutually comparable.
+     *
+     * @param <T>       the type of the indexed service holder
+     * @param attribute the indexed attribute.
+     *                  Must not be {@code null}.
+     * @return a new empty index.
+     */
+    @NotNull
+    static <T extends IAttributedServiceHolder<?>> ServiceAttributeIndex<T> sorted(@NotNull final ServiceAttribute<?> attribute) {
+        return new ServiceAttributeIndex<>(attribute, new ConcurrentSkipListMap<>());
+    }
+
+    void add(@NotNull final T holder) {
+        final Object value = holder.getAttribute(this.attribute);
+        if (value == null) {
+            this.absent.add(holder);
+        } else {
+            this.postings.computeIfAbsent(value, k -> ConcurrentHashMap.newKeySet()).add(holder);
+        }
+    }
+
+    void remove(@NotNull final T holder, @Nullable final Object value) {
+        if (value == null) {
+            this.absent.remove(holder);
+        } else {
+            this.postings.computeIfPresent(value, (k, v) -> v.remove(holder) && v.isEmpty() ? null : v);
+        }
+    }
+
+    /**
+     * Retrieves the service holders matching the specified condition.
+     *
+     * @param condition the condition on the indexed attribute.
+     *                  Must not be {@code null}.
+     * @return the matching service holders, or {@code null} if this index cannot answer the condition.
+     */
+    @Nullable
+    Set<T> lookup(@NotNull final ServiceQuery.Condition condition) {
+        if (!condition.isRange()) {
+            final Object value = condition.getFrom();
+            if (value == null) {
+                return this.absent;
+            }
+            final Set<T> posting = this.postings.get(value);
+            return posting == null ? new HashSet<>() : posting;
+        }
+        if (!(this.postings instanceof ConcurrentNavigableMap)) {
+            return null;
+        }
+
+        final ConcurrentNavigableMap<Object, Set<T>> sorted = (ConcurrentNavigableMap<Object, Set<T>>) this.postings;
+        final Object from = condition.getFrom();
+        final Object to = condition.getTo();
+        final Collection<Set<T>> range;
+        if (from == null) {
+            range = (to == null ? sorted : sorted.headMap(to, true)).values();
+        } else {
+            range = (to == null ? sorted.tailMap(from, true) : sorted.subMap(from, true, to, true)).values();
+        }
+
+        final Set<T> result = new HashSet<>();
+        for (final Set<T> posting : range) {
+            result.addAll(posting);
+        }
+        return result;
+    }
+}
@@ -0,0 +1,48 @@
+package org.akazukin.service.manager;
+
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+import lombok.experimental.FieldDefaults;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.List;
+
+/**
+ * A class provided by several members of a {@link CompositeServiceManager}.
+ * Only the service of the member with the highest precedence is visible through the composite,
+ * the services of the other members are shadowed.
+ */
+@AllArgsConstructor(access = AccessLevel.PACKAGE)
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+@Getter
+@EqualsAndHashCode
+@ToString
+public final class ServiceConflict {
+    /**
+     * Whether the conflicting class is an interface or an implementation class.
+     */
+    @NotNull Kind kind;
+    /**
+     * The class provided by several members.
+     */
+    @NotNull Class<?> service;
+    /**
+     * The index of the member whose service is visible.
+     */
+    int visibleMember;
+    /**
+     * The indexes of the members whose services are shadowed, in precedence order.
+     */
+    @NotNull List<Integer> shadowedMembers;
+
+    /**
+     * The kinds of index a conflict can occur in.
+     */
+    public enum Kind {
+        INTERFACE,
+        IMPLEMENTATION
+    }
+}
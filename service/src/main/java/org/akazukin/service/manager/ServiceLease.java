@@ -0,0 +1,70 @@
+package org.akazukin.service.manager;
+
+import lombok.AccessLevel;
+import lombok.experimental.FieldDefaults;
+import lombok.experimental.NonFinal;
+import org.akazukin.annotation.marker.ThreadSafe;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+
+/**
+ * A lease on a registered service, acquired by {@link IServiceManager#acquire(Class)}.
+ * <p>
+ * While the lease is open, an unregistration of the service through
+ * {@link IServiceManager#unregisterAndDrain(Class)} is not considered complete,
+ * so the service can safely be used until the lease is closed.
+ * The lease must be closed exactly once, typically with a try-with-resources statement;
+ * closing it again has no effect.
+ *
+ * @param <U> the type of the leased service
+ */
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+@ThreadSafe
+public final class ServiceLease<U> implements AutoCloseable {
+    @SuppressWarnings("unchecked")
+    private static final AtomicIntegerFieldUpdater<ServiceLease<?>> CLOSED =
+            (AtomicIntegerFieldUpdater<ServiceLease<?>>) (AtomicIntegerFieldUpdater<?>) AtomicIntegerFieldUpdater.newUpdater(ServiceLease.class, "closed");
+
+    U service;
+    @Nullable LeaseCounter counter;
+    int stripe;
+    @NonFinal
+    volatile int closed;
+
+    /**
+     * Constructs a lease on the specified service.
+     *
+     * @param service the leased service.
+     *                Must not be {@code null}.
+     * @param counter the counter the lease was counted in, or {@code null} if the service can never be unregistered.
+     * @param stripe  the stripe returned by {@link LeaseCounter#acquire()}.
+     */
+    ServiceLease(@NotNull final U service, @Nullable final LeaseCounter counter, final int stripe) {
+        this.service = service;
+        this.counter = counter;
+        this.stripe = stripe;
+    }
+
+    /**
+     * Retrieves the leased service. It must not be used after the lease is closed.
+     *
+     * @return the leased service.
+     * Must not be {@code null}.
+     */
+    @NotNull
+    public U get() {
+        return this.service;
+    }
+
+    /**
+     * Closes the lease, completing the drain of the service if it was the last open lease.
+     */
+    @Override
+    public void close() {
+        if (CLOSED.compareAndSet(this, 0, 1) && this.counter != null) {
+            this.counter.release(this.stripe);
+        }
+    }
+}
@@ -2,9 +2,13 @@ package org.akazukin.service.manager;
 
 import org.akazukin.annotation.marker.ThreadSafe;
 import org.akazukin.service.data.BlueprintedServiceHolder;
+import org.akazukin.service.data.EvictableServiceHolder;
 import org.akazukin.service.data.IBlueprintedServiceHolder;
 import org.akazukin.service.data.IServiceHolder;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.function.Supplier;
 
 /**
  * An implementation of the {@link ASingleServiceManager} class for managing services
@@ -31,4 +35,11 @@ public class ServiceManager<T> extends ASingleServiceManager<IServiceHolder<? ex
     protected @NotNull IBlueprintedServiceHolder<? extends T> createServiceHolder(@NotNull final T serviceImpl) {
         return new BlueprintedServiceHolder<>(null, serviceImpl);
     }
+
+    @Override
+    protected <T2 extends T> @NotNull IServiceHolder<? extends T> createEvictableServiceHolder(
+            @Nullable final Class<T2> service, @NotNull final Class<? extends T2> serviceImpl,
+            @NotNull final Supplier<? extends T2> factory, final long idleTimeout) {
+        return new EvictableServiceHolder<>(service, serviceImpl, factory, idleTimeout);
+    }
 }
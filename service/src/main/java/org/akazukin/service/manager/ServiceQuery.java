@@ -0,0 +1,126 @@
+package org.akazukin.service.manager;
+
+import lombok.AccessLevel;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import org.akazukin.service.data.IAttributedServiceHolder;
+import org.akazukin.service.data.ServiceAttribute;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A query selecting service holders by their attributes.
+ * All the conditions of a query must match for a service holder to be selected.
+ * <p>
+ * Queries are created by {@link IAttributedServiceManager#query()}
+ * and evaluated against the indexes declared on that manager;
+ * conditions on attributes without a suitable index are evaluated by scanning the candidates.
+ *
+ * @param <T> the type of service holder being queried.
+ */
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+public final class ServiceQuery<T extends IAttributedServiceHolder<?>> {
+    IAttributedServiceManager<T, ?> manager;
+    List<Condition> conditions = new ArrayList<>();
+
+    /**
+     * Constructs an empty query evaluated by the specified manager.
+     *
+     * @param manager the manager evaluating the query.
+     *                Must not be {@code null}.
+     */
+    ServiceQuery(@NotNull final IAttributedServiceManager<T, ?> manager) {
+        this.manager = manager;
+    }
+
+    /**
+     * Adds a condition requiring the attribute to be equal to the specified value.
+     *
+     * @param <A>       the type of the attribute value
+     * @param attribute the attribute to compare.
+     *                  Must not be {@code null}.
+     * @param value     the expected value, or {@code null} to select holders without the attribute.
+     * @return this query.
+     */
+    @NotNull
+    public <A> ServiceQuery<T> whereEquals(@NotNull final ServiceAttribute<A> attribute, @Nullable final A value) {
+        this.conditions.add(new Condition(attribute, false, value, null));
+        return this;
+    }
+
+    /**
+     * Adds a condition requiring the attribute to be within the specified inclusive range.
+     * Holders without the attribute never match a range condition.
+     *
+     * @param <A>       the type of the attribute value
+     * @param attribute the attribute to compare.
+     *                  Must not be {@code null}.
+     * @param from      the lower bound, or {@code null} if the range is not bounded below.
+     * @param to        the upper bound, or {@code null} if the range is not bounded above.
+     * @return this query.
+     */
+    @NotNull
+    public <A extends Comparable<? super A>> ServiceQuery<T> whereBetween(@NotNull final ServiceAttribute<A> attribute,
+                                                                          @Nullable final A from, @Nullable final A to) {
+        this.conditions.add(new Condition(attribute, true, from, to));
+        return this;
+    }
+
+    /**
+     * Evaluates the query.
+     *
+     * @return an array of the service holders matching all the conditions.
+     * The returned array is never {@code null} but may be empty if no matching service holders are found.
+     * @see IAttributedServiceManager#executeQuery(ServiceQuery)
+     */
+    @NotNull
+    public T[] execute() {
+        return this.manager.executeQuery(this);
+    }
+
+    /**
+     * Retrieves a snapshot of the conditions of the query,
+     * which is suitable as a key of a result cache.
+     *
+     * @return an unmodifiable list of the conditions.
+     */
+    @NotNull
+    List<Condition> getConditions() {
+        return Collections.unmodifiableList(new ArrayList<>(this.conditions));
+    }
+
+    /**
+     * A single condition of a query.
+     * An equality condition stores its value in {@code from}.
+     */
+    @RequiredArgsConstructor
+    @FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+    @Getter
+    @EqualsAndHashCode
+    static final class Condition {
+        @NotNull ServiceAttribute<?> attribute;
+        boolean range;
+        @Nullable Object from;
+        @Nullable Object to;
+
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        boolean matches(@NotNull final IAttributedServiceHolder<?> holder) {
+            final Object value = holder.getAttribute(this.attribute);
+            if (!this.range) {
+                return this.from == null ? value == null : this.from.equals(value);
+            }
+            if (value == null) {
+                return false;
+            }
+            final Comparable c = (Comparable) value;
+            return (this.from == null || c.compareTo(this.from) >= 0)
+                    && (this.to == null || c.compareTo(this.to) <= 0);
+        }
+    }
+}
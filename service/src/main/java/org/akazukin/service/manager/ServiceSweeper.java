@@ -0,0 +1,62 @@
+package org.akazukin.service.manager;
+
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import org.jetbrains.annotations.NotNull;
+
+import java.lang.ref.WeakReference;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A periodic task releasing the idle evictable services of a manager.
+ * The manager is only weakly referenced, and the task stops once it has been garbage collected.
+ */
+@RequiredArgsConstructor(access = AccessLevel.PRIVATE)
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+final class ServiceSweeper implements Runnable {
+    WeakReference<ASingleServiceManager<?, ?>> manager;
+
+    /**
+     * Schedules a sweeper for the specified manager.
+     *
+     * @param manager the manager to sweep.
+     *                Must not be {@code null}.
+     * @param period  the period between two sweeps, in nanoseconds.
+     * @return the scheduled sweeper.
+     * Must not be {@code null}.
+     */
+    @NotNull
+    static ScheduledFuture<?> schedule(@NotNull final ASingleServiceManager<?, ?> manager, final long period) {
+        return Scheduler.SCHEDULER.scheduleWithFixedDelay(new ServiceSweeper(new WeakReference<>(manager)),
+                period, period, TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public void run() {
+        final ASingleServiceManager<?, ?> m = this.manager.get();
+        if (m == null) {
+            // Failing the task is the only way for a periodic task to cancel itself
+            throw new CancellationException();
+        }
+        m.evictIdleServices();
+    }
+
+    /**
+     * Holds the scheduler running the sweepers, which is only started once an evictable service is registered.
+     */
+    private static final class Scheduler {
+        static final ScheduledThreadPoolExecutor SCHEDULER = new ScheduledThreadPoolExecutor(1, r -> {
+            final Thread thread = new Thread(r, "ServiceManager-Sweeper");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        static {
+            SCHEDULER.setRemoveOnCancelPolicy(true);
+        }
+    }
+}
@@ -0,0 +1,140 @@
+package org.akazukin.service.manager;
+
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import org.akazukin.annotation.marker.ThreadSafe;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * A registry of futures waiting for services which are not registered yet, indexed by the awaited class.
+ * Publishing a service costs a single map probe regardless of the number of awaited classes.
+ * <p>
+ * The futures are completed through {@link DeferredCompletions}, so the continuations of the callers
+ * never run under the lock of a manager.
+ * A future completed or cancelled by its caller is removed right away, so it does not wait for a service
+ * which may never be registered.
+ */
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+@ThreadSafe
+final class ServiceWaiters {
+    public static final String EXCE_AWAIT_TIMEOUT = "The service was not registered in time; Class:";
+
+    Map<Class<?>, List<Waiter>> waiters = new ConcurrentHashMap<>();
+
+    /**
+     * Adds a future waiting for a service of the specified class.
+     * The caller must make sure the service is not registered yet while holding the lock of its manager.
+     *
+     * @param <U2>     the type of the awaited service
+     * @param key      the awaited interface or implementation class.
+     *                 Must not be {@code null}.
+     * @param executor the executor completing the future, or {@code null} to complete it on the registering thread.
+     * @param timeout  the maximum time to wait, or a non-positive value to wait indefinitely.
+     * @param unit     the time unit of {@code timeout}.
+     *                 Must not be {@code null}.
+     * @return a future completed with the service once it is published.
+     */
+    @NotNull
+    <U2> CompletableFuture<U2> add(@NotNull final Class<U2> key, @Nullable final Executor executor,
+                                   final long timeout, @NotNull final TimeUnit unit) {
+        final CompletableFuture<U2> future = new CompletableFuture<>();
+        final Waiter waiter = new Waiter(future, executor);
+        this.waiters.compute(key, (k, l) -> {
+            final List<Waiter> list = l == null ? new ArrayList<>() : l;
+            list.add(waiter);
+            return list;
+        });
+        if (timeout > 0) {
+            final ScheduledFuture<?> expiry = Timer.SCHEDULER.schedule(
+                    () -> future.completeExceptionally(new TimeoutException(EXCE_AWAIT_TIMEOUT + key.getName())),
+                    timeout, unit);
+            future.whenComplete((r, e) -> expiry.cancel(false));
+        }
+        future.whenComplete((r, e) -> this.remove(key, waiter));
+        return future;
+    }
+
+    private void remove(@NotNull final Class<?> key, @NotNull final Waiter waiter) {
+        this.waiters.computeIfPresent(key, (k, l) -> l.remove(waiter) && l.isEmpty() ? null : l);
+    }
+
+    /**
+     * Completes all the futures waiting for the specified class with the published service,
+     * once the current thread has released the locks of the managers.
+     *
+     * @param key     the interface or implementation class of the published service.
+     *                Must not be {@code null}.
+     * @param service the supplier of the published service, only called if a future is waiting for it.
+     *                Must not be {@code null}.
+     */
+    void publish(@NotNull final Class<?> key, @NotNull final Supplier<?> service) {
+        final List<Waiter> list = this.waiters.remove(key);
+        if (list == null) {
+            return;
+        }
+        DeferredCompletions.defer(() -> {
+            final Object impl;
+            try {
+                impl = service.get();
+            } catch (final RuntimeException e) {
+                for (final Waiter waiter : list) {
+                    waiter.future.completeExceptionally(e);
+                }
+                return;
+            }
+            for (final Waiter waiter : list) {
+                waiter.complete(impl);
+            }
+        });
+    }
+
+    @RequiredArgsConstructor
+    @FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+    private static final class Waiter {
+        CompletableFuture<?> future;
+        Executor executor;
+
+        @SuppressWarnings("unchecked")
+        void complete(final Object service) {
+            final CompletableFuture<Object> f = (CompletableFuture<Object>) this.future;
+            if (this.executor == null) {
+                f.complete(service);
+                return;
+            }
+            try {
+                this.executor.execute(() -> f.complete(service));
+            } catch (final RuntimeException e) {
+                f.completeExceptionally(e);
+            }
+        }
+    }
+
+    /**
+     * Holds the scheduler expiring the futures, which is only started once a timeout is requested.
+     */
+    private static final class Timer {
+        static final ScheduledThreadPoolExecutor SCHEDULER = new ScheduledThreadPoolExecutor(1, r -> {
+            final Thread thread = new Thread(r, "ServiceWaiters-Timer");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        static {
+            SCHEDULER.setRemoveOnCancelPolicy(true);
+        }
+    }
+}
@@ -0,0 +1,283 @@
+package org.akazukin.service.pool;
+
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.FieldDefaults;
+import org.akazukin.annotation.marker.ThreadSafe;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.lang.ref.WeakReference;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * A bounded pool of instances of a service which is not thread-safe.
+ * <p>
+ * Each thread remembers the instance it used last and tries to reclaim it first,
+ * so a thread repeatedly borrowing and releasing hits the same instance without contention.
+ * Otherwise the shared list of instances is scanned and an idle instance is claimed with a CAS operation,
+ * so borrowing and releasing an existing instance never takes a lock.
+ * Only creating a new instance and trimming instances copy the list of instances under its internal lock.
+ * Threads remember their last instance through a weak reference, so trimmed instances can be collected
+ * even if the threads which used them live on.
+ * Instances idle for longer than the idle timeout are trimmed down to the minimum size
+ * by a background task, which only weakly references the pool and stops once the pool is collected.
+ *
+ * @param <T> the type of the pooled service
+ */
+@FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+@ThreadSafe
+public final class ServicePool<T> implements AutoCloseable {
+    public static final String EXCE_POOL_EXHAUSTED = "All the instances of the pooled service are in use; Max size:";
+    public static final String EXCE_NOT_BORROWED = "The instance was not borrowed from the pool; Implementation:";
+
+    private static final int IDLE = 0;
+    private static final int IN_USE = 1;
+    private static final int REMOVED = 2;
+
+    Supplier<? extends T> factory;
+    int minSize;
+    int maxSize;
+    long idleTimeout;
+
+    List<Entry<T>> entries = new CopyOnWriteArrayList<>();
+    AtomicInteger size = new AtomicInteger();
+    ThreadLocal<WeakReference<Entry<T>>> lastUsed = new ThreadLocal<>();
+    @Nullable ScheduledFuture<?> trimmer;
+
+    /**
+     * Constructs a pool and eagerly creates {@code minSize} instances.
+     *
+     * @param factory     the factory creating new instances.
+     *                    Must not be {@code null}.
+     * @param minSize     the number of instances kept even when idle.
+     *                    Must not be negative.
+     * @param maxSize     the maximum number of instances.
+     *                    Must be positive and not less than {@code minSize}.
+     * @param idleTimeout the time after which an idle instance above {@code minSize} is trimmed,
+     *                    or a non-positive value to never trim instances.
+     * @param unit        the time unit of {@code idleTimeout}.
+     *                    Must not be {@code null}.
+     * @throws IllegalArgumentException if the sizes are out of range.
+     */
+    public ServicePool(@NotNull final Supplier<? extends T> factory, final int minSize, final int maxSize,
+                       final long idleTimeout, @NotNull final TimeUnit unit) {
+        if (minSize < 0 || maxSize <= 0 || minSize > maxSize) {
+            throw new IllegalArgumentException("The pool sizes must satisfy 0 <= minSize <= maxSize and 0 < maxSize");
+        }
+        this.factory = factory;
+        this.minSize = minSize;
+        this.maxSize = maxSize;
+        this.idleTimeout = unit.toNanos(idleTimeout);
+
+        for (int i = 0; i < minSize; i++) {
+            this.entries.add(new Entry<>(factory.get(), IDLE));
+        }
+        this.size.set(minSize);
+
+        if (this.idleTimeout > 0) {
+            final long period = Math.max(this.idleTimeout / 2, TimeUnit.MILLISECONDS.toNanos(1));
+            this.trimmer = Trimmer.schedule(this, period);
+        } else {
+            this.trimmer = null;
+        }
+    }
+
+    /**
+     * Borrows an instance from the pool, creating a new one if all the instances are in use
+     * and the pool has not reached its maximum size.
+     * Every borrowed instance must be returned with {@link #release(Object)}.
+     * If the factory fails, the failure is propagated and the pool does not count the instance.
+     *
+     * @return a borrowed instance.
+     * Must not be {@code null}.
+     * @throws IllegalStateException if all the instances are in use and the pool is full.
+     */
+    @NotNull
+    public T borrow() {
+        final Entry<T> last = this.getLastUsed();
+        if (last != null && last.state.compareAndSet(IDLE, IN_USE)) {
+            return last.instance;
+        }
+
+        for (final Entry<T> entry : this.entries) {
+            if (entry.state.compareAndSet(IDLE, IN_USE)) {
+                this.setLastUsed(entry);
+                return entry.instance;
+            }
+        }
+
+        if (this.size.incrementAndGet() > this.maxSize) {
+            this.size.decrementAndGet();
+            throw new IllegalStateException(EXCE_POOL_EXHAUSTED + this.maxSize);
+        }
+        final T instance;
+        try {
+            instance = this.factory.get();
+        } catch (final RuntimeException | Error e) {
+            this.size.decrementAndGet();
+            throw e;
+        }
+        final Entry<T> entry = new Entry<>(instance, IN_USE);
+        this.entries.add(entry);
+        this.setLastUsed(entry);
+        return entry.instance;
+    }
+
+    @Nullable
+    private Entry<T> getLastUsed() {
+        final WeakReference<Entry<T>> ref = this.lastUsed.get();
+        return ref == null ? null : ref.get();
+    }
+
+    private void setLastUsed(@NotNull final Entry<T> entry) {
+        if (this.getLastUsed() != entry) {
+            this.lastUsed.set(new WeakReference<>(entry));
+        }
+    }
+
+    /**
+     * Returns an instance borrowed by {@link #borrow()} to the pool.
+     *
+     * @param instance the borrowed instance.
+     *                 Must not be {@code null}.
+     * @throws IllegalStateException if the instance was not borrowed from this pool.
+     */
+    public void release(@NotNull final T instance) {
+        Entry<T> entry = this.getLastUsed();
+        if (entry == null || entry.instance != instance) {
+            entry = null;
+            for (final Entry<T> e : this.entries) {
+                if (e.instance == instance) {
+                    entry = e;
+                    break;
+                }
+            }
+        }
+        if (entry == null) {
+            throw new IllegalStateException(EXCE_NOT_BORROWED + instance.getClass().getName());
+        }
+
+        entry.lastReleased = System.nanoTime();
+        if (!entry.state.compareAndSet(IN_USE, IDLE)) {
+            throw new IllegalStateException(EXCE_NOT_BORROWED + instance.getClass().getName());
+        }
+        this.setLastUsed(entry);
+    }
+
+    /**
+     * Borrows an instance, applies the specified function to it and releases it.
+     *
+     * @param <R>      the type of the result
+     * @param function the function to apply.
+     *                 Must not be {@code null}.
+     * @return the result of the function.
+     * @throws IllegalStateException if all the instances are in use and the pool is full.
+     */
+    public <R> R with(@NotNull final Function<? super T, ? extends R> function) {
+        final T instance = this.borrow();
+        try {
+            return function.apply(instance);
+        } finally {
+            this.release(instance);
+        }
+    }
+
+    /**
+     * Removes the instances idle for longer than the idle timeout, keeping at least the minimum size.
+     */
+    public void trim() {
+        if (this.idleTimeout <= 0) {
+            return;
+        }
+        final long now = System.nanoTime();
+        for (final Entry<T> entry : this.entries) {
+            final int current = this.size.get();
+            if (current <= this.minSize) {
+                return;
+            }
+            if (now - entry.lastReleased >= this.idleTimeout
+                    && this.size.compareAndSet(current, current - 1)) {
+                if (entry.state.compareAndSet(IDLE, REMOVED)) {
+                    this.entries.remove(entry);
+                } else {
+                    this.size.incrementAndGet();
+                }
+            }
+        }
+    }
+
+    /**
+     * Retrieves the number of instances currently held by the pool, including the borrowed ones.
+     *
+     * @return the number of instances.
+     */
+    public int getSize() {
+        return this.size.get();
+    }
+
+    /**
+     * Stops trimming the pool in the background. Borrowed instances may still be released afterward.
+     */
+    @Override
+    public void close() {
+        if (this.trimmer != null) {
+            this.trimmer.cancel(false);
+        }
+    }
+
+    @FieldDefaults(level = AccessLevel.PRIVATE)
+    private static final class Entry<T> {
+        final T instance;
+        final AtomicInteger state;
+        volatile long lastReleased = System.nanoTime();
+
+        Entry(final T instance, final int state) {
+            this.instance = instance;
+            this.state = new AtomicInteger(state);
+        }
+    }
+
+    /**
+     * A periodic task trimming a pool, which only weakly references the pool and stops once it has been collected.
+     * Holds the scheduler trimming the pools, which is only started once a pool with an idle timeout is created.
+     */
+    @RequiredArgsConstructor(access = AccessLevel.PRIVATE)
+    @FieldDefaults(level = AccessLevel.PRIVATE, makeFinal = true)
+    private static final class Trimmer implements Runnable {
+        static final ScheduledThreadPoolExecutor SCHEDULER = new ScheduledThreadPoolExecutor(1, r -> {
+            final Thread thread = new Thread(r, "ServicePool-Trimmer");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        static {
+            SCHEDULER.setRemoveOnCancelPolicy(true);
+        }
+
+        WeakReference<ServicePool<?>> pool;
+
+        @NotNull
+        static ScheduledFuture<?> schedule(@NotNull final ServicePool<?> pool, final long period) {
+            return SCHEDULER.scheduleWithFixedDelay(new Trimmer(new WeakReference<>(pool)), period, period, TimeUnit.NANOSECONDS);
+        }
+
+        @Override
+        public void run() {
+            final ServicePool<?> p = this.pool.get();
+            if (p == null) {
+                // Failing the task is the only way for a periodic task to cancel itself
+                throw new CancellationException();
+            }
+            p.trim();
+        }
+    }
+}
@@ -0,0 +1,8 @@
+/**
+ * Provides pooling of service instances.
+ * <p>
+ * This package contains the pool which lets a service that is not thread-safe
+ * be registered as a factory and borrowed by many threads concurrently,
+ * each of them using its own instance.
+ */
+package org.akazukin.service.pool;
@@ -0,0 +1,187 @@
+package org.akazukin.service.guard;
+
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Field;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class CircuitBreakerTest {
+    private static final long FAST = 0;
+    private static final long SLOW = TimeUnit.SECONDS.toNanos(10);
+
+    private static void call(final CircuitBreaker breaker, final boolean failed) {
+        final CircuitBreaker.Permission permission = breaker.tryAcquirePermission();
+        assertNotNull(permission);
+        breaker.onResult(permission, FAST, failed);
+    }
+
+    private static CircuitBreaker trip(final long openSeconds, final int halfOpenCalls) {
+        final CircuitBreaker breaker = new CircuitBreaker(4, 0.5f, 1, 1f, openSeconds, halfOpenCalls, TimeUnit.SECONDS);
+        call(breaker, false);
+        call(breaker, false);
+        call(breaker, true);
+        call(breaker, true);
+        assertSame(CircuitBreaker.State.OPEN, breaker.getState());
+        return breaker;
+    }
+
+    @Test
+    void rejectsInvalidArguments() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new CircuitBreaker(0, 0.5f, 1, 0.5f, 1, 1, TimeUnit.SECONDS));
+        assertThrows(IllegalArgumentException.class,
+                () -> new CircuitBreaker(4, 0f, 1, 0.5f, 1, 1, TimeUnit.SECONDS));
+        assertThrows(IllegalArgumentException.class,
+                () -> new CircuitBreaker(4, 0.5f, 1, 1.5f, 1, 1, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void staysClosedUntilTheWindowIsFull() {
+        final CircuitBreaker breaker = new CircuitBreaker(4, 0.5f, 1, 1f, 1, 1, TimeUnit.SECONDS);
+        call(breaker, true);
+        call(breaker, true);
+        call(breaker, true);
+        assertSame(CircuitBreaker.State.CLOSED, breaker.getState());
+        call(breaker, true);
+        assertSame(CircuitBreaker.State.OPEN, breaker.getState());
+    }
+
+    @Test
+    void opensOnSlowCallRate() {
+        final CircuitBreaker breaker = new CircuitBreaker(2, 1f, 1, 0.5f, 1, 1, TimeUnit.SECONDS);
+        breaker.onResult(breaker.tryAcquirePermission(), FAST, false);
+        breaker.onResult(breaker.tryAcquirePermission(), SLOW, false);
+        assertSame(CircuitBreaker.State.OPEN, breaker.getState());
+    }
+
+    @Test
+    void rejectsWhileOpen() {
+        final CircuitBreaker breaker = trip(60, 1);
+        assertNull(breaker.tryAcquirePermission());
+        assertSame(CircuitBreaker.State.OPEN, breaker.getState());
+    }
+
+    @Test
+    void permitsOnlyTheHalfOpenTrials() {
+        final CircuitBreaker breaker = trip(0, 2);
+        assertNotNull(breaker.tryAcquirePermission());
+        assertSame(CircuitBreaker.State.HALF_OPEN, breaker.getState());
+        assertNotNull(breaker.tryAcquirePermission());
+        assertNull(breaker.tryAcquirePermission());
+    }
+
+    @Test
+    void rejectedTrialsDoNotGrowTheCounter() throws ReflectiveOperationException {
+        final CircuitBreaker breaker = trip(0, 2);
+        final CircuitBreaker.Permission first = breaker.tryAcquirePermission();
+        assertNotNull(first);
+        assertNotNull(breaker.tryAcquirePermission());
+        for (int i = 0; i < 1000; i++) {
+            assertNull(breaker.tryAcquirePermission());
+        }
+        final Field field = CircuitBreaker.Permission.class.getDeclaredField("permits");
+        field.setAccessible(true);
+        final AtomicInteger permits = (AtomicInteger) field.get(first);
+        assertEquals(2, permits.get());
+
+        permits.set(Integer.MAX_VALUE);
+        assertNull(breaker.tryAcquirePermission());
+        assertEquals(Integer.MAX_VALUE, permits.get());
+    }
+
+    @Test
+    void closesWithAFreshWindowAfterSuccessfulTrials() {
+        final CircuitBreaker breaker = trip(0, 2);
+        final CircuitBreaker.Permission first = breaker.tryAcquirePermission();
+        final CircuitBreaker.Permission second = breaker.tryAcquirePermission();
+        breaker.onResult(first, FAST, false);
+        assertSame(CircuitBreaker.State.HALF_OPEN, breaker.getState());
+        breaker.onResult(second, FAST, false);
+        assertSame(CircuitBreaker.State.CLOSED, breaker.getState());
+
+        call(breaker, true);
+        call(breaker, true);
+        call(breaker, true);
+        assertSame(CircuitBreaker.State.CLOSED, breaker.getState());
+    }
+
+    @Test
+    void reopensOnAFailedTrial() {
+        final CircuitBreaker breaker = trip(0, 2);
+        breaker.onResult(breaker.tryAcquirePermission(), FAST, true);
+        assertSame(CircuitBreaker.State.OPEN, breaker.getState());
+    }
+
+    @Test
+    void reopensOnASlowTrial() {
+        final CircuitBreaker breaker = trip(0, 2);
+        breaker.onResult(breaker.tryAcquirePermission(), SLOW, false);
+        assertSame(CircuitBreaker.State.OPEN, breaker.getState());
+    }
+
+    @Test
+    void ignoresOutcomesOfEarlierPhases() {
+        final CircuitBreaker breaker = new CircuitBreaker(4, 0.5f, 1, 1f, 0, 1, TimeUnit.SECONDS);
+        final CircuitBreaker.Permission stale = breaker.tryAcquirePermission();
+        call(breaker, false);
+        call(breaker, false);
+        call(breaker, true);
+        call(breaker, true);
+        assertSame(CircuitBreaker.State.OPEN, breaker.getState());
+
+        final CircuitBreaker.Permission trial = breaker.tryAcquirePermission();
+        assertSame(CircuitBreaker.State.HALF_OPEN, breaker.getState());
+        breaker.onResult(stale, FAST, false);
+        assertSame(CircuitBreaker.State.HALF_OPEN, breaker.getState());
+        breaker.onResult(stale, FAST, true);
+        assertSame(CircuitBreaker.State.HALF_OPEN, breaker.getState());
+
+        breaker.onResult(trial, FAST, false);
+        assertSame(CircuitBreaker.State.CLOSED, breaker.getState());
+        breaker.onResult(trial, FAST, true);
+        assertSame(CircuitBreaker.State.CLOSED, breaker.getState());
+    }
+
+    @Test
+    void permitsNoMoreTrialsThanConfiguredUnderContention() throws Exception {
+        final int threads = 8;
+        final ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            for (int round = 0; round < 200; round++) {
+                final CircuitBreaker breaker = trip(0, 3);
+                final CountDownLatch start = new CountDownLatch(1);
+                final AtomicInteger permitted = new AtomicInteger();
+                final Future<?>[] futures = new Future<?>[threads];
+                for (int i = 0; i < threads; i++) {
+                    futures[i] = executor.submit(() -> {
+                        start.await();
+                        for (int j = 0; j < 4; j++) {
+                            if (breaker.tryAcquirePermission() != null) {
+                                permitted.incrementAndGet();
+                            }
+                        }
+                        return null;
+                    });
+                }
+                start.countDown();
+                for (final Future<?> future : futures) {
+                    future.get();
+                }
+                assertEquals(3, permitted.get());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
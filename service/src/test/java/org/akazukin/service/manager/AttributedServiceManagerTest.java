@@ -0,0 +1,155 @@
+package org.akazukin.service.manager;
+
+import org.akazukin.service.data.IAttributedServiceHolder;
+import org.akazukin.service.data.ServiceAttribute;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class AttributedServiceManagerTest {
+    private static final ServiceAttribute<String> REGION = ServiceAttribute.of("region", String.class);
+    private static final ServiceAttribute<Integer> WEIGHT = ServiceAttribute.of("weight", Integer.class);
+
+    private final Svc a = new A();
+    private final Svc b = new B();
+    private final Svc c = new C();
+    private final Svc d = new D();
+    private AttributedServiceManager<Svc> manager;
+
+    private static Set<Object> services(final IAttributedServiceHolder<? extends Svc>[] holders) {
+        return Arrays.stream(holders).map(IAttributedServiceHolder::getImplementation).collect(Collectors.toSet());
+    }
+
+    private static Set<Object> setOf(final Object... services) {
+        return new HashSet<>(Arrays.asList(services));
+    }
+
+    @BeforeEach
+    void setUp() {
+        this.manager = new AttributedServiceManager<>(Svc.class);
+        for (final Svc service : new Svc[]{this.a, this.b, this.c, this.d}) {
+            this.manager.registerService(service);
+        }
+        this.manager.setAttribute(this.a, REGION, "eu");
+        this.manager.setAttribute(this.b, REGION, "us");
+        this.manager.setAttribute(this.c, REGION, "eu");
+        this.manager.setAttribute(this.a, WEIGHT, 10);
+        this.manager.setAttribute(this.b, WEIGHT, 20);
+        this.manager.setAttribute(this.c, WEIGHT, 30);
+    }
+
+    private void declareIndexes() {
+        this.manager.declareHashIndex(REGION);
+        this.manager.declareSortedIndex(WEIGHT);
+    }
+
+    private void assertQueries() {
+        assertEquals(setOf(this.a, this.c), services(this.manager.query().whereEquals(REGION, "eu").execute()));
+        assertEquals(setOf(this.d), services(this.manager.query().whereEquals(REGION, null).execute()));
+        assertEquals(setOf(), services(this.manager.query().whereEquals(REGION, "ap").execute()));
+        assertEquals(setOf(this.a, this.b), services(this.manager.query().whereBetween(WEIGHT, 10, 20).execute()));
+        assertEquals(setOf(this.b, this.c), services(this.manager.query().whereBetween(WEIGHT, 15, null).execute()));
+        assertEquals(setOf(this.a, this.b, this.c), services(this.manager.query().whereBetween(WEIGHT, null, null).execute()));
+        assertEquals(setOf(this.c),
+                services(this.manager.query().whereEquals(REGION, "eu").whereBetween(WEIGHT, 20, null).execute()));
+        assertEquals(setOf(this.a, this.b, this.c, this.d), services(this.manager.query().execute()));
+    }
+
+    @Test
+    void scansWithoutIndexes() {
+        this.assertQueries();
+    }
+
+    @Test
+    void indexesMatchTheScan() {
+        this.declareIndexes();
+        this.assertQueries();
+    }
+
+    @Test
+    void mixesIndexedAndScannedConditions() {
+        this.manager.declareHashIndex(REGION);
+        assertEquals(setOf(this.c),
+                services(this.manager.query().whereEquals(REGION, "eu").whereBetween(WEIGHT, 11, 30).execute()));
+    }
+
+    @Test
+    void setAttributeUpdatesIndexesAndCachedResults() {
+        this.declareIndexes();
+        assertEquals(setOf(this.a, this.c), services(this.manager.query().whereEquals(REGION, "eu").execute()));
+        assertEquals(setOf(this.b, this.c), services(this.manager.query().whereBetween(WEIGHT, 20, 30).execute()));
+
+        this.manager.setAttribute(this.c, REGION, "us");
+        this.manager.setAttribute(this.a, WEIGHT, 25);
+        this.manager.setAttribute(this.b, WEIGHT, null);
+        assertEquals(setOf(this.a), services(this.manager.query().whereEquals(REGION, "eu").execute()));
+        assertEquals(setOf(this.a, this.c), services(this.manager.query().whereBetween(WEIGHT, 20, 30).execute()));
+        assertEquals("us", this.manager.getAttribute(this.c, REGION));
+        assertNull(this.manager.getAttribute(this.b, WEIGHT));
+    }
+
+    @Test
+    void unregisteredServicesLeaveTheResults() {
+        this.declareIndexes();
+        assertEquals(setOf(this.a, this.c), services(this.manager.query().whereEquals(REGION, "eu").execute()));
+        this.manager.unregisterService(this.a);
+        assertEquals(setOf(this.c), services(this.manager.query().whereEquals(REGION, "eu").execute()));
+        assertEquals(setOf(this.b, this.c), services(this.manager.query().whereBetween(WEIGHT, null, null).execute()));
+
+        this.manager.setAttribute(this.a, REGION, "ap");
+        assertNull(this.manager.getAttribute(this.a, REGION));
+        assertEquals(setOf(), services(this.manager.query().whereEquals(REGION, "ap").execute()));
+    }
+
+    @Test
+    void registeredServicesStartWithoutAttributes() {
+        this.declareIndexes();
+        this.manager.unregisterService(this.a);
+        this.manager.registerService(this.a);
+        assertNull(this.manager.getAttribute(this.a, REGION));
+        assertEquals(setOf(this.a, this.d), services(this.manager.query().whereEquals(REGION, null).execute()));
+    }
+
+    @Test
+    void cachedResultsAreCopied() {
+        final IAttributedServiceHolder<? extends Svc>[] first = this.manager.query().whereEquals(REGION, "eu").execute();
+        first[0] = null;
+        final IAttributedServiceHolder<? extends Svc>[] second = this.manager.query().whereEquals(REGION, "eu").execute();
+        assertNotSame(first, second);
+        assertEquals(setOf(this.a, this.c), services(second));
+    }
+
+    @Test
+    void staysCorrectBeyondTheCachedQueries() {
+        this.manager.declareSortedIndex(WEIGHT);
+        for (int round = 0; round < 2; round++) {
+            for (int from = 0; from < AAttributedServiceManager.MAX_CACHED_QUERIES * 2; from++) {
+                final int expected = (from <= 10 ? 1 : 0) + (from <= 20 ? 1 : 0) + (from <= 30 ? 1 : 0);
+                assertEquals(expected, this.manager.query().whereBetween(WEIGHT, from, null).execute().length);
+            }
+        }
+    }
+
+    interface Svc {
+    }
+
+    static final class A implements Svc {
+    }
+
+    static final class B implements Svc {
+    }
+
+    static final class C implements Svc {
+    }
+
+    static final class D implements Svc {
+    }
+}
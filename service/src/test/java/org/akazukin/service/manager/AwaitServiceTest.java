@@ -0,0 +1,159 @@
+package org.akazukin.service.manager;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AwaitServiceTest {
+    private final Thread.UncaughtExceptionHandler handler = Thread.currentThread().getUncaughtExceptionHandler();
+
+    @AfterEach
+    void restoreHandler() {
+        Thread.currentThread().setUncaughtExceptionHandler(this.handler);
+    }
+
+    @Test
+    void completesOnRegistration() throws Exception {
+        final BlueprintedServiceManager<Svc> manager = new BlueprintedServiceManager<>(Svc.class);
+        final CompletableFuture<A> byImplementation = manager.awaitServiceByImplementation(A.class);
+        final CompletableFuture<Svc> byInterface = manager.awaitServiceByInterface(Svc.class);
+        assertFalse(byImplementation.isDone());
+        assertFalse(byInterface.isDone());
+
+        final A service = new A();
+        manager.registerService(Svc.class, service);
+        assertSame(service, byImplementation.get());
+        assertSame(service, byInterface.get());
+    }
+
+    @Test
+    void completesImmediatelyIfRegistered() {
+        final ServiceManager<Svc> manager = new ServiceManager<>(Svc.class);
+        final A service = new A();
+        manager.registerService(service);
+        final CompletableFuture<A> future = manager.awaitServiceByImplementation(A.class);
+        assertTrue(future.isDone());
+        assertSame(service, future.join());
+    }
+
+    @Test
+    void expiresAfterTheTimeout() throws InterruptedException {
+        final ServiceManager<Svc> manager = new ServiceManager<>(Svc.class);
+        final CompletableFuture<A> future = manager.awaitServiceByImplementation(A.class, null, 20, TimeUnit.MILLISECONDS);
+        final ExecutionException e = assertThrows(ExecutionException.class, () -> future.get(5, TimeUnit.SECONDS));
+        assertTrue(e.getCause() instanceof TimeoutException);
+
+        manager.registerService(new A());
+        assertTrue(future.isCompletedExceptionally());
+    }
+
+    @Test
+    void registrationWithinTheTimeoutWins() throws Exception {
+        final ServiceManager<Svc> manager = new ServiceManager<>(Svc.class);
+        final CompletableFuture<A> future = manager.awaitServiceByImplementation(A.class, null, 10, TimeUnit.SECONDS);
+        final A service = new A();
+        manager.registerService(service);
+        assertSame(service, future.get(1, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void completesThroughTheExecutor() {
+        final ServiceManager<Svc> manager = new ServiceManager<>(Svc.class);
+        final List<Runnable> tasks = new ArrayList<>();
+        final CompletableFuture<A> future = manager.awaitServiceByImplementation(A.class, tasks::add, 0, TimeUnit.SECONDS);
+
+        manager.registerService(new A());
+        assertFalse(future.isDone());
+        assertEquals(1, tasks.size());
+        tasks.get(0).run();
+        assertTrue(future.isDone());
+    }
+
+    @Test
+    void failsWhenTheExecutorRejects() {
+        final ServiceManager<Svc> manager = new ServiceManager<>(Svc.class);
+        final Executor rejecting = task -> {
+            throw new RejectedExecutionException();
+        };
+        final CompletableFuture<A> rejected = manager.awaitServiceByImplementation(A.class, rejecting, 0, TimeUnit.SECONDS);
+        final CompletableFuture<A> inline = manager.awaitServiceByImplementation(A.class);
+
+        manager.registerService(new A());
+        assertTrue(rejected.isCompletedExceptionally());
+        assertTrue(inline.isDone() && !inline.isCompletedExceptionally());
+    }
+
+    @Test
+    void completesAfterTheLockIsReleased() {
+        final ServiceManager<Svc> manager = new ServiceManager<>(Svc.class);
+        final AtomicBoolean locked = new AtomicBoolean(true);
+        manager.awaitServiceByImplementation(A.class).thenRun(() -> locked.set(manager.mutatorLock.isHeldByCurrentThread()));
+
+        manager.registerService(new A());
+        assertFalse(locked.get());
+    }
+
+    @Test
+    void continuationsSeeTheRegistrationCompleted() {
+        final ServiceManager<Svc> manager = new ServiceManager<>(Svc.class);
+        final AtomicReference<Svc[]> seen = new AtomicReference<>();
+        manager.awaitServiceByImplementation(A.class).thenRun(() -> seen.set(manager.getAllServices()));
+
+        manager.registerService(new A());
+        assertEquals(1, seen.get().length);
+    }
+
+    @Test
+    void failingCompletionsDoNotEscapeTheRegistration() {
+        final ServiceManager<Svc> manager = new ServiceManager<>(Svc.class);
+        final List<Throwable> reported = new ArrayList<>();
+        Thread.currentThread().setUncaughtExceptionHandler((t, e) -> reported.add(e));
+        final Executor throwing = task -> {
+            throw new IllegalStateException("executor");
+        };
+        final CompletableFuture<A> failed = manager.awaitServiceByImplementation(A.class, throwing, 0, TimeUnit.SECONDS);
+        final CompletableFuture<?> dependent = manager.awaitServiceByImplementation(A.class).thenRun(() -> {
+            throw new IllegalStateException("continuation");
+        });
+
+        manager.registerService(new A());
+        assertTrue(failed.isCompletedExceptionally());
+        assertTrue(dependent.isCompletedExceptionally());
+        assertTrue(reported.isEmpty());
+    }
+
+    @Test
+    void cancelledFuturesAreForgotten() {
+        final ServiceManager<Svc> manager = new ServiceManager<>(Svc.class);
+        final CompletableFuture<A> cancelled = manager.awaitServiceByImplementation(A.class);
+        assertTrue(cancelled.cancel(false));
+        final CompletableFuture<A> pending = manager.awaitServiceByImplementation(A.class);
+
+        final A service = new A();
+        manager.registerService(service);
+        assertTrue(cancelled.isCancelled());
+        assertSame(service, pending.join());
+    }
+
+    interface Svc {
+    }
+
+    static final class A implements Svc {
+    }
+}
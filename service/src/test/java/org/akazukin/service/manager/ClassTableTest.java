@@ -0,0 +1,83 @@
+package org.akazukin.service.manager;
+
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Array;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ClassTableTest {
+    private static final Class<?>[] BASES = {
+            Object.class, String.class, Integer.class, Long.class, Runnable.class, List.class, Thread.class, Number.class
+    };
+
+    private static Class<?>[] classes(final int count) {
+        final List<Class<?>> classes = new ArrayList<>(count);
+        for (int depth = 0; classes.size() < count; depth++) {
+            for (int i = 0; i < BASES.length && classes.size() < count; i++) {
+                Class<?> type = BASES[i];
+                for (int d = 0; d < depth; d++) {
+                    type = Array.newInstance(type, 0).getClass();
+                }
+                classes.add(type);
+            }
+        }
+        return classes.toArray(new Class<?>[0]);
+    }
+
+    private static int[] values(final int count) {
+        final int[] values = new int[count];
+        for (int i = 0; i < count; i++) {
+            values[i] = i * 3 + 1;
+        }
+        return values;
+    }
+
+    private static void assertMapped(final ClassTable table, final Class<?>[] keys, final int[] values) {
+        for (int i = 0; i < keys.length; i++) {
+            assertEquals(values[i], table.get(keys[i]));
+        }
+        assertEquals(-1, table.get(Void.class));
+        assertEquals(-1, table.get(ClassTableTest.class));
+    }
+
+    @Test
+    void mapsEveryKey() {
+        for (final int count : new int[]{1, 2, 3, 5, 17, 100, 1000}) {
+            final Class<?>[] keys = classes(count);
+            final int[] values = values(count);
+            assertMapped(new ClassTable(keys, values), keys, values);
+        }
+    }
+
+    @Test
+    void emptyTableMissesEverything() {
+        assertEquals(-1, new ClassTable(new Class<?>[0], new int[0]).get(Object.class));
+    }
+
+    @Test
+    void mapsKeysWithCollidingFingerprints() {
+        final Class<?>[] keys = classes(64);
+        final int[] values = values(64);
+        assertMapped(new ClassTable(keys, values, key -> 42L), keys, values);
+    }
+
+    @Test
+    void mapsKeysWithPartiallyCollidingFingerprints() {
+        final Class<?>[] keys = classes(200);
+        final int[] values = values(200);
+        final ClassTable table = new ClassTable(keys, values, key -> System.identityHashCode(key) % 7);
+        assertMapped(table, keys, values);
+    }
+
+    @Test
+    void mapsCollidingKeysAlongsideDistinctOnes() {
+        final Class<?>[] keys = classes(100);
+        final int[] values = values(100);
+        final ClassTable table = new ClassTable(keys, values,
+                key -> key == keys[3] || key == keys[40] || key == keys[77] ? -1L : System.identityHashCode(key));
+        assertMapped(table, keys, values);
+    }
+}
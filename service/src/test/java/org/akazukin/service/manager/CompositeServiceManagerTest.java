@@ -0,0 +1,234 @@
+package org.akazukin.service.manager;
+
+import org.akazukin.service.data.IBlueprintedServiceHolder;
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CompositeServiceManagerTest {
+    @SafeVarargs
+    @SuppressWarnings("unchecked")
+    private static CompositeServiceManager<IBlueprintedServiceHolder<? extends Svc>, Svc> composite(
+            @NotNull final BlueprintedServiceManager<Svc>... members) {
+        return new CompositeServiceManager<>(
+                (Class<IBlueprintedServiceHolder<? extends Svc>>) (Object) IBlueprintedServiceHolder.class, Svc.class, Arrays.asList(members));
+    }
+
+    @Test
+    void needsAMember() {
+        assertThrows(IllegalArgumentException.class, CompositeServiceManagerTest::composite);
+    }
+
+    @Test
+    void earlierMembersShadowLaterOnes() {
+        final BlueprintedServiceManager<Svc> first = new BlueprintedServiceManager<>(Svc.class);
+        final BlueprintedServiceManager<Svc> second = new BlueprintedServiceManager<>(Svc.class);
+        final A shadowed = new A();
+        second.registerService(Svc.class, shadowed);
+        final CompositeServiceManager<IBlueprintedServiceHolder<? extends Svc>, Svc> composite = composite(first, second);
+        assertSame(shadowed, composite.getServiceByInterface(Svc.class));
+
+        final A visible = new A();
+        first.registerService(Svc.class, visible);
+        assertSame(visible, composite.getServiceByInterface(Svc.class));
+        assertSame(visible, composite.getServiceByImplementation(A.class));
+        assertSame(first.getServiceHolderByInterface(Svc.class), composite.getServiceHolderByService(visible));
+        assertNull(composite.getServiceHolderByService(shadowed));
+        assertArrayEquals(new Object[]{visible}, composite.getAllServices());
+    }
+
+    @Test
+    void precedenceDoesNotDependOnTheOrderOfRegistration() {
+        final BlueprintedServiceManager<Svc> first = new BlueprintedServiceManager<>(Svc.class);
+        final BlueprintedServiceManager<Svc> second = new BlueprintedServiceManager<>(Svc.class);
+        final BlueprintedServiceManager<Svc> third = new BlueprintedServiceManager<>(Svc.class);
+        final CompositeServiceManager<IBlueprintedServiceHolder<? extends Svc>, Svc> composite = composite(first, second, third);
+        final A inThird = new A();
+        final A inSecond = new A();
+        third.registerService(Svc.class, inThird);
+        second.registerService(Svc.class, inSecond);
+        assertSame(inSecond, composite.getServiceByInterface(Svc.class));
+
+        final A inFirst = new A();
+        first.registerService(Svc.class, inFirst);
+        assertSame(inFirst, composite.getServiceByInterface(Svc.class));
+    }
+
+    @Test
+    void unregisteringTheWinnerRevealsTheNextMember() {
+        final BlueprintedServiceManager<Svc> first = new BlueprintedServiceManager<>(Svc.class);
+        final BlueprintedServiceManager<Svc> second = new BlueprintedServiceManager<>(Svc.class);
+        final CompositeServiceManager<IBlueprintedServiceHolder<? extends Svc>, Svc> composite = composite(first, second);
+        final List<String> events = new ArrayList<>();
+        composite.addServiceListener(new IServiceListener<IBlueprintedServiceHolder<? extends Svc>>() {
+            @Override
+            public void onServiceRegistered(@NotNull final IBlueprintedServiceHolder<? extends Svc> holder) {
+                events.add("+" + holder.getImplementation().getName());
+            }
+
+            @Override
+            public void onServiceUnregistered(@NotNull final IBlueprintedServiceHolder<? extends Svc> holder) {
+                events.add("-" + holder.getImplementation().getName());
+            }
+        });
+        first.registerService(Svc.class, new A("first"));
+        second.registerService(Svc.class, new A("second"));
+        assertEquals(Collections.singletonList("+first"), events);
+
+        first.unregisterServiceByInterface(Svc.class);
+        assertEquals(Arrays.asList("+first", "-first", "+second"), events);
+        assertEquals("second", composite.getServiceByInterface(Svc.class).getName());
+        assertEquals("second", composite.getServiceByImplementation(A.class).getName());
+
+        second.unregisterServiceByInterface(Svc.class);
+        assertNull(composite.getServiceByInterface(Svc.class));
+        assertNull(composite.getServiceByImplementation(A.class));
+        assertEquals(Arrays.asList("+first", "-first", "+second", "-second"), events);
+    }
+
+    @Test
+    void closingDetachesTheComposite() {
+        final BlueprintedServiceManager<Svc> member = new BlueprintedServiceManager<>(Svc.class);
+        final CompositeServiceManager<IBlueprintedServiceHolder<? extends Svc>, Svc> composite = composite(member);
+        composite.close();
+        member.registerService(Svc.class, new A());
+        assertNull(composite.getServiceByInterface(Svc.class));
+    }
+
+    @Test
+    void reportsConflictsSortedByKindAndName() {
+        final BlueprintedServiceManager<Svc> first = new BlueprintedServiceManager<>(Svc.class);
+        final BlueprintedServiceManager<Svc> second = new BlueprintedServiceManager<>(Svc.class);
+        final BlueprintedServiceManager<Svc> third = new BlueprintedServiceManager<>(Svc.class);
+        final CompositeServiceManager<IBlueprintedServiceHolder<? extends Svc>, Svc> composite = composite(first, second, third);
+        assertTrue(composite.getConflicts().isEmpty());
+
+        third.registerService(Svc.class, new B());
+        first.registerService(Other.class, new B());
+        second.registerService(Svc.class, new A());
+        third.registerService(Other.class, new A());
+        first.registerService(null, new C());
+
+        assertEquals(Arrays.asList(
+                new ServiceConflict(ServiceConflict.Kind.INTERFACE, Other.class, 0, Collections.singletonList(2)),
+                new ServiceConflict(ServiceConflict.Kind.INTERFACE, Svc.class, 1, Collections.singletonList(2)),
+                new ServiceConflict(ServiceConflict.Kind.IMPLEMENTATION, A.class, 1, Collections.singletonList(2)),
+                new ServiceConflict(ServiceConflict.Kind.IMPLEMENTATION, B.class, 0, Collections.singletonList(2))
+        ), composite.getConflicts());
+
+        first.registerService(Svc.class, new D());
+        assertEquals(new ServiceConflict(ServiceConflict.Kind.INTERFACE, Svc.class, 0, Arrays.asList(1, 2)),
+                composite.getConflicts().get(1));
+
+        third.unregisterServiceByImplementation(A.class);
+        third.unregisterServiceByImplementation(B.class);
+        assertEquals(Collections.singletonList(
+                new ServiceConflict(ServiceConflict.Kind.INTERFACE, Svc.class, 0, Collections.singletonList(1))
+        ), composite.getConflicts());
+    }
+
+    @Test
+    void leasesTheVisibleService() {
+        final BlueprintedServiceManager<Svc> first = new BlueprintedServiceManager<>(Svc.class);
+        final BlueprintedServiceManager<Svc> second = new BlueprintedServiceManager<>(Svc.class);
+        final CompositeServiceManager<IBlueprintedServiceHolder<? extends Svc>, Svc> composite = composite(first, second);
+        assertNull(composite.acquireByInterface(Svc.class));
+
+        final A visible = new A();
+        first.registerService(Svc.class, visible);
+        second.registerService(Svc.class, new A());
+        final ServiceLease<Svc> lease = composite.acquireByInterface(Svc.class);
+        assertSame(visible, lease.get());
+        final CompletableFuture<Void> drained = first.unregisterAndDrainByInterface(Svc.class);
+        assertFalse(drained.isDone());
+        lease.close();
+        assertTrue(drained.isDone());
+    }
+
+    @Test
+    void retriesTheLeaseWhenTheWinnerMoves() {
+        final AtomicBoolean unregistered = new AtomicBoolean();
+        final BlueprintedServiceManager<Svc> first = new BlueprintedServiceManager<Svc>(Svc.class) {
+            @Override
+            public <U2 extends Svc> ServiceLease<U2> acquireByInterface(@NotNull final Class<U2> service) {
+                // The winner is unregistered between the lookup of the composite and the lease of the member
+                if (unregistered.compareAndSet(false, true)) {
+                    this.unregisterServiceByInterface(service);
+                }
+                return super.acquireByInterface(service);
+            }
+        };
+        final BlueprintedServiceManager<Svc> second = new BlueprintedServiceManager<>(Svc.class);
+        final CompositeServiceManager<IBlueprintedServiceHolder<? extends Svc>, Svc> composite = composite(first, second);
+        first.registerService(Svc.class, new A("first"));
+        second.registerService(Svc.class, new A("second"));
+
+        try (ServiceLease<Svc> lease = composite.acquireByInterface(Svc.class)) {
+            assertTrue(unregistered.get());
+            assertEquals("second", lease.get().getName());
+        }
+    }
+
+    @Test
+    void returnsNoLeaseWhenTheLastWinnerLeaves() {
+        final BlueprintedServiceManager<Svc> only = new BlueprintedServiceManager<Svc>(Svc.class) {
+            @Override
+            public <U2 extends Svc> ServiceLease<U2> acquire(@NotNull final Class<U2> serviceImpl) {
+                this.unregisterServiceByImplementation(serviceImpl);
+                return super.acquire(serviceImpl);
+            }
+        };
+        final CompositeServiceManager<IBlueprintedServiceHolder<? extends Svc>, Svc> composite = composite(only);
+        only.registerService(Svc.class, new A());
+        assertNull(composite.acquire(A.class));
+    }
+
+    public interface Svc {
+        default String getName() {
+            return this.getClass().getSimpleName();
+        }
+    }
+
+    public interface Other extends Svc {
+    }
+
+    public static final class A implements Other {
+        private final String name;
+
+        A() {
+            this("A");
+        }
+
+        A(final String name) {
+            this.name = name;
+        }
+
+        @Override
+        public String getName() {
+            return this.name;
+        }
+    }
+
+    public static final class B implements Other {
+    }
+
+    public static final class C implements Svc {
+    }
+
+    public static final class D implements Svc {
+    }
+}
@@ -0,0 +1,81 @@
+package org.akazukin.service.manager;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class DeferredCompletionsTest {
+    private final Thread.UncaughtExceptionHandler handler = Thread.currentThread().getUncaughtExceptionHandler();
+    private final List<Throwable> reported = new ArrayList<>();
+
+    @AfterEach
+    void restoreHandler() {
+        Thread.currentThread().setUncaughtExceptionHandler(this.handler);
+    }
+
+    private void captureReports() {
+        Thread.currentThread().setUncaughtExceptionHandler((t, e) -> this.reported.add(e));
+    }
+
+    @Test
+    void runsImmediatelyWithoutLock() {
+        final List<Integer> order = new ArrayList<>();
+        DeferredCompletions.defer(() -> order.add(1));
+        assertEquals(Arrays.asList(1), order);
+    }
+
+    @Test
+    void runsAfterTheOutermostUnlockInOrder() {
+        final List<Integer> order = new ArrayList<>();
+        DeferredCompletions.enter();
+        DeferredCompletions.defer(() -> order.add(1));
+        DeferredCompletions.enter();
+        DeferredCompletions.defer(() -> order.add(2));
+        DeferredCompletions.exit();
+        assertTrue(order.isEmpty());
+        DeferredCompletions.exit();
+        assertEquals(Arrays.asList(1, 2), order);
+    }
+
+    @Test
+    void reportsFailuresWithoutThrowing() {
+        this.captureReports();
+        final IllegalStateException failure = new IllegalStateException();
+        final List<Integer> order = new ArrayList<>();
+        DeferredCompletions.enter();
+        DeferredCompletions.defer(() -> {
+            throw failure;
+        });
+        DeferredCompletions.defer(() -> order.add(1));
+        DeferredCompletions.exit();
+        assertEquals(Arrays.asList(1), order);
+        assertEquals(1, this.reported.size());
+        assertSame(failure, this.reported.get(0));
+    }
+
+    @Test
+    void keepsTheExceptionOfTheLockedSection() {
+        this.captureReports();
+        final IllegalArgumentException thrown = assertThrows(IllegalArgumentException.class, () -> {
+            DeferredCompletions.enter();
+            try {
+                DeferredCompletions.defer(() -> {
+                    throw new IllegalStateException();
+                });
+                throw new IllegalArgumentException();
+            } finally {
+                DeferredCompletions.exit();
+            }
+        });
+        assertEquals(0, thrown.getSuppressed().length);
+        assertEquals(1, this.reported.size());
+    }
+}
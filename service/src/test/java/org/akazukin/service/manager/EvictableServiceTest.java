@@ -0,0 +1,183 @@
+package org.akazukin.service.manager;
+
+import org.akazukin.service.data.BlueprintedCompoundServiceHolder;
+import org.akazukin.service.data.CompoundServiceHolder;
+import org.akazukin.service.data.IBlueprintedCompoundServiceHolder;
+import org.akazukin.service.data.ICompoundServiceHolder;
+import org.akazukin.service.data.IServiceHolder;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.junit.jupiter.api.Test;
+
+import java.lang.ref.WeakReference;
+import java.lang.reflect.Field;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class EvictableServiceTest {
+    private static final long TIMEOUT = TimeUnit.SECONDS.toNanos(5);
+
+    private static ScheduledFuture<?> sweeper(final ASingleServiceManager<?, ?> manager) throws ReflectiveOperationException {
+        final Field field = ASingleServiceManager.class.getDeclaredField("sweeper");
+        field.setAccessible(true);
+        return (ScheduledFuture<?>) field.get(manager);
+    }
+
+    private static void awaitEviction(final IServiceHolder<?> holder) throws InterruptedException {
+        final long deadline = System.nanoTime() + TIMEOUT;
+        while (holder.peekImplementation() != null) {
+            assertTrue(System.nanoTime() - deadline < 0, "The service was not evicted");
+            Thread.sleep(5);
+        }
+    }
+
+    @Test
+    void createsTheServiceOnDemandAndRebuildsItOnceEvicted() throws InterruptedException {
+        final AtomicInteger created = new AtomicInteger();
+        final BlueprintedServiceManager<Svc> manager = new BlueprintedServiceManager<>(Svc.class);
+        manager.registerEvictableService(Svc.class, A.class, () -> {
+            created.incrementAndGet();
+            return new A();
+        }, 1, TimeUnit.HOURS);
+        assertEquals(0, created.get());
+        assertNotNull(manager.getServiceHolderByImplementation(A.class));
+        assertEquals(0, created.get());
+
+        final Svc first = manager.getServiceByInterface(Svc.class);
+        assertSame(first, manager.getServiceByImplementation(A.class));
+        assertEquals(1, created.get());
+        assertEquals(0, manager.evictIdleServices());
+
+        final BlueprintedServiceManager<Svc> fast = new BlueprintedServiceManager<>(Svc.class);
+        fast.registerEvictableService(Svc.class, A.class, A::new, 1, TimeUnit.MILLISECONDS);
+        final Svc before = fast.getServiceByInterface(Svc.class);
+        Thread.sleep(10);
+        fast.evictIdleServices();
+        assertNull(fast.getServiceHolderByInterface(Svc.class).peekImplementation());
+        final Svc after = fast.getServiceByInterface(Svc.class);
+        assertNotSame(before, after);
+        assertSame(after, fast.getServiceHolderByInterface(Svc.class).peekImplementation());
+    }
+
+    @Test
+    void keepsFrequentlyAccessedServices() throws InterruptedException {
+        final BlueprintedServiceManager<Svc> manager = new BlueprintedServiceManager<>(Svc.class);
+        manager.registerEvictableService(Svc.class, A.class, A::new, 200, TimeUnit.MILLISECONDS);
+        final Svc service = manager.getServiceByInterface(Svc.class);
+        final long end = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(600);
+        while (System.nanoTime() - end < 0) {
+            assertSame(service, manager.getServiceByInterface(Svc.class));
+            assertEquals(0, manager.evictIdleServices());
+            Thread.sleep(5);
+        }
+    }
+
+    @Test
+    void matchesReleasedInstancesOfTheService() throws InterruptedException {
+        final BlueprintedServiceManager<Svc> manager = new BlueprintedServiceManager<>(Svc.class);
+        manager.registerEvictableService(Svc.class, A.class, A::new, 1, TimeUnit.MILLISECONDS);
+        final Svc released = manager.getServiceByInterface(Svc.class);
+        awaitEviction(manager.getServiceHolderByInterface(Svc.class));
+
+        assertSame(manager.getServiceHolderByInterface(Svc.class), manager.getServiceHolderByService(released));
+        manager.unregisterService(released);
+        assertNull(manager.getServiceHolderByImplementation(A.class));
+    }
+
+    @Test
+    void keepsTheDataOfReleasedInstances() throws InterruptedException {
+        final CompoundServiceManager<Svc, String> compound = new CompoundServiceManager<Svc, String>(Svc.class, String.class) {
+            @Override
+            protected @NotNull ICompoundServiceHolder<? extends Svc, String> createServiceHolder(@NotNull final Svc serviceImpl) {
+                return new CompoundServiceHolder<>(serviceImpl);
+            }
+        };
+        compound.registerEvictableService(A.class, A::new, 1, TimeUnit.MILLISECONDS);
+        compound.getServiceHolderByImplementation(A.class).setData("compound");
+        final Svc first = compound.getServiceByImplementation(A.class);
+        awaitEviction(compound.getServiceHolderByImplementation(A.class));
+        assertEquals("compound", compound.getDataByService(first));
+
+        final BlueprintedCompoundServiceManager<Svc, String> blueprinted = new BlueprintedCompoundServiceManager<Svc, String>(Svc.class, String.class) {
+            @Override
+            protected <U2 extends Svc> @NotNull IBlueprintedCompoundServiceHolder<? extends Svc, String> createServiceHolder(
+                    @Nullable final Class<U2> service, @NotNull final U2 serviceImpl) {
+                return new BlueprintedCompoundServiceHolder<>(service, serviceImpl);
+            }
+        };
+        blueprinted.registerEvictableService(Svc.class, A.class, A::new, 1, TimeUnit.MILLISECONDS);
+        blueprinted.getServiceHolderByInterface(Svc.class).setData("blueprinted");
+        final Svc second = blueprinted.getServiceByInterface(Svc.class);
+        awaitEviction(blueprinted.getServiceHolderByInterface(Svc.class));
+        assertEquals("blueprinted", blueprinted.getDataByService(second));
+    }
+
+    @Test
+    void cancelsTheSweeperWithTheLastEvictableService() throws ReflectiveOperationException {
+        final BlueprintedServiceManager<Svc> manager = new BlueprintedServiceManager<>(Svc.class);
+        manager.registerService(Svc.class, new B());
+        assertNull(sweeper(manager));
+
+        manager.registerEvictableService(null, A.class, A::new, 1, TimeUnit.HOURS);
+        manager.registerEvictableService(null, C.class, C::new, 1, TimeUnit.HOURS);
+        final ScheduledFuture<?> sweeper = sweeper(manager);
+        assertNotNull(sweeper);
+
+        manager.unregisterServiceByImplementation(A.class);
+        assertSame(sweeper, sweeper(manager));
+        manager.unregisterServiceByImplementation(B.class);
+        assertSame(sweeper, sweeper(manager));
+        manager.unregisterServiceByImplementation(C.class);
+        assertNull(sweeper(manager));
+        assertTrue(sweeper.isCancelled());
+    }
+
+    @Test
+    void reschedulesTheSweeperForShorterTimeouts() throws ReflectiveOperationException {
+        final BlueprintedServiceManager<Svc> manager = new BlueprintedServiceManager<>(Svc.class);
+        manager.registerEvictableService(null, A.class, A::new, 1, TimeUnit.HOURS);
+        final ScheduledFuture<?> slow = sweeper(manager);
+        manager.registerEvictableService(null, C.class, C::new, 1, TimeUnit.MINUTES);
+        final ScheduledFuture<?> fast = sweeper(manager);
+        assertNotSame(slow, fast);
+        assertTrue(slow.isCancelled());
+
+        manager.unregisterServiceByImplementation(C.class);
+        manager.unregisterServiceByImplementation(A.class);
+        assertTrue(fast.isCancelled());
+    }
+
+    @Test
+    void sweeperDoesNotRetainTheManager() throws InterruptedException {
+        BlueprintedServiceManager<Svc> manager = new BlueprintedServiceManager<>(Svc.class);
+        manager.registerEvictableService(null, A.class, A::new, 1, TimeUnit.MILLISECONDS);
+        final WeakReference<BlueprintedServiceManager<Svc>> ref = new WeakReference<>(manager);
+        manager = null;
+        final long deadline = System.nanoTime() + TIMEOUT;
+        while (ref.get() != null && System.nanoTime() - deadline < 0) {
+            System.gc();
+            Thread.sleep(10);
+        }
+        assertNull(ref.get());
+    }
+
+    public interface Svc {
+    }
+
+    public static final class A implements Svc {
+    }
+
+    public static final class B implements Svc {
+    }
+
+    public static final class C implements Svc {
+    }
+}
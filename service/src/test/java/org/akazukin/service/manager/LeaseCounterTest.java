@@ -0,0 +1,143 @@
+package org.akazukin.service.manager;
+
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Field;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LeaseCounterTest {
+    private static void inflate(final LeaseCounter counter, final int length) throws ReflectiveOperationException {
+        final Field field = LeaseCounter.class.getDeclaredField("cells");
+        field.setAccessible(true);
+        field.set(counter, new AtomicLongArray(length));
+    }
+
+    @Test
+    void countsOpenLeases() {
+        final LeaseCounter counter = new LeaseCounter();
+        assertFalse(counter.isLeased());
+        final int first = counter.acquire();
+        final int second = counter.acquire();
+        assertTrue(first >= 0);
+        assertTrue(second >= 0);
+        assertTrue(counter.isLeased());
+
+        counter.release(first);
+        assertTrue(counter.isLeased());
+        counter.release(second);
+        assertFalse(counter.isLeased());
+    }
+
+    @Test
+    void drainsImmediatelyWithoutLeases() {
+        final LeaseCounter counter = new LeaseCounter();
+        final CompletableFuture<Void> drained = counter.drain();
+        assertTrue(drained.isDone());
+        assertSame(drained, counter.getDrained());
+    }
+
+    @Test
+    void drainsOnceTheLastLeaseIsReleased() {
+        final LeaseCounter counter = new LeaseCounter();
+        final int first = counter.acquire();
+        final int second = counter.acquire();
+        final CompletableFuture<Void> drained = counter.drain();
+        assertFalse(drained.isDone());
+
+        counter.release(first);
+        assertFalse(drained.isDone());
+        counter.release(second);
+        assertTrue(drained.isDone());
+    }
+
+    @Test
+    void rejectsLeasesWhileDraining() {
+        final LeaseCounter counter = new LeaseCounter();
+        final int open = counter.acquire();
+        counter.drain();
+        assertEquals(-1, counter.acquire());
+        assertFalse(counter.getDrained().isDone());
+
+        counter.release(open);
+        assertTrue(counter.getDrained().isDone());
+        assertEquals(-1, counter.acquire());
+        assertFalse(counter.isLeased());
+    }
+
+    @Test
+    void releasesLeasesCountedBeforeAndAfterStriping() throws ReflectiveOperationException {
+        final LeaseCounter counter = new LeaseCounter();
+        final int unstriped = counter.acquire();
+        // Striping is normally switched on by a failed update of the base count under contention
+        inflate(counter, 64 * 16);
+        final int striped = counter.acquire();
+        assertNotEquals(unstriped, striped);
+
+        final CompletableFuture<Void> drained = counter.drain();
+        counter.release(unstriped);
+        assertTrue(counter.isLeased());
+        assertFalse(drained.isDone());
+        counter.release(striped);
+        assertFalse(counter.isLeased());
+        assertTrue(drained.isDone());
+    }
+
+    @Test
+    void balancesConcurrentLeases() throws InterruptedException {
+        final LeaseCounter counter = new LeaseCounter();
+        final int threads = 4;
+        final CountDownLatch start = new CountDownLatch(1);
+        final AtomicReference<Throwable> failure = new AtomicReference<>();
+        final Thread[] workers = new Thread[threads];
+        for (int i = 0; i < threads; i++) {
+            workers[i] = new Thread(() -> {
+                try {
+                    start.await();
+                    for (int j = 0; j < 100_000; j++) {
+                        final int stripe = counter.acquire();
+                        if (stripe < 0) {
+                            throw new AssertionError("The counter is not draining");
+                        }
+                        counter.release(stripe);
+                    }
+                } catch (final Throwable t) {
+                    failure.compareAndSet(null, t);
+                }
+            });
+            workers[i].start();
+        }
+        start.countDown();
+        for (final Thread worker : workers) {
+            worker.join();
+        }
+        assertNull(failure.get());
+        assertFalse(counter.isLeased());
+        assertTrue(counter.drain().isDone());
+    }
+
+    @Test
+    void defersTheDrainUnderALock() {
+        final LeaseCounter counter = new LeaseCounter();
+        final int stripe = counter.acquire();
+        final CompletableFuture<Void> drained = counter.drain();
+
+        DeferredCompletions.enter();
+        try {
+            counter.release(stripe);
+            assertFalse(drained.isDone());
+        } finally {
+            DeferredCompletions.exit();
+        }
+        assertTrue(drained.isDone());
+    }
+}
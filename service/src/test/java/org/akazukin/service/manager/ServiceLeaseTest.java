@@ -0,0 +1,108 @@
+package org.akazukin.service.manager;
+
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Field;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ServiceLeaseTest {
+    @Test
+    void leasesRegisteredServices() {
+        final ServiceManager<Svc> manager = new ServiceManager<>(Svc.class);
+        assertNull(manager.acquire(A.class));
+
+        final A service = new A();
+        manager.registerService(service);
+        try (ServiceLease<A> lease = manager.acquire(A.class)) {
+            assertSame(service, lease.get());
+        }
+    }
+
+    @Test
+    void drainsOnceTheLeasesAreClosed() {
+        final BlueprintedServiceManager<Svc> manager = new BlueprintedServiceManager<>(Svc.class);
+        manager.registerService(Svc.class, new A());
+        final ServiceLease<Svc> first = manager.acquireByInterface(Svc.class);
+        final ServiceLease<A> second = manager.acquire(A.class);
+
+        final CompletableFuture<Void> drained = manager.unregisterAndDrain(A.class);
+        assertNull(manager.getServiceByImplementation(A.class));
+        assertNull(manager.acquire(A.class));
+        assertFalse(drained.isDone());
+
+        first.close();
+        first.close();
+        assertFalse(drained.isDone());
+        second.close();
+        assertTrue(drained.isDone());
+    }
+
+    @Test
+    void drainsImmediatelyWithoutLeases() {
+        final BlueprintedServiceManager<Svc> manager = new BlueprintedServiceManager<>(Svc.class);
+        manager.registerService(Svc.class, new A());
+        manager.acquire(A.class).close();
+        assertTrue(manager.unregisterAndDrainByInterface(Svc.class).isDone());
+        assertTrue(manager.unregisterAndDrain(A.class).isDone());
+    }
+
+    @Test
+    void completesTheDrainOutsideTheLock() throws ReflectiveOperationException {
+        final BlueprintedServiceManager<Svc> manager = new BlueprintedServiceManager<>(Svc.class);
+        final Field field = ASingleServiceManager.class.getDeclaredField("mutatorLock");
+        field.setAccessible(true);
+        final ReentrantLock lock = (ReentrantLock) field.get(manager);
+        manager.registerService(Svc.class, new A());
+        final ServiceLease<A> lease = manager.acquire(A.class);
+        final AtomicBoolean completed = new AtomicBoolean();
+        final AtomicBoolean locked = new AtomicBoolean();
+        manager.unregisterAndDrain(A.class).thenRun(() -> {
+            completed.set(true);
+            locked.set(lock.isHeldByCurrentThread());
+        });
+
+        // Closed the way a manager runs a callback, under its lock
+        lock.lock();
+        DeferredCompletions.enter();
+        lease.close();
+        assertFalse(completed.get());
+        lock.unlock();
+        DeferredCompletions.exit();
+
+        assertTrue(completed.get());
+        assertFalse(locked.get());
+    }
+
+    @Test
+    void keepsLeasedServicesFromEviction() throws InterruptedException {
+        final BlueprintedServiceManager<Svc> manager = new BlueprintedServiceManager<>(Svc.class);
+        manager.registerEvictableService(Svc.class, A.class, A::new, 1, TimeUnit.MILLISECONDS);
+        final ServiceLease<A> lease = manager.acquire(A.class);
+        final A leased = lease.get();
+        Thread.sleep(20);
+        assertEquals(0, manager.evictIdleServices());
+        assertSame(leased, manager.getServiceHolderByInterface(Svc.class).peekImplementation());
+
+        lease.close();
+        Thread.sleep(20);
+        manager.evictIdleServices();
+        assertNull(manager.getServiceHolderByInterface(Svc.class).peekImplementation());
+        assertNotNull(manager.getServiceByImplementation(A.class));
+    }
+
+    public interface Svc {
+    }
+
+    public static final class A implements Svc {
+    }
+}
@@ -0,0 +1,196 @@
+package org.akazukin.service.pool;
+
+import org.junit.jupiter.api.Test;
+
+import java.lang.ref.WeakReference;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ServicePoolTest {
+    private static final long TIMEOUT = TimeUnit.SECONDS.toNanos(5);
+
+    private static boolean awaitSize(final ServicePool<?> pool, final int size) throws InterruptedException {
+        final long deadline = System.nanoTime() + TIMEOUT;
+        while (pool.getSize() != size) {
+            if (System.nanoTime() - deadline > 0) {
+                return false;
+            }
+            Thread.sleep(5);
+        }
+        return true;
+    }
+
+    @Test
+    void rejectsInvalidSizes() {
+        assertThrows(IllegalArgumentException.class, () -> new ServicePool<>(Object::new, -1, 1, 0, TimeUnit.SECONDS));
+        assertThrows(IllegalArgumentException.class, () -> new ServicePool<>(Object::new, 0, 0, 0, TimeUnit.SECONDS));
+        assertThrows(IllegalArgumentException.class, () -> new ServicePool<>(Object::new, 2, 1, 0, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void createsTheMinimumEagerly() {
+        final AtomicInteger created = new AtomicInteger();
+        final ServicePool<Object> pool = new ServicePool<>(() -> {
+            created.incrementAndGet();
+            return new Object();
+        }, 2, 4, 0, TimeUnit.SECONDS);
+        assertEquals(2, created.get());
+        assertEquals(2, pool.getSize());
+    }
+
+    @Test
+    void reusesReleasedInstances() {
+        final ServicePool<Object> pool = new ServicePool<>(Object::new, 0, 4, 0, TimeUnit.SECONDS);
+        final Object first = pool.borrow();
+        pool.release(first);
+        assertSame(first, pool.borrow());
+        final Object second = pool.borrow();
+        assertNotSame(first, second);
+        assertEquals(2, pool.getSize());
+    }
+
+    @Test
+    void failsOnceExhausted() {
+        final ServicePool<Object> pool = new ServicePool<>(Object::new, 0, 2, 0, TimeUnit.SECONDS);
+        final Object first = pool.borrow();
+        pool.borrow();
+        assertThrows(IllegalStateException.class, pool::borrow);
+        assertEquals(2, pool.getSize());
+
+        pool.release(first);
+        assertSame(first, pool.borrow());
+    }
+
+    @Test
+    void factoryFailuresDoNotLeakSlots() {
+        final AtomicInteger failures = new AtomicInteger(5);
+        final Supplier<Object> factory = () -> {
+            if (failures.getAndDecrement() > 0) {
+                throw new IllegalStateException("factory");
+            }
+            return new Object();
+        };
+        final ServicePool<Object> pool = new ServicePool<>(factory, 0, 2, 0, TimeUnit.SECONDS);
+        for (int i = 0; i < 5; i++) {
+            assertThrows(IllegalStateException.class, pool::borrow);
+            assertEquals(0, pool.getSize());
+        }
+        pool.borrow();
+        pool.borrow();
+        assertEquals(2, pool.getSize());
+    }
+
+    @Test
+    void rejectsInstancesNotBorrowed() {
+        final ServicePool<Object> pool = new ServicePool<>(Object::new, 1, 2, 0, TimeUnit.SECONDS);
+        assertThrows(IllegalStateException.class, () -> pool.release(new Object()));
+
+        final Object borrowed = pool.borrow();
+        pool.release(borrowed);
+        assertThrows(IllegalStateException.class, () -> pool.release(borrowed));
+    }
+
+    @Test
+    void releasesFromAnotherThread() throws Exception {
+        final ServicePool<Object> pool = new ServicePool<>(Object::new, 0, 1, 0, TimeUnit.SECONDS);
+        final Object borrowed = pool.borrow();
+        final ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            executor.submit(() -> pool.release(borrowed)).get();
+        } finally {
+            executor.shutdown();
+        }
+        assertSame(borrowed, pool.borrow());
+    }
+
+    @Test
+    void withReleasesOnFailure() {
+        final ServicePool<Object> pool = new ServicePool<>(Object::new, 0, 1, 0, TimeUnit.SECONDS);
+        assertThrows(IllegalArgumentException.class, () -> pool.with(o -> {
+            throw new IllegalArgumentException();
+        }));
+        assertEquals("ok", pool.with(o -> "ok"));
+    }
+
+    @Test
+    void trimKeepsRecentlyUsedInstances() {
+        final ServicePool<Object> pool = new ServicePool<>(Object::new, 1, 4, 1, TimeUnit.HOURS);
+        try {
+            final Object first = pool.borrow();
+            final Object second = pool.borrow();
+            pool.release(first);
+            pool.release(second);
+            pool.trim();
+            assertEquals(2, pool.getSize());
+        } finally {
+            pool.close();
+        }
+    }
+
+    @Test
+    void trimSkipsBorrowedInstancesAndKeepsTheMinimum() throws InterruptedException {
+        final ServicePool<Object> pool = new ServicePool<>(Object::new, 1, 4, 1, TimeUnit.MILLISECONDS);
+        pool.close();
+        final Object first = pool.borrow();
+        final Object second = pool.borrow();
+        final Object third = pool.borrow();
+        pool.release(first);
+        Thread.sleep(10);
+        pool.trim();
+        assertEquals(2, pool.getSize());
+        assertThrows(IllegalStateException.class, () -> pool.release(first));
+
+        pool.release(second);
+        pool.release(third);
+        Thread.sleep(10);
+        pool.trim();
+        assertEquals(1, pool.getSize());
+    }
+
+    @Test
+    void trimsInTheBackground() throws InterruptedException {
+        final ServicePool<Object> pool = new ServicePool<>(Object::new, 1, 4, 10, TimeUnit.MILLISECONDS);
+        try {
+            final Object first = pool.borrow();
+            final Object second = pool.borrow();
+            pool.release(first);
+            pool.release(second);
+            assertTrue(awaitSize(pool, 1));
+        } finally {
+            pool.close();
+        }
+    }
+
+    @Test
+    void stopsTrimmingOnceClosed() throws InterruptedException {
+        final ServicePool<Object> pool = new ServicePool<>(Object::new, 0, 2, 5, TimeUnit.MILLISECONDS);
+        pool.close();
+        pool.release(pool.borrow());
+        Thread.sleep(100);
+        assertEquals(1, pool.getSize());
+    }
+
+    @Test
+    void trimmerDoesNotRetainThePool() throws InterruptedException {
+        ServicePool<Object> pool = new ServicePool<>(Object::new, 0, 2, 5, TimeUnit.MILLISECONDS);
+        pool.release(pool.borrow());
+        final WeakReference<ServicePool<Object>> ref = new WeakReference<>(pool);
+        pool = null;
+        final long deadline = System.nanoTime() + TIMEOUT;
+        while (ref.get() != null && System.nanoTime() - deadline < 0) {
+            System.gc();
+            Thread.sleep(10);
+        }
+        assertNull(ref.get());
+    }
+}